@@ -0,0 +1,160 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.util.*;
+
+/****
+ * AsmEmitter
+ *
+ * Writes the text of the generated assembly code.  Characters are
+ * collected in one large buffer that is reused for the whole file; strings,
+ * integers and runs of spaces are copied straight into it (no temporary
+ * Strings are built), and the buffer is encoded and written to the file
+ * channel only when it fills up, in large chunks.
+ *
+ * The text written is exactly what a PrintWriter on the same file would
+ * have written: the same characters, the default character encoding, and
+ * the platform line separator.
+ ****/
+
+public class AsmEmitter {
+    private static final int BUFSIZE = 64 * 1024;   // characters
+    private static final String NEWLINE = System.lineSeparator();
+
+    private WritableByteChannel channel;
+    private char[] buf = new char[BUFSIZE];
+    private int len = 0;                            // chars in buf
+    private CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer bytes = ByteBuffer.allocateDirect(
+                (int)(BUFSIZE * encoder.maxBytesPerChar()));
+
+    public AsmEmitter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /***
+     * Write the given string.
+     ***/
+    public void print(String s) {
+        int n = s.length();
+        if (len + n > buf.length) {
+            flushBuffer(false);
+            if (len + n > buf.length) {
+                buf = Arrays.copyOf(buf, len + n);
+            }
+        }
+        s.getChars(0, n, buf, len);
+        len += n;
+    }
+
+    /***
+     * Write the given integer (in decimal).
+     ***/
+    public void print(int n) {
+        if (len + 11 > buf.length) {    // 11 = length of "-2147483648"
+            flushBuffer(false);
+        }
+        if (n == Integer.MIN_VALUE) {
+            print("-2147483648");
+            return;
+        }
+        if (n < 0) {
+            buf[len++] = '-';
+            n = -n;
+        }
+
+        // write the digits backwards, then reverse them in place
+        int start = len;
+        do {
+            buf[len++] = (char)('0' + n % 10);
+            n /= 10;
+        } while (n != 0);
+        for (int i = start, j = len - 1; i < j; i++, j--) {
+            char c = buf[i];
+            buf[i] = buf[j];
+            buf[j] = c;
+        }
+    }
+
+    /***
+     * Write a single character.
+     ***/
+    public void print(char c) {
+        if (len == buf.length) {
+            flushBuffer(false);
+        }
+        buf[len++] = c;
+    }
+
+    /***
+     * Write n spaces (nothing if n is not positive).
+     ***/
+    public void spaces(int n) {
+        if (n <= 0) {
+            return;
+        }
+        if (len + n > buf.length) {
+            flushBuffer(false);
+            if (len + n > buf.length) {
+                buf = Arrays.copyOf(buf, len + n);
+            }
+        }
+        Arrays.fill(buf, len, len + n, ' ');
+        len += n;
+    }
+
+    /***
+     * End the current line.
+     ***/
+    public void println() {
+        print(NEWLINE);
+    }
+
+    /***
+     * Write everything collected so far to the file and close it.
+     ***/
+    public void close() throws IOException {
+        flushBuffer(true);
+        channel.close();
+    }
+
+    /***
+     * Encode the characters in buf and write them to the channel.  A
+     * character that cannot be encoded yet (the first half of a surrogate
+     * pair at the end of buf) is kept for the next call.
+     ***/
+    private void flushBuffer(boolean endOfInput) {
+        CharBuffer chars = CharBuffer.wrap(buf, 0, len);
+        try {
+            while (encoder.encode(chars, bytes, endOfInput).isOverflow()) {
+                writeBytes();
+            }
+            if (endOfInput) {
+                while (encoder.flush(bytes).isOverflow()) {
+                    writeBytes();
+                }
+            }
+            writeBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        int left = chars.remaining();
+        System.arraycopy(buf, chars.position(), buf, 0, left);
+        len = left;
+    }
+
+    /***
+     * Write the encoded bytes to the channel.
+     ***/
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,227 @@
+/****
+ * AstVisitor
+ *
+ * A pass over the AST (see ast.java) written outside of the node classes.
+ * node.accept(v) calls the visit method of v for the class of node, and
+ * node.visitChildren(v) calls accept on each child of node, in the order
+ * of the table at the top of ast.java.
+ *
+ * Every visit method does visitNode(node) unless it is overridden, and
+ * visitNode visits the children; so a visitor that overrides nothing
+ * walks the whole tree, one that overrides visitNode sees every node,
+ * and one that overrides some visit methods sees the nodes of those
+ * classes.  An overriding method decides whether (and when) the children
+ * are visited, by calling visitChildren itself.  Unparser is written this
+ * way, as is the node count of PassManager.
+ ****/
+
+public abstract class AstVisitor {
+    /***
+     * Visit a node whose visit method is not overridden.
+     ***/
+    public void visitNode(ASTnode node) {
+        node.visitChildren(this);
+    }
+
+    // lists and the program
+
+    public void visit(ProgramNode node) {
+        visitNode(node);
+    }
+
+    public void visit(DeclListNode node) {
+        visitNode(node);
+    }
+
+    public void visit(StmtListNode node) {
+        visitNode(node);
+    }
+
+    public void visit(ExpListNode node) {
+        visitNode(node);
+    }
+
+    public void visit(FormalsListNode node) {
+        visitNode(node);
+    }
+
+    public void visit(FctnBodyNode node) {
+        visitNode(node);
+    }
+
+
+    // declarations
+
+    public void visit(VarDeclNode node) {
+        visitNode(node);
+    }
+
+    public void visit(FctnDeclNode node) {
+        visitNode(node);
+    }
+
+    public void visit(FormalDeclNode node) {
+        visitNode(node);
+    }
+
+    public void visit(TupleDeclNode node) {
+        visitNode(node);
+    }
+
+
+    // types
+
+    public void visit(LogicalNode node) {
+        visitNode(node);
+    }
+
+    public void visit(IntegerNode node) {
+        visitNode(node);
+    }
+
+    public void visit(VoidNode node) {
+        visitNode(node);
+    }
+
+    public void visit(TupleNode node) {
+        visitNode(node);
+    }
+
+
+    // statements
+
+    public void visit(AssignStmtNode node) {
+        visitNode(node);
+    }
+
+    public void visit(PostIncStmtNode node) {
+        visitNode(node);
+    }
+
+    public void visit(PostDecStmtNode node) {
+        visitNode(node);
+    }
+
+    public void visit(IfStmtNode node) {
+        visitNode(node);
+    }
+
+    public void visit(IfElseStmtNode node) {
+        visitNode(node);
+    }
+
+    public void visit(WhileStmtNode node) {
+        visitNode(node);
+    }
+
+    public void visit(ReadStmtNode node) {
+        visitNode(node);
+    }
+
+    public void visit(WriteStmtNode node) {
+        visitNode(node);
+    }
+
+    public void visit(CallStmtNode node) {
+        visitNode(node);
+    }
+
+    public void visit(ReturnStmtNode node) {
+        visitNode(node);
+    }
+
+
+    // expressions
+
+    public void visit(TrueNode node) {
+        visitNode(node);
+    }
+
+    public void visit(FalseNode node) {
+        visitNode(node);
+    }
+
+    public void visit(IdNode node) {
+        visitNode(node);
+    }
+
+    public void visit(IntLitNode node) {
+        visitNode(node);
+    }
+
+    public void visit(StrLitNode node) {
+        visitNode(node);
+    }
+
+    public void visit(TupleAccessNode node) {
+        visitNode(node);
+    }
+
+    public void visit(AssignExpNode node) {
+        visitNode(node);
+    }
+
+    public void visit(CallExpNode node) {
+        visitNode(node);
+    }
+
+    public void visit(HoistedExpNode node) {
+        visitNode(node);
+    }
+
+    public void visit(NotNode node) {
+        visitNode(node);
+    }
+
+    public void visit(UnaryMinusNode node) {
+        visitNode(node);
+    }
+
+    public void visit(PlusNode node) {
+        visitNode(node);
+    }
+
+    public void visit(MinusNode node) {
+        visitNode(node);
+    }
+
+    public void visit(TimesNode node) {
+        visitNode(node);
+    }
+
+    public void visit(DivideNode node) {
+        visitNode(node);
+    }
+
+    public void visit(EqualsNode node) {
+        visitNode(node);
+    }
+
+    public void visit(NotEqualsNode node) {
+        visitNode(node);
+    }
+
+    public void visit(GreaterNode node) {
+        visitNode(node);
+    }
+
+    public void visit(GreaterEqNode node) {
+        visitNode(node);
+    }
+
+    public void visit(LessNode node) {
+        visitNode(node);
+    }
+
+    public void visit(LessEqNode node) {
+        visitNode(node);
+    }
+
+    public void visit(AndNode node) {
+        visitNode(node);
+    }
+
+    public void visit(OrNode node) {
+        visitNode(node);
+    }
+}
@@ -0,0 +1,190 @@
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/****
+ * BatchCompiler
+ *
+ * Compiles many base files at the same time, one independent compile
+ * (scanner, parser, name analysis, type checking, code generation) per
+ * file, spread over all processors with a fork-join pool.
+ *
+ * Arguments (after -batch):
+ *     [-d outdir] file-or-directory ...
+ * A directory stands for every .base file in it (and its subdirectories).
+ * The code for X.base is written to X.s, next to the source or in outdir.
+ * Nothing is compiled if two sources would be written to the same file.
+ * Messages are printed after all files are done, in the order the files
+ * were given, each prefixed by the name of its source file.  A file whose
+ * compile fails with an exception is reported with the others; the other
+ * files are still compiled.
+ ****/
+
+public class BatchCompiler {
+    // one file to compile
+    private static class Job {
+        String inName;
+        String outName;
+        int options;
+        String messages;
+        boolean ok;
+
+        Job(String inName, String outName, int options) {
+            this.inName = inName;
+            this.outName = outName;
+            this.options = options;
+        }
+
+        void compile() {
+            ByteArrayOutputStream msgs = new ByteArrayOutputStream();
+            PrintStream diag = new PrintStream(msgs, true);
+            CompilationContext ctx = new CompilationContext(diag, options);
+            try {
+                ok = P6.compile(inName, outName, ctx) && !ctx.hasErrors();
+            } catch (IOException | RuntimeException ex) {
+                diag.println("exception occured during compile: " + ex);
+                ok = false;
+            }
+            diag.flush();
+            messages = msgs.toString();
+        }
+    }
+
+    // compiles jobs[lo..hi), splitting the range in half until each task
+    // has a single file
+    private static class CompileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private Job[] jobs;
+        private int lo;
+        private int hi;
+
+        CompileTask(Job[] jobs, int lo, int hi) {
+            this.jobs = jobs;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo == 1) {
+                jobs[lo].compile();
+            } else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new CompileTask(jobs, lo, mid),
+                          new CompileTask(jobs, mid, hi));
+            }
+        }
+    }
+
+    /***
+     * run
+     * Given the command-line arguments (args[0] is "-batch"), compile all
+     * of the files with the given options (see CompilationContext).
+     * Returns true if every file compiled without errors.
+     ***/
+    public static boolean run(String[] args, int options) {
+        String outDir = null;
+        List<String> sources = new ArrayList<String>();
+        for (int k = 1; k < args.length; k++) {
+            if (args[k].equals("-d")) {
+                if (k + 1 == args.length) {
+                    System.err.println("please supply the directory for " +
+                                       "the MIPS files after -d.");
+                    return false;
+                }
+                outDir = args[++k];
+            } else {
+                addSources(new File(args[k]), sources);
+            }
+        }
+
+        if (sources.isEmpty()) {
+            System.err.println("please supply the base files (or directories " +
+                               "of base files) to compile.");
+            return false;
+        }
+
+        Job[] jobs = new Job[sources.size()];
+        for (int k = 0; k < jobs.length; k++) {
+            jobs[k] = new Job(sources.get(k), targetName(sources.get(k), outDir),
+                              options);
+        }
+        if (!distinctTargets(jobs)) {
+            return false;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            pool.invoke(new CompileTask(jobs, 0, jobs.length));
+        } finally {
+            pool.shutdown();
+        }
+
+        boolean ok = true;
+        for (Job job : jobs) {
+            if (!job.messages.isEmpty()) {
+                for (String line : job.messages.split("\\R")) {
+                    System.err.println(job.inName + ":" + line);
+                }
+            }
+            ok = ok && job.ok;
+        }
+        return ok;
+    }
+
+    /***
+     * Add f to the list of sources, or every .base file under f if f is a
+     * directory.
+     ***/
+    private static void addSources(File f, List<String> sources) {
+        if (f.isDirectory()) {
+            File[] files = f.listFiles();
+            Arrays.sort(files);
+            for (File g : files) {
+                if (g.isDirectory() || g.getName().endsWith(".base")) {
+                    addSources(g, sources);
+                }
+            }
+        } else {
+            sources.add(f.getPath());
+        }
+    }
+
+    /***
+     * Check that no two jobs write the same MIPS file (which they would
+     * both write at the same time); report every pair that does.
+     ***/
+    private static boolean distinctTargets(Job[] jobs) {
+        boolean ok = true;
+        HashMap<File, Job> byTarget = new HashMap<File, Job>();
+        for (Job job : jobs) {
+            File target = new File(job.outName).getAbsoluteFile().toPath()
+                                                .normalize().toFile();
+            Job other = byTarget.put(target, job);
+            if (other != null) {
+                System.err.println(other.inName + " and " + job.inName +
+                                   " would both be compiled to " +
+                                   job.outName + ".");
+                ok = false;
+            }
+        }
+        return ok;
+    }
+
+    /***
+     * Return the name of the MIPS file for source file inName.
+     ***/
+    private static String targetName(String inName, String outDir) {
+        File in = new File(inName);
+        String name = in.getName();
+        if (name.endsWith(".base")) {
+            name = name.substring(0, name.length() - ".base".length());
+        }
+        name += ".s";
+
+        if (outDir != null) {
+            return new File(outDir, name).getPath();
+        }
+        return new File(in.getParentFile(), name).getPath();
+    }
+}
@@ -0,0 +1,555 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java_cup.runtime.*;
+
+/****
+ * ByteScanner
+ *
+ * A scanner for base that reads the source straight out of a ByteBuffer,
+ * normally the source file mapped into memory (see open).  It returns the
+ * same tokens as the scanner JLex makes from base.jlex (Yylex), with the
+ * same line and character numbers, and reports the same errors and
+ * warnings; it is used instead of Yylex when the -mmap option is given.
+ * (The one difference: Yylex stops with an error at a \r that is not in
+ * a comment or a string, which ByteScanner reports as an illegal
+ * character.)
+ *
+ * The source is taken to be ASCII: each byte is one character.  Nothing is
+ * copied out of the buffer while scanning.  The current token is just its
+ * offset and length in the buffer (see tokenStart and tokenLength); the
+ * only strings made are the values of string literals and the name of
+ * each different identifier (the first time it is seen, see NameTable).
+ *
+ * The scanner can also scan the whole source at once into a TokenBuffer
+ * (see fill), which makes no objects per token at all.
+ ****/
+
+public class ByteScanner implements java_cup.runtime.Scanner {
+    private ByteBuffer buf;         // the source
+    private int end;                // the length of the source
+    private int pos;                // where scanning continues
+    private int lineNum = 1;        // the line pos is on
+    private int charNum = 1;        // the number of pos on its line
+    private boolean lastWasCr;      // was the character before pos a \r?
+    private int tokStart;           // the current token
+    private int tokLen;
+    private int tokLine;
+    private int tokChar;
+    private int tokInt;             // its value (INTLITERAL)
+    private int tokId;              // its value (ID)
+    private String tokString;       // its value (STRLITERAL)
+    private CompilationContext ctx; // errors are reported to it
+    private NameTable names;        // identifiers are looked up here
+    private TokenBuffer into;       // or to this buffer, when filling it
+
+    public ByteScanner(ByteBuffer buf, CompilationContext ctx) {
+        this(buf, 1, ctx);
+    }
+
+    /***
+     * Make a scanner that starts at the position of buf, which must be the
+     * start of a line (the line with the given number).
+     ***/
+    public ByteScanner(ByteBuffer buf, int lineNum, CompilationContext ctx) {
+        this(buf, lineNum, ctx.names(), ctx);
+    }
+
+    /***
+     * As above, but look identifiers up in the given table instead of the
+     * one of ctx (see ParallelScanner).
+     ***/
+    public ByteScanner(ByteBuffer buf, int lineNum, NameTable names,
+                       CompilationContext ctx) {
+        this.buf = buf;
+        this.ctx = ctx;
+        this.names = names;
+        this.lineNum = lineNum;
+        pos = buf.position();
+        end = buf.limit();
+    }
+
+    /***
+     * open
+     * Return a scanner for the file with the given name, which is mapped
+     * into memory (the mapping stays valid after the file is closed).
+     ***/
+    public static ByteScanner open(String fileName, CompilationContext ctx)
+        throws IOException
+    {
+        return new ByteScanner(map(fileName), ctx);
+    }
+
+    /***
+     * map
+     * Return the file with the given name, mapped into memory.
+     ***/
+    public static ByteBuffer map(String fileName) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(fileName),
+                                               StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("file " + fileName + " is too large");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                               channel.size());
+        } finally {
+            channel.close();
+        }
+    }
+
+    /***
+     * Return the offset of the current token in the buffer.
+     ***/
+    public int tokenStart() {
+        return tokStart;
+    }
+
+    /***
+     * Return the length of the current token.
+     ***/
+    public int tokenLength() {
+        return tokLen;
+    }
+
+    /***
+     * next_token
+     * Return the next token, or EOF at the end of the source.
+     ***/
+    public Symbol next_token() {
+        int kind = scan();
+        switch (kind) {
+        case sym.EOF:
+            return new Symbol(sym.EOF);
+        case sym.ID:
+            return new Symbol(sym.ID,
+                              new IdTokenVal(tokLine, tokChar,
+                                             names.name(tokId), tokId));
+        case sym.STRLITERAL:
+            return new Symbol(sym.STRLITERAL,
+                              new StrLitTokenVal(tokLine, tokChar, tokString));
+        case sym.INTLITERAL:
+            return new Symbol(sym.INTLITERAL,
+                              new IntLitTokenVal(tokLine, tokChar, tokInt));
+        default:
+            return new Symbol(kind, new TokenVal(tokLine, tokChar));
+        }
+    }
+
+    /***
+     * fill
+     * Scan the rest of the source into the given buffer, up to and
+     * including EOF.  Errors and warnings are put in the buffer too, in
+     * their place among the tokens.
+     ***/
+    public void fill(TokenBuffer tokens) {
+        while (next(tokens) != sym.EOF) {
+        }
+    }
+
+    /***
+     * next
+     * Scan the next token into the given buffer (after any errors and
+     * warnings that come before it) and return its kind.
+     ***/
+    public int next(TokenBuffer tokens) {
+        into = tokens;
+        try {
+            int kind = scan();
+            int val = 0;
+            if (kind == sym.INTLITERAL) {
+                val = tokInt;
+            } else if (kind == sym.ID) {
+                val = tokId;
+            } else if (kind == sym.STRLITERAL) {
+                val = tokens.literal(tokString);
+            }
+            tokens.add(kind, tokLine, tokChar, tokStart, tokLen, val);
+            return kind;
+        } finally {
+            into = null;
+        }
+    }
+
+    /***
+     * scan
+     * Scan the next token and return its kind (EOF at the end of the
+     * source).  Its place and value are left in tokStart, tokLen, tokLine,
+     * tokChar, and tokInt, tokId or tokString.
+     ***/
+    private int scan() {
+        while (pos < end) {
+            int c = buf.get(pos) & 0xff;
+            tokStart = pos;
+
+            if (c == '\n') {
+                if (!lastWasCr) {   // \r\n is one line break
+                    lineNum++;
+                }
+                lastWasCr = false;
+                charNum = 1;
+                pos++;
+                continue;
+            }
+            lastWasCr = false;
+            if (c == ' ' || c == '\t') {
+                pos++;
+                while (pos < end && (buf.get(pos) == ' ' ||
+                                     buf.get(pos) == '\t')) {
+                    pos++;
+                }
+                charNum += pos - tokStart;
+                continue;
+            }
+            if (c == '$' || (c == '!' && at(pos + 1) == '!')) {
+                // comment - ignore (everything to the end of the line)
+                int k = pos;
+                while (k < end && buf.get(k) != '\n') {
+                    k++;
+                }
+                skip(k - pos);
+                continue;
+            }
+
+            if (isLetter(c) || c == '_') {
+                return word();
+            }
+            if (c >= '0' && c <= '9') {
+                return intLit();
+            }
+            if (c == '"') {
+                int kind = strLit();
+                if (kind >= 0) {
+                    return kind;
+                }
+                continue;
+            }
+
+            int kind = operator(c);
+            if (kind < 0) {
+                illegal(c);
+                continue;
+            }
+            found();
+            charNum += tokLen;
+            pos += tokLen;
+            return kind;
+        }
+
+        tokStart = pos;
+        tokLen = 0;
+        found();
+        return sym.EOF;
+    }
+
+    /***
+     * Record that the current token starts at the current place.
+     ***/
+    private void found() {
+        tokLine = lineNum;
+        tokChar = charNum;
+    }
+
+    /***
+     * Report an error at the current place.
+     ***/
+    private void error(String msg) {
+        if (into != null) {
+            into.add(TokenBuffer.ERROR, lineNum, charNum, tokStart, tokLen,
+                     into.literal(msg));
+        } else {
+            ctx.fatal(lineNum, charNum, msg);
+        }
+    }
+
+    /***
+     * Report a warning at the current place.
+     ***/
+    private void warning(String msg) {
+        if (into != null) {
+            into.add(TokenBuffer.WARNING, lineNum, charNum, tokStart, tokLen,
+                     into.literal(msg));
+        } else {
+            ctx.warn(lineNum, charNum, msg);
+        }
+    }
+
+    /***
+     * Skip the next len characters (which are not \n).  As in Yylex, a \r
+     * ends a line even when it is not a token of its own (in a comment or
+     * a string).
+     ***/
+    private void skip(int len) {
+        for (int k = pos; k < pos + len; k++) {
+            if (buf.get(k) == '\r') {
+                lineNum++;
+            }
+        }
+        if (len > 0) {
+            lastWasCr = buf.get(pos + len - 1) == '\r';
+        }
+        pos += len;
+    }
+
+    /***
+     * Report the illegal character c at pos, and skip it.
+     ***/
+    private void illegal(int c) {
+        tokLen = 1;
+        error("illegal character ignored: " + (char)c);
+        charNum++;
+        skip(1);
+    }
+
+    /***
+     * Return the character at offset k, or -1 past the end.
+     ***/
+    private int at(int k) {
+        return k < end ? buf.get(k) & 0xff : -1;
+    }
+
+    private static boolean isLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /***
+     * Scan an identifier or a keyword; returns its kind.
+     ***/
+    private int word() {
+        int k = pos;
+        int c;
+        while (k < end && (isLetter(c = buf.get(k) & 0xff) || c == '_' ||
+                           (c >= '0' && c <= '9'))) {
+            k++;
+        }
+        tokLen = k - pos;
+
+        int kind = Keywords.lookup(buf, tokStart, tokLen);
+        if (kind < 0) {
+            kind = sym.ID;
+            tokId = names.id(buf, tokStart, tokLen);
+        }
+        found();
+        charNum += tokLen;
+        pos = k;
+        return kind;
+    }
+
+    /***
+     * Return the len characters at offset start as a String.
+     ***/
+    private String text(int start, int len) {
+        char[] chars = new char[len];
+        for (int k = 0; k < len; k++) {
+            chars[k] = (char)(buf.get(start + k) & 0xff);
+        }
+        return new String(chars);
+    }
+
+    /***
+     * Scan an integer literal.  Its value is computed as the digits are
+     * read; a literal larger than the largest integer gets that value,
+     * with a warning.
+     ***/
+    private int intLit() {
+        int val = 0;
+        boolean tooLarge = false;
+        int k = pos;
+        int c;
+        while (k < end && (c = buf.get(k)) >= '0' && c <= '9') {
+            int digit = c - '0';
+            if (val > (Integer.MAX_VALUE - digit) / 10) {
+                tooLarge = true;
+            } else if (!tooLarge) {
+                val = 10 * val + digit;
+            }
+            k++;
+        }
+        tokLen = k - pos;
+
+        if (tooLarge) {
+            warning("integer literal too large - using max value");
+            tokInt = Integer.MAX_VALUE;
+        } else {
+            tokInt = val;
+        }
+        found();
+        charNum += tokLen;
+        pos = k;
+        return sym.INTLITERAL;
+    }
+
+    /***
+     * Scan a string literal, or one of the bad string literals; returns
+     * STRLITERAL, or -1 for a bad one (after reporting it).
+     *
+     * The four string rules in base.jlex are matched at the same time,
+     * each by a small set of states, and the longest match wins (the
+     * first rule on a tie), as in the scanner JLex makes.  With
+     *     A = [^\n\"\\]    E = [nst'\"\\]    B = [^\nnt'\"?\\]
+     * the rules are
+     *     1. \"(A|\\E)*\"                        a string literal
+     *     2. \"(A|\\E)*                          unterminated
+     *     3. \"(A|\\E)*\\B[^\n\"]*\"             bad escaped character
+     *     4. \"(A|\\E)*(\\B)?(A|\\E)*\\?         unterminated and bad
+     *                                            escaped character
+     ***/
+    private int strLit() {
+        // rule 1 and 2: BODY, AFTER_ESCAPE (bit set of states)
+        // rule 3: BODY, AFTER_ESCAPE, REST
+        // rule 4: BODY, AFTER_ESCAPE, BODY2, AFTER_ESCAPE2
+        final int BODY = 1, AFTER_ESCAPE = 2, REST = 4, BODY2 = 8,
+                  AFTER_ESCAPE2 = 16;
+        int s1 = BODY;                  // rules 1 and 2 share their states
+        int s3 = BODY;
+        int s4 = BODY | BODY2;
+        int[] len = {0, 0, 1, 0, 1};    // longest match of each rule
+
+        for (int k = pos + 1; k < end && (s1 | s3 | s4) != 0; k++) {
+            int c = buf.get(k) & 0xff;
+            boolean a = c != '\n' && c != '"' && c != '\\';
+            boolean e = c == 'n' || c == 's' || c == 't' || c == '\'' ||
+                        c == '"' || c == '\\';
+            boolean b = c != '\n' && c != 'n' && c != 't' && c != '\'' &&
+                        c != '"' && c != '?' && c != '\\';
+            int n = k + 1 - pos;        // the length if c is matched
+
+            int t1 = 0;
+            if ((s1 & BODY) != 0 && c == '"') {
+                len[1] = n;
+            }
+            if ((s1 & BODY) != 0 && a || (s1 & AFTER_ESCAPE) != 0 && e) {
+                t1 |= BODY;
+            }
+            if ((s1 & BODY) != 0 && c == '\\') {
+                t1 |= AFTER_ESCAPE;
+            }
+            s1 = t1;
+            if ((s1 & BODY) != 0) {
+                len[2] = n;
+            }
+
+            int t3 = 0;
+            if ((s3 & BODY) != 0 && a || (s3 & AFTER_ESCAPE) != 0 && e) {
+                t3 |= BODY;
+            }
+            if ((s3 & BODY) != 0 && c == '\\') {
+                t3 |= AFTER_ESCAPE;
+            }
+            if ((s3 & AFTER_ESCAPE) != 0 && b ||
+                (s3 & REST) != 0 && c != '\n' && c != '"') {
+                t3 |= REST;
+            }
+            if ((s3 & REST) != 0 && c == '"') {
+                len[3] = n;
+            }
+            s3 = t3;
+
+            int t4 = 0;
+            if ((s4 & BODY) != 0 && a || (s4 & AFTER_ESCAPE) != 0 && e) {
+                t4 |= BODY | BODY2;
+            }
+            if ((s4 & BODY) != 0 && c == '\\') {
+                t4 |= AFTER_ESCAPE;
+            }
+            if ((s4 & AFTER_ESCAPE) != 0 && b ||
+                (s4 & BODY2) != 0 && a || (s4 & AFTER_ESCAPE2) != 0 && e) {
+                t4 |= BODY2;
+            }
+            if ((s4 & BODY2) != 0 && c == '\\') {
+                t4 |= AFTER_ESCAPE2;
+            }
+            s4 = t4;
+            if (s4 != 0) {  // every state ends a match (the \\? is optional)
+                len[4] = n;
+            }
+        }
+
+        int rule = 1;
+        for (int r = 2; r <= 4; r++) {
+            if (len[r] > len[rule]) {
+                rule = r;
+            }
+        }
+        tokLen = len[rule];
+
+        int kind = -1;
+        switch (rule) {
+        case 1:
+            kind = sym.STRLITERAL;
+            tokString = text(tokStart, tokLen);
+            found();
+            charNum += tokLen;
+            break;
+        case 2:
+            error("unterminated string literal ignored");
+            break;
+        case 3:
+            error("string literal with bad escaped character ignored");
+            charNum += tokLen;
+            break;
+        case 4:
+            error("unterminated string literal with bad escaped character " +
+                  "ignored");
+            break;
+        }
+        skip(tokLen);
+        return kind;
+    }
+
+    /***
+     * Set tokLen and return the kind of the operator or punctuation at
+     * pos, which starts with c; returns -1 if c starts none.
+     ***/
+    private int operator(int c) {
+        int d = at(pos + 1);
+        tokLen = 2;
+        switch (c) {
+        case '>':
+            if (d == '>') return sym.INPUTOP;
+            if (d == '=') return sym.GREATEREQ;
+            tokLen = 1;
+            return sym.GREATER;
+        case '<':
+            if (d == '<') return sym.OUTPUTOP;
+            if (d == '=') return sym.LESSEQ;
+            tokLen = 1;
+            return sym.LESS;
+        case '=':
+            if (d == '=') return sym.EQUALS;
+            tokLen = 1;
+            return sym.ASSIGN;
+        case '~':
+            if (d == '=') return sym.NOTEQUALS;
+            tokLen = 1;
+            return sym.NOT;
+        case '+':
+            if (d == '+') return sym.PLUSPLUS;
+            tokLen = 1;
+            return sym.PLUS;
+        case '-':
+            if (d == '-') return sym.MINUSMINUS;
+            tokLen = 1;
+            return sym.MINUS;
+        }
+
+        tokLen = 1;
+        switch (c) {
+        case '{': return sym.LCURLY;
+        case '}': return sym.RCURLY;
+        case '(': return sym.LPAREN;
+        case ')': return sym.RPAREN;
+        case '[': return sym.LSQBRACKET;
+        case ']': return sym.RSQBRACKET;
+        case ':': return sym.COLON;
+        case ',': return sym.COMMA;
+        case '.': return sym.DOT;
+        case '&': return sym.AND;
+        case '|': return sym.OR;
+        case '*': return sym.TIMES;
+        case '/': return sym.DIVIDE;
+        default:  return -1;
+        }
+    }
+}
@@ -1,15 +1,14 @@
-import java.io.*;
-
 // **********************************************************************
 // The Codegen class provides constants and operations useful for code
 // generation.
 //
 // The constants are:
 //     Registers: FP, SP, RA, V0, V1, A0, T0, T1
+//     REGS: the registers used for expression temporaries
 //     Values: TRUE, FALSE
 //
-// The operations are include various "generate" methods to print nicely
-// formatted assembly code:
+// The operations are include various "generate" methods to add nicely
+// formatted assembly code (see InstrList for how each is printed):
 //     generateWithComment
 //     generate
 //     generateIndexed
@@ -22,8 +21,9 @@ import java.io.*;
 // **********************************************************************
 
 public class Codegen {
-    // file into which generated code is written
-    public static PrintWriter p = null;    
+    // the code is added to the InstrList of the CompilationContext of the
+    // compile running on this thread (which also holds the label counter);
+    // the list is written out when code generation is done
 
     // values of True and False
     public static final String TRUE = "1";
@@ -39,13 +39,13 @@ public class Codegen {
     public static final String T0 = "$t0";
     public static final String T1 = "$t1";
 
-
-    // for pretty printing generated code
-    private static final int MAXLEN = 4;
-
-
-    // for generating labels
-    private static int currLabel = 0;
+    // the registers that hold temporaries when expressions are evaluated in
+    // registers (see ExpNode.genReg); $s0-$s7 are used too, since no value
+    // is kept in them across a call
+    public static final String[] REGS = {
+        "$t0", "$t1", "$t2", "$t3", "$t4", "$t5", "$t6", "$t7", "$t8", "$t9",
+        "$s0", "$s1", "$s2", "$s3", "$s4", "$s5", "$s6", "$s7"
+    };
 
 
     // **********************************************************************
@@ -57,26 +57,14 @@ public class Codegen {
     // **********************************************************************
     // generateWithComment
     //    given:  op code, comment, and 0 to 3 string args
-    //    do:     write nicely formatted code (ending with new line)
+    //    do:     add nicely formatted code (ending with new line)
     // **********************************************************************
     public static void generateWithComment(String opcode, String comment,
                                         String arg1, String arg2, String arg3) {
-        int space = MAXLEN - opcode.length() + 2;
-    
-        p.print("\t" + opcode);
-        if (arg1 != "") {
-            for (int k = 1; k <= space; k++) 
-                p.print(" ");
-            p.print(arg1);
-            if (arg2 != "") {
-                p.print(", " + arg2);
-                if (arg3 != "") 
-                    p.print(", " + arg3);
-            }
-        }
-        if (comment != "") 
-            p.print("\t\t# " + comment);
-        p.println();
+        InstrList code = CompilationContext.current().code();
+        code.add(InstrList.STR, code.opcode(opcode), code.string(arg1),
+                 code.string(arg2), code.string(arg3), -1,
+                 code.string(comment));
     }
 
     public static void generateWithComment(String opcode, String comment,
@@ -96,24 +84,13 @@ public class Codegen {
     // **********************************************************************
     // generate
     //    given:  op code, and 0 to 3 string args
-    //    do:     write nicely formatted code (ending with new line)
+    //    do:     add nicely formatted code (ending with new line)
     // **********************************************************************
     public static void generate(String opcode, String arg1, String arg2,
                                 String arg3) {
-        int space = MAXLEN - opcode.length() + 2;
-    
-        p.print("\t" + opcode);
-        if (arg1 != "") {
-            for (int k = 1; k <= space; k++) 
-                p.print(" ");
-            p.print(arg1);
-            if (arg2 != "") {
-                p.print(", " + arg2);
-                if (arg3 != "") 
-                    p.print(", " + arg3);
-            }
-        }
-        p.println();
+        InstrList code = CompilationContext.current().code();
+        code.add(InstrList.STR, code.opcode(opcode), code.string(arg1),
+                 code.string(arg2), code.string(arg3), -1, -1);
     }
 
     public static void generate(String opcode, String arg1, String arg2) {
@@ -131,50 +108,38 @@ public class Codegen {
     // **********************************************************************
     // generate (two string args, one int)
     //    given:  op code and args
-    //    do:     write nicely formatted code (ending with new line)
+    //    do:     add nicely formatted code (ending with new line)
     // **********************************************************************
     public static void generate(String opcode, String arg1, String arg2,
                                 int arg3) {
-        int space = MAXLEN - opcode.length() + 2;
-    
-        p.print("\t" + opcode);
-        for (int k = 1; k <= space; k++) 
-            p.print(" ");
-        p.println(arg1 + ", " + arg2 + ", " + arg3);
+        InstrList code = CompilationContext.current().code();
+        code.add(InstrList.INT3, code.opcode(opcode), code.string(arg1),
+                 code.string(arg2), arg3, -1, -1);
     }
     
     // **********************************************************************
     // generate (one string arg, one int)
     //    given:  op code and args
-    //    do:     write nicely formatted code (ending with new line)
+    //    do:     add nicely formatted code (ending with new line)
     // **********************************************************************
     public static void generate(String opcode, String arg1, int arg2) {
-        int space = MAXLEN - opcode.length() + 2;
-    
-        p.print("\t" + opcode);
-        for (int k = 1; k <= space; k++) 
-            p.print(" ");
-        p.println(arg1 + ", " + arg2);
+        InstrList code = CompilationContext.current().code();
+        code.add(InstrList.INT2, code.opcode(opcode), code.string(arg1),
+                 arg2, 0, -1, -1);
     }
     
     // **********************************************************************
     // generateIndexed
     //    given:  op code, target register T1 (as string), indexed register T2
     //            (as string), - offset xx (int), and optional comment
-    //    do:     write nicely formatted code (ending with new line):
+    //    do:     add nicely formatted code (ending with new line):
     //                 op T1, xx(T2) # comment
     // **********************************************************************
     public static void generateIndexed(String opcode, String arg1, String arg2,
                                        int arg3, String comment) {
-        int space = MAXLEN - opcode.length() + 2;
-    
-        p.print("\t" + opcode);
-        for (int k = 1; k <= space; k++) 
-            p.print(" ");
-        p.print(arg1 + ", " + arg3 + "(" + arg2 + ")");
-        if (comment != "") 
-            p.print("\t# " + comment);
-        p.println();
+        InstrList code = CompilationContext.current().code();
+        code.add(InstrList.INDEXED, code.opcode(opcode), code.string(arg1),
+                 code.string(arg2), arg3, -1, code.string(comment));
     }
     
     public static void generateIndexed(String opcode, String arg1, String arg2,
@@ -185,22 +150,13 @@ public class Codegen {
     // **********************************************************************
     // generateLabeled (string args -- perhaps empty)
     //    given:  label, op code, comment, and arg
-    //    do:     write nicely formatted code (ending with new line)
+    //    do:     add nicely formatted code (ending with new line)
     // **********************************************************************
     public static void generateLabeled(String label, String opcode,
                                        String comment, String arg1) {
-        int space = MAXLEN - opcode.length() + 2;
-    
-        p.print(label + ":");
-        p.print("\t" + opcode);
-        if (arg1 != "") {
-            for (int k = 1; k <= space; k++) 
-                p.print(" ");
-            p.print(arg1);
-        }
-        if (comment != "") 
-            p.print("\t# " + comment);
-        p.println();
+        InstrList code = CompilationContext.current().code();
+        code.add(InstrList.LABELED, code.opcode(opcode), code.string(arg1),
+                 -1, 0, code.string(label), code.string(comment));
     }
 
     public static void generateLabeled(String label, String opcode,
@@ -232,22 +188,29 @@ public class Codegen {
     //   generate: L:    # comment
     // **********************************************************************
     public static void genLabel(String label, String comment) {
-        p.print(label + ":");
-        if (comment != "") 
-            p.print("\t\t" + "# " + comment);
-        p.println();
+        InstrList code = CompilationContext.current().code();
+        code.add(InstrList.LABEL, code.opcode(""), -1, -1, 0,
+                 code.string(label), code.string(comment));
     }
     
     public static void genLabel(String label) {
         genLabel(label, "");
     }
     
+    // **********************************************************************
+    // regAlloc
+    //    are expressions to be evaluated in registers where possible?
+    // **********************************************************************
+    public static boolean regAlloc() {
+        return CompilationContext.current().option(CompilationContext.REGALLOC);
+    }
+
     // **********************************************************************
     // Return a different label each time:
     //        L0 L1 L2, etc.
     // **********************************************************************
     public static String nextLabel() {
-        Integer k = Integer.valueOf(currLabel++);
+        Integer k = Integer.valueOf(CompilationContext.current().nextLabelNum());
         String tmp = ".L" + k;
         return(tmp);
     }
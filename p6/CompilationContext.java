@@ -0,0 +1,211 @@
+import java.io.*;
+import java.util.*;
+
+/****
+ * CompilationContext
+ *
+ * Holds everything that belongs to a single compile: the stream messages
+ * are printed to, whether an error has been reported, the MIPS code
+ * generated so far, and the number of the next label.  A new context is
+ * created for every compile, so any number of compiles can run in one JVM
+ * (one after the other or at the same time) without sharing state.
+ *
+ * The context is given to the scanner and the parser when they are
+ * created, and to ProgramNode.nameAnalysis, typeCheck and codeGen.  While
+ * one of those passes runs, the context is also bound to the running
+ * thread; that is how ErrMsg and Codegen, which are called from every
+ * node of the AST, find it.
+ *
+ * The options given on the command line (OPTIMIZE, ...) are also kept
+ * here, as a set of bits, and so are the names of the identifiers in the
+ * program (see NameTable).
+ *
+ * Type errors are reported through typeError.  Normally that is the same
+ * as fatal; but while type errors are held (see holdTypeErrors), they are
+ * kept back, and only reported when they are released if no other error
+ * has been reported by then.  That is how ProgramNode.analyze, which type
+ * checks each part of the program as soon as its names are analyzed,
+ * reports just what name analysis followed by type checking would.
+ ****/
+
+public class CompilationContext {
+    private static final ThreadLocal<CompilationContext> current =
+        new ThreadLocal<CompilationContext>();
+
+    // options
+    public static final int OPTIMIZE = 1;   // -O: fold constants, hoist
+                                            // loop invariants and run the
+                                            // peephole optimizer
+    public static final int REGALLOC = 2;   // -regalloc: keep expression
+                                            // temporaries in registers
+    public static final int MMAP = 4;       // -mmap: scan the source in a
+                                            // memory-mapped buffer
+    public static final int TOKENS = 8;     // -tokens: scan it all into a
+                                            // TokenBuffer before parsing
+    public static final int PARALLEL = 16;  // -parallel: the same, on
+                                            // several threads
+    public static final int PIPELINE = 32;  // -pipeline: scan on a thread
+                                            // of its own while parsing
+    public static final int TIME = 64;      // -time: report the time and
+                                            // memory each pass takes
+    public static final int FUSED = 128;    // -fused: do name analysis and
+                                            // type checking in one walk
+
+    private PrintStream diag;   // where messages are printed
+    private boolean err;        // has a fatal error been reported?
+    private InstrList code;     // the generated code
+    private int currLabel;      // for generating labels
+    private int options;        // the options that are on
+    private NameTable names;    // the identifiers
+    private ArrayList<TypeError> heldTypeErrors;    // null unless held
+
+    public CompilationContext(PrintStream diag) {
+        this(diag, 0);
+    }
+
+    public CompilationContext(PrintStream diag, int options) {
+        this.diag = diag;
+        err = false;
+        code = new InstrList();
+        currLabel = 0;
+        this.options = options;
+        names = new NameTable();
+    }
+
+    /***
+     * Return the context bound to the running thread.
+     ***/
+    static CompilationContext current() {
+        CompilationContext ctx = current.get();
+        if (ctx == null) {
+            throw new IllegalStateException("no compilation in progress");
+        }
+        return ctx;
+    }
+
+    /***
+     * Bind this context to the running thread.  Returns the context that
+     * was bound before, which must be given back to leave.
+     ***/
+    CompilationContext enter() {
+        CompilationContext outer = current.get();
+        current.set(this);
+        return outer;
+    }
+
+    /***
+     * Undo a call to enter.
+     ***/
+    void leave(CompilationContext outer) {
+        if (outer == null) {
+            current.remove();
+        } else {
+            current.set(outer);
+        }
+    }
+
+    /***
+     * Report a fatal error.
+     ***/
+    void fatal(int lineNum, int charNum, String msg) {
+        err = true;
+        diag.println(lineNum + ":" + charNum + " ****ERROR**** " + msg);
+    }
+
+    /***
+     * Report a type error (see above).
+     ***/
+    void typeError(int lineNum, int charNum, String msg) {
+        if (heldTypeErrors == null) {
+            fatal(lineNum, charNum, msg);
+        } else {
+            heldTypeErrors.add(new TypeError(lineNum, charNum, msg));
+        }
+    }
+
+    /***
+     * Keep the type errors reported from now on until releaseTypeErrors.
+     ***/
+    void holdTypeErrors() {
+        heldTypeErrors = new ArrayList<TypeError>();
+    }
+
+    /***
+     * Stop holding type errors, and report the ones held, in the order
+     * they were reported, if no other error has been reported.
+     ***/
+    void releaseTypeErrors() {
+        ArrayList<TypeError> held = heldTypeErrors;
+        heldTypeErrors = null;
+        if (held == null || hasErrors()) {
+            return;
+        }
+        for (TypeError e : held) {
+            fatal(e.lineNum, e.charNum, e.msg);
+        }
+    }
+
+    /***
+     * Report a warning.
+     ***/
+    void warn(int lineNum, int charNum, String msg) {
+        diag.println(lineNum + ":" + charNum + " ****WARNING**** " + msg);
+    }
+
+    /***
+     * Print a message that is not tied to a place in the source.
+     ***/
+    void message(String msg) {
+        diag.println(msg);
+    }
+
+    /***
+     * Has a fatal error been reported?
+     ***/
+    public boolean hasErrors() {
+        return err;
+    }
+
+    /***
+     * Is the given option on?
+     ***/
+    public boolean option(int opt) {
+        return (options & opt) != 0;
+    }
+
+    /***
+     * Return the names of the identifiers.
+     ***/
+    public NameTable names() {
+        return names;
+    }
+
+    /***
+     * Return the code generated so far.
+     ***/
+    public InstrList code() {
+        return code;
+    }
+
+    /***
+     * Return the number of the next label and advance the counter.
+     ***/
+    int nextLabelNum() {
+        return currLabel++;
+    }
+
+    /***
+     * A type error being held.
+     ***/
+    private static class TypeError {
+        int lineNum;
+        int charNum;
+        String msg;
+
+        TypeError(int lineNum, int charNum, String msg) {
+            this.lineNum = lineNum;
+            this.charNum = charNum;
+            this.msg = msg;
+        }
+    }
+}
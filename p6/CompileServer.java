@@ -0,0 +1,76 @@
+import java.io.*;
+
+/****
+ * CompileServer
+ *
+ * Keeps one JVM running and compiles many base files in it, so the cost of
+ * starting the JVM, loading the compiler classes and unpacking the scanner
+ * and parser tables is paid once instead of once per file.
+ *
+ * The protocol is line based.  Each request is one line holding the name
+ * of the source file and the name of the output file, separated by white
+ * space.  For each request the server prints every message the compiler
+ * produced (one per line, in the same format as P6), followed by a
+ * status line
+ *     done ok <milliseconds> ms
+ * or
+ *     done error <milliseconds> ms
+ * (also when the compile fails with an exception, which is printed as a
+ * message; the server goes on with the next request).
+ * The server stops at end of input, on an empty line, or on the line "quit".
+ * Every file is compiled with the options the server was started with.
+ ****/
+
+public class CompileServer {
+    public static void serve(BufferedReader in, PrintStream out, int options)
+        throws IOException
+    {
+        warmUp();
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.equals("") || line.equals("quit")) {
+                break;
+            }
+
+            String[] names = line.split("\\s+");
+            if (names.length != 2) {
+                out.println("please supply name of source (base) file " +
+                            "and name of file for target (MIPS).");
+                out.println("done error 0.000 ms");
+                out.flush();
+                continue;
+            }
+
+            ByteArrayOutputStream msgs = new ByteArrayOutputStream();
+            PrintStream diag = new PrintStream(msgs, true);
+            CompilationContext ctx = new CompilationContext(diag, options);
+            boolean ok;
+            long start = System.nanoTime();
+            try {
+                ok = P6.compile(names[0], names[1], ctx) && !ctx.hasErrors();
+            } catch (IOException | RuntimeException ex) {
+                diag.println("exception occured during compile: " + ex);
+                ok = false;
+            }
+            long time = System.nanoTime() - start;
+
+            diag.flush();
+            out.print(msgs.toString());
+            out.println("done " + (ok ? "ok " : "error ") +
+                        String.format("%.3f", time / 1e6) + " ms");
+            out.flush();
+        }
+    }
+
+    /***
+     * warmUp
+     * Loads the scanner and parser classes (and so unpacks their tables)
+     * before the first request arrives.
+     ***/
+    private static void warmUp() {
+        CompilationContext ctx = new CompilationContext(System.err);
+        new parser(new Yylex(new StringReader(""), ctx), ctx);
+    }
+}
@@ -0,0 +1,71 @@
+import java.util.*;
+
+/****
+ * ConstEnv
+ *
+ * What constant folding knows while it works through one function body:
+ * how many times each variable is assigned anywhere in the body, and the
+ * value of every local that is assigned exactly once, a constant, by a
+ * statement at the top level of the body (not inside an if or a while).
+ * Such a local has that value in every statement after the assignment, so
+ * the statements after it can use the value instead of the variable.
+ ****/
+
+public class ConstEnv {
+    private HashMap<Sym, Integer> assigns;  // number of assignments
+    private HashMap<Sym, ExpNode> consts;   // the known values
+    private boolean topLevel;               // at the top level of the body?
+
+    public ConstEnv() {
+        assigns = new HashMap<Sym, Integer>();
+        consts = new HashMap<Sym, ExpNode>();
+        topLevel = true;
+    }
+
+    private ConstEnv(ConstEnv outer) {
+        assigns = outer.assigns;
+        consts = outer.consts;
+        topLevel = false;
+    }
+
+    /***
+     * Return the environment for the statements nested in an if or a while
+     * (it knows the same values, but learns no new ones).
+     ***/
+    public ConstEnv nested() {
+        return topLevel ? new ConstEnv(this) : this;
+    }
+
+    /***
+     * Record an assignment to sym (called before folding starts).
+     ***/
+    public void assigned(Sym sym) {
+        Integer n = assigns.get(sym);
+        assigns.put(sym, n == null ? 1 : n + 1);
+    }
+
+    /***
+     * Return the number of assignments to sym.
+     ***/
+    public int timesAssigned(Sym sym) {
+        Integer n = assigns.get(sym);
+        return n == null ? 0 : n;
+    }
+
+    /***
+     * Record that sym has just been assigned the given literal.
+     ***/
+    public void assignedConst(Sym sym, ExpNode value) {
+        Integer n = assigns.get(sym);
+        if (topLevel && !sym.isGlobal() && n != null && n == 1) {
+            consts.put(sym, value);
+        }
+    }
+
+    /***
+     * Return the literal sym is known to hold, or null.
+     ***/
+    public ExpNode lookup(Sym sym) {
+        return consts.get(sym);
+    }
+}
@@ -2,10 +2,11 @@
  * ErrMsg
  *
  * This class is used to generate warning and fatal error messages.
+ *
+ * Messages are reported to the CompilationContext of the compile running
+ * on this thread.
  */
 class ErrMsg {
-    private static boolean err = false;
-
     /**
      * Generates a fatal error message.
      * @param lineNum line number for error location
@@ -13,8 +14,19 @@ class ErrMsg {
      * @param msg associated message for error
      */
     static void fatal(int lineNum, int charNum, String msg) {
-        err = true;
-        System.err.println(lineNum + ":" + charNum + " ****ERROR**** " + msg);
+        CompilationContext.current().fatal(lineNum, charNum, msg);
+    }
+
+    /**
+     * Generates a fatal error message for a type error (which is held back
+     * while name analysis and type checking are done together; see
+     * CompilationContext.typeError).
+     * @param lineNum line number for error location
+     * @param charNum character number (i.e., column) for error location
+     * @param msg associated message for error
+     */
+    static void typeError(int lineNum, int charNum, String msg) {
+        CompilationContext.current().typeError(lineNum, charNum, msg);
     }
 
     /**
@@ -24,13 +36,13 @@ class ErrMsg {
      * @param msg associated message for warning
      */
     static void warn(int lineNum, int charNum, String msg) {
-        System.err.println(lineNum + ":" + charNum + " ****WARNING**** " + msg);
+        CompilationContext.current().warn(lineNum, charNum, msg);
     }
 
     /**
      * Returns the err flag.
      */
     static boolean getErr() {
-        return err;
+        return CompilationContext.current().hasErrors();
     }
 }
@@ -0,0 +1,586 @@
+import java.io.*;
+import java.util.*;
+
+/****
+ * FlatAst
+ *
+ * The abstract-syntax tree of a program (see ast.java) kept in a few int
+ * arrays instead of one object per node, for programs too large to hold
+ * comfortably as objects.  Node n has a kind (one of the constants below,
+ * one per class of ASTnode), a position (line and char number; the char
+ * number shares an int with the kind) and an int value:
+ *
+ *     ID                 the id of its name (see NameTable)
+ *     INT_LIT            its value
+ *     STR_LIT            the index of its text (with the quotes; see strVal)
+ *     VAR_DECL           its size (VarDeclNode.NON_TUPLE for non-tuples)
+ *     HOISTED            the offset of its slot
+ *
+ * and 0 otherwise.  An expression has the position the object's lineNum
+ * and charNum give; a declaration has the position of its name; a list,
+ * type or statement has none (line 0).
+ *
+ * The children of node n are the nodes kids[first[n]] to
+ * kids[first[n+1] - 1], in the order of the fields of the object (see the
+ * table at the top of ast.java); a ReturnStmtNode without a value has no
+ * children.  A tree is built bottom-up by the flatten methods of ast.java:
+ * the children are added first and pushed on a stack, then node() makes
+ * their parent and moves them from the stack to kids.  So a node's
+ * number is larger than its children's, and its kids come right after
+ * those of the node made before it.
+ *
+ * The accessors below (decls, stmts, exp, ...) give the children by the
+ * role they have in the object tree, so that a pass can be written over
+ * the arrays much as it is over the objects; see FlatNames.
+ ****/
+
+public class FlatAst {
+    // kinds of nodes
+    public static final int PROGRAM = 0;
+    public static final int DECL_LIST = 1;
+    public static final int STMT_LIST = 2;
+    public static final int EXP_LIST = 3;
+    public static final int FORMALS_LIST = 4;
+    public static final int FCTN_BODY = 5;
+    public static final int VAR_DECL = 6;
+    public static final int FCTN_DECL = 7;
+    public static final int FORMAL_DECL = 8;
+    public static final int TUPLE_DECL = 9;
+    public static final int LOGICAL = 10;
+    public static final int INTEGER = 11;
+    public static final int VOID = 12;
+    public static final int TUPLE = 13;
+    public static final int ASSIGN_STMT = 14;
+    public static final int POST_INC = 15;
+    public static final int POST_DEC = 16;
+    public static final int IF = 17;
+    public static final int IF_ELSE = 18;
+    public static final int WHILE = 19;
+    public static final int READ = 20;
+    public static final int WRITE = 21;
+    public static final int CALL_STMT = 22;
+    public static final int RETURN = 23;
+    public static final int TRUE = 24;
+    public static final int FALSE = 25;
+    public static final int ID = 26;
+    public static final int INT_LIT = 27;
+    public static final int STR_LIT = 28;
+    public static final int TUPLE_ACCESS = 29;
+    public static final int ASSIGN = 30;
+    public static final int CALL = 31;
+    public static final int HOISTED = 32;
+    public static final int NOT = 33;
+    public static final int UNARY_MINUS = 34;
+    public static final int PLUS = 35;
+    public static final int MINUS = 36;
+    public static final int TIMES = 37;
+    public static final int DIVIDE = 38;
+    public static final int EQUALS = 39;
+    public static final int NOT_EQUALS = 40;
+    public static final int GREATER = 41;
+    public static final int GREATER_EQ = 42;
+    public static final int LESS = 43;
+    public static final int LESS_EQ = 44;
+    public static final int AND = 45;
+    public static final int OR = 46;
+
+    // the operators of the binary expressions, by kind - PLUS
+    private static final String[] OPS = {
+        " + ", " - ", " * ", " / ", " == ", " ~= ", " > ", " >= ", " < ",
+        " <= ", " & ", " | "
+    };
+
+    private static final int KIND_BITS = 6;     // kinds are < 64
+
+    private int size = 0;               // number of nodes
+    private int[] info = new int[1024]; // kind | charNum << KIND_BITS
+    private int[] line = new int[1024];
+    private int[] value = new int[1024];
+    private int[] first = new int[1025]; // first[size] is the end of kids
+
+    private int[] kids = new int[1024];
+    private int[] stack = new int[64];  // children waiting for their parent
+    private int depth = 0;
+
+    private ArrayList<String> strings = new ArrayList<String>();
+    private int root = -1;
+    private int nameCount = NameTable.MAIN + 1; // > the id of every name
+
+    /***
+     * Return the flat form of the given tree.
+     ***/
+    public static FlatAst of(ProgramNode program) {
+        FlatAst flat = new FlatAst();
+        flat.root = program.flatten(flat);
+        flat.trim();
+        return flat;
+    }
+
+    // ******************************************************************
+    // building (used by the flatten methods of ast.java)
+    // ******************************************************************
+
+    /***
+     * Return the mark to give node() for the children pushed from now on.
+     ***/
+    public int mark() {
+        return depth;
+    }
+
+    /***
+     * Push node n as the next child of the node being built.
+     ***/
+    public void push(int n) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, 2 * depth);
+        }
+        stack[depth++] = n;
+    }
+
+    /***
+     * Add a node whose children are the nodes pushed since mark (which are
+     * popped); returns its number.
+     ***/
+    public int node(int k, int lineNum, int charNum, int val, int mark) {
+        if (size + 1 == first.length) {
+            int cap = 2 * size;
+            info = Arrays.copyOf(info, cap);
+            line = Arrays.copyOf(line, cap);
+            value = Arrays.copyOf(value, cap);
+            first = Arrays.copyOf(first, cap + 1);
+        }
+        int from = first[size];
+        int n = depth - mark;
+        if (from + n > kids.length) {
+            kids = Arrays.copyOf(kids, Math.max(2 * kids.length, from + n));
+        }
+        System.arraycopy(stack, mark, kids, from, n);
+        depth = mark;
+
+        info[size] = k | charNum << KIND_BITS;
+        line[size] = lineNum;
+        value[size] = val;
+        first[size + 1] = from + n;
+        if (k == ID && val >= nameCount) {
+            nameCount = val + 1;
+        }
+        return size++;
+    }
+
+    /***
+     * Add a node without a position or a value.
+     ***/
+    public int node(int k, int mark) {
+        return node(k, 0, 0, 0, mark);
+    }
+
+    /***
+     * Add the text of a string literal; returns its index.
+     ***/
+    public int string(String s) {
+        strings.add(s);
+        return strings.size() - 1;
+    }
+
+    /***
+     * Cut the arrays down to what the tree uses.
+     ***/
+    private void trim() {
+        info = Arrays.copyOf(info, size);
+        line = Arrays.copyOf(line, size);
+        value = Arrays.copyOf(value, size);
+        first = Arrays.copyOf(first, size + 1);
+        kids = Arrays.copyOf(kids, first[size]);
+        stack = null;
+        strings.trimToSize();
+    }
+
+    // ******************************************************************
+    // access
+    // ******************************************************************
+
+    /***
+     * Return the number of the ProgramNode.
+     ***/
+    public int root() {
+        return root;
+    }
+
+    /***
+     * Return the number of nodes.
+     ***/
+    public int size() {
+        return size;
+    }
+
+    /***
+     * Return a number larger than the id of every name in the tree (and
+     * than NameTable.MAIN).
+     ***/
+    public int nameCount() {
+        return nameCount;
+    }
+
+    /***
+     * Return the number of bytes the arrays take (not counting the texts
+     * of the string literals).
+     ***/
+    public long bytes() {
+        return 4L * (info.length + line.length + value.length +
+                     first.length + kids.length);
+    }
+
+    public int kind(int n) {
+        return info[n] & ((1 << KIND_BITS) - 1);
+    }
+
+    public int lineNum(int n) {
+        return line[n];
+    }
+
+    public int charNum(int n) {
+        return info[n] >>> KIND_BITS;
+    }
+
+    public int childCount(int n) {
+        return first[n + 1] - first[n];
+    }
+
+    public int child(int n, int k) {
+        return kids[first[n] + k];
+    }
+
+    /***
+     * Return the id of the name of an ID.
+     ***/
+    public int nameId(int n) {
+        return value[n];
+    }
+
+    /***
+     * Return the value of an INT_LIT.
+     ***/
+    public int intVal(int n) {
+        return value[n];
+    }
+
+    /***
+     * Return the text of a STR_LIT.
+     ***/
+    public String strVal(int n) {
+        return strings.get(value[n]);
+    }
+
+    /***
+     * Return the size of a VAR_DECL.
+     ***/
+    public int declSize(int n) {
+        return value[n];
+    }
+
+    /***
+     * Return the offset of the slot of a HOISTED.
+     ***/
+    public int offset(int n) {
+        return value[n];
+    }
+
+    // the children by role; each is only for the kinds that have it
+
+    /***
+     * The type of a VAR_DECL, FCTN_DECL or FORMAL_DECL.
+     ***/
+    public int type(int n) {
+        return child(n, 0);
+    }
+
+    /***
+     * The ID of a declaration, a TUPLE type, a CALL or (the field of) a
+     * TUPLE_ACCESS.
+     ***/
+    public int id(int n) {
+        switch (kind(n)) {
+        case TUPLE_DECL: case TUPLE: case CALL:
+            return child(n, 0);
+        default:
+            return child(n, 1);
+        }
+    }
+
+    /***
+     * The FORMALS_LIST of a FCTN_DECL.
+     ***/
+    public int formals(int n) {
+        return child(n, 2);
+    }
+
+    /***
+     * The FCTN_BODY of a FCTN_DECL.
+     ***/
+    public int body(int n) {
+        return child(n, 3);
+    }
+
+    /***
+     * The DECL_LIST of a PROGRAM, FCTN_BODY, TUPLE_DECL, IF, WHILE or
+     * (the then part of) an IF_ELSE.
+     ***/
+    public int decls(int n) {
+        switch (kind(n)) {
+        case PROGRAM: case FCTN_BODY:
+            return child(n, 0);
+        default:
+            return child(n, 1);
+        }
+    }
+
+    /***
+     * The STMT_LIST of a FCTN_BODY, IF, WHILE or (the then part of) an
+     * IF_ELSE.
+     ***/
+    public int stmts(int n) {
+        return kind(n) == FCTN_BODY ? child(n, 1) : child(n, 2);
+    }
+
+    public int elseDecls(int n) {
+        return child(n, 3);
+    }
+
+    public int elseStmts(int n) {
+        return child(n, 4);
+    }
+
+    /***
+     * The expression of a statement (the condition of an IF, IF_ELSE or
+     * WHILE), of a unary expression or of a HOISTED, and the value of an
+     * ASSIGN; -1 for a RETURN without one.
+     ***/
+    public int exp(int n) {
+        switch (kind(n)) {
+        case RETURN:
+            return childCount(n) == 0 ? -1 : child(n, 0);
+        case ASSIGN:
+            return child(n, 1);
+        default:
+            return child(n, 0);
+        }
+    }
+
+    /***
+     * The left side of an ASSIGN or TUPLE_ACCESS (the location), or the
+     * left operand of a binary expression.
+     ***/
+    public int lhs(int n) {
+        return child(n, 0);
+    }
+
+    /***
+     * The right operand of a binary expression.
+     ***/
+    public int rhs(int n) {
+        return child(n, 1);
+    }
+
+    /***
+     * The EXP_LIST of a CALL.
+     ***/
+    public int args(int n) {
+        return child(n, 1);
+    }
+
+    public boolean isBinary(int n) {
+        return kind(n) >= PLUS;
+    }
+
+    // ******************************************************************
+    // unparse
+    // ******************************************************************
+
+    /***
+     * Write the program as ProgramNode.unparse does (before name
+     * analysis); names are taken from the given table.
+     ***/
+    public void unparse(PrintWriter p, NameTable names) {
+        unparse(p, names, root, 0);
+    }
+
+    private void unparse(PrintWriter p, NameTable names, int n, int indent) {
+        int k = kind(n);
+        switch (k) {
+        case PROGRAM:
+            unparse(p, names, decls(n), indent);
+            break;
+        case DECL_LIST: case STMT_LIST:
+            for (int i = first[n]; i < first[n + 1]; i++) {
+                unparse(p, names, kids[i], indent);
+            }
+            break;
+        case EXP_LIST: case FORMALS_LIST:
+            for (int i = first[n]; i < first[n + 1]; i++) {
+                if (i > first[n]) {
+                    p.print(", ");
+                }
+                unparse(p, names, kids[i], indent);
+            }
+            break;
+        case FCTN_BODY:
+            unparse(p, names, decls(n), indent);
+            unparse(p, names, stmts(n), indent);
+            break;
+        case VAR_DECL:
+            doIndent(p, indent);
+            unparse(p, names, type(n), 0);
+            p.print(" ");
+            unparse(p, names, id(n), 0);
+            p.println(".");
+            break;
+        case FCTN_DECL:
+            doIndent(p, indent);
+            unparse(p, names, type(n), 0);
+            p.print(" ");
+            unparse(p, names, id(n), 0);
+            p.print("{");
+            unparse(p, names, formals(n), 0);
+            p.println("} [");
+            unparse(p, names, body(n), indent + 4);
+            p.println("]\n");
+            break;
+        case FORMAL_DECL:
+            unparse(p, names, type(n), 0);
+            p.print(" ");
+            unparse(p, names, id(n), 0);
+            break;
+        case TUPLE_DECL:
+            doIndent(p, indent);
+            p.print("tuple ");
+            unparse(p, names, id(n), 0);
+            p.println(" {");
+            unparse(p, names, decls(n), indent + 4);
+            doIndent(p, indent);
+            p.println("}.\n");
+            break;
+        case LOGICAL:
+            p.print("logical");
+            break;
+        case INTEGER:
+            p.print("integer");
+            break;
+        case VOID:
+            p.print("void");
+            break;
+        case TUPLE:
+            p.print("tuple ");
+            p.print(names.name(nameId(id(n))));
+            break;
+        case ASSIGN_STMT:
+            doIndent(p, indent);
+            unparse(p, names, child(n, 0), -1);
+            p.println(".");
+            break;
+        case POST_INC: case POST_DEC:
+            doIndent(p, indent);
+            unparse(p, names, exp(n), 0);
+            p.println(k == POST_INC ? "++." : "--.");
+            break;
+        case IF: case WHILE:
+            doIndent(p, indent);
+            p.print(k == IF ? "if " : "while ");
+            unparse(p, names, exp(n), 0);
+            p.println(" [");
+            unparse(p, names, decls(n), indent + 4);
+            unparse(p, names, stmts(n), indent + 4);
+            doIndent(p, indent);
+            p.println("]");
+            break;
+        case IF_ELSE:
+            doIndent(p, indent);
+            p.print("if ");
+            unparse(p, names, exp(n), 0);
+            p.println(" [");
+            unparse(p, names, decls(n), indent + 4);
+            unparse(p, names, stmts(n), indent + 4);
+            doIndent(p, indent);
+            p.println("]");
+            doIndent(p, indent);
+            p.println("else [");
+            unparse(p, names, elseDecls(n), indent + 4);
+            unparse(p, names, elseStmts(n), indent + 4);
+            doIndent(p, indent);
+            p.println("]");
+            break;
+        case READ: case WRITE:
+            doIndent(p, indent);
+            p.print(k == READ ? "read >> " : "write << ");
+            unparse(p, names, exp(n), 0);
+            p.println(".");
+            break;
+        case CALL_STMT:
+            doIndent(p, indent);
+            unparse(p, names, exp(n), indent);
+            p.println(".");
+            break;
+        case RETURN:
+            doIndent(p, indent);
+            p.print("return");
+            if (exp(n) >= 0) {
+                p.print(" ");
+                unparse(p, names, exp(n), 0);
+            }
+            p.println(".");
+            break;
+        case TRUE:
+            p.print("True");
+            break;
+        case FALSE:
+            p.print("False");
+            break;
+        case ID:
+            p.print(names.name(nameId(n)));
+            break;
+        case INT_LIT:
+            p.print(intVal(n));
+            break;
+        case STR_LIT:
+            p.print(strVal(n));
+            break;
+        case TUPLE_ACCESS:
+            p.print("(");
+            unparse(p, names, lhs(n), 0);
+            p.print("):");
+            unparse(p, names, id(n), 0);
+            break;
+        case ASSIGN:
+            if (indent != -1)  p.print("(");
+            unparse(p, names, lhs(n), 0);
+            p.print(" = ");
+            unparse(p, names, exp(n), 0);
+            if (indent != -1)  p.print(")");
+            break;
+        case CALL:
+            unparse(p, names, id(n), 0);
+            p.print("(");
+            unparse(p, names, args(n), 0);
+            p.print(")");
+            break;
+        case HOISTED:
+            unparse(p, names, exp(n), indent);
+            break;
+        case NOT: case UNARY_MINUS:
+            p.print(k == NOT ? "(~" : "(-");
+            unparse(p, names, exp(n), 0);
+            p.print(")");
+            break;
+        default:
+            p.print("(");
+            unparse(p, names, lhs(n), 0);
+            p.print(OPS[k - PLUS]);
+            unparse(p, names, rhs(n), 0);
+            p.print(")");
+            break;
+        }
+    }
+
+    private static void doIndent(PrintWriter p, int indent) {
+        for (int k=0; k<indent; k++) p.print(" ");
+    }
+}
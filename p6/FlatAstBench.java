@@ -0,0 +1,221 @@
+import java.io.*;
+import java.util.*;
+import java_cup.runtime.*;
+
+/****
+ * FlatAstBench
+ *
+ * Compares the object tree of ast.java with its FlatAst form on a large
+ * program: the memory each takes, and how fast each is walked by name
+ * analysis (ProgramNode.nameAnalysis against FlatNames.analyze) and by a
+ * pass that writes out every node (unparse, the one output pass both
+ * forms have; code generation is only done on the object tree).
+ *
+ * Before measuring, both forms are checked against each other: they must
+ * unparse to the same text and report the same name-analysis errors.
+ *
+ * Arguments (all optional):
+ *     -nodes N      make a program of about N nodes (default 1000000)
+ *     -file F       use the program in file F instead
+ *     -warmup N     rounds before measuring (default 5)
+ *     -rounds N     measured rounds (default 5)
+ *
+ * Memory is measured as the growth of the used heap after a full GC, so
+ * it is only a close estimate; run with a heap large enough for both
+ * forms (e.g. java -Xmx2g).
+ ****/
+
+public class FlatAstBench {
+    public static void main(String[] args) throws Exception {
+        int nodes = 1000000;
+        String file = null;
+        int warmup = 5;
+        int rounds = 5;
+        for (int k = 0; k < args.length; k++) {
+            if (k + 1 == args.length) {
+                usage();
+            }
+            if (args[k].equals("-nodes")) {
+                nodes = Integer.parseInt(args[++k]);
+            } else if (args[k].equals("-file")) {
+                file = args[++k];
+            } else if (args[k].equals("-warmup")) {
+                warmup = Integer.parseInt(args[++k]);
+            } else if (args[k].equals("-rounds")) {
+                rounds = Integer.parseInt(args[++k]);
+            } else {
+                usage();
+            }
+        }
+
+        Reader source;
+        if (file != null) {
+            source = new FileReader(file);
+        } else {
+            source = new StringReader(program(nodes));
+        }
+        CompilationContext ctx = new CompilationContext(nowhere());
+
+        long before = usedMemory();
+        ProgramNode tree = parse(source, ctx);
+        long treeBytes = usedMemory() - before;
+
+        before = usedMemory();
+        FlatAst flat = FlatAst.of(tree);
+        long flatBytes = usedMemory() - before;
+
+        System.out.println(flat.size() + " nodes");
+        System.out.printf("memory   objects %8.1f MB  %5.1f B/node%n",
+                          treeBytes / 1e6, (double)treeBytes / flat.size());
+        System.out.printf("         flat    %8.1f MB  %5.1f B/node" +
+                          "  (arrays %.1f MB)%n", flatBytes / 1e6,
+                          (double)flatBytes / flat.size(),
+                          flat.bytes() / 1e6);
+
+        check(tree, flat, ctx.names());
+
+        PrintWriter out = new PrintWriter(new Writer() {
+            public void write(char[] buf, int off, int len) { }
+            public void flush() { }
+            public void close() { }
+        });
+        for (int r = 0; r < warmup + rounds; r++) {
+            long t0 = System.nanoTime();
+            tree.unparse(out, 0);
+            out.flush();
+            long t1 = System.nanoTime();
+            flat.unparse(out, ctx.names());
+            out.flush();
+            long t2 = System.nanoTime();
+            tree.nameAnalysis(new CompilationContext(nowhere()));
+            long t3 = System.nanoTime();
+            FlatNames.analyze(flat, new CompilationContext(nowhere()));
+            long t4 = System.nanoTime();
+            if (r >= warmup) {
+                System.out.printf("unparse  objects %8.2f ms  flat %8.2f ms" +
+                                  "    names  objects %8.2f ms  flat %8.2f" +
+                                  " ms%n", (t1 - t0) / 1e6, (t2 - t1) / 1e6,
+                                  (t3 - t2) / 1e6, (t4 - t3) / 1e6);
+            }
+        }
+    }
+
+    private static void usage() {
+        System.err.println("usage: java FlatAstBench [-nodes N] [-file F] " +
+                           "[-warmup N] [-rounds N]");
+        System.exit(-1);
+    }
+
+    /***
+     * Parse the program; exits if it has syntax errors.
+     ***/
+    private static ProgramNode parse(Reader source, CompilationContext ctx)
+        throws Exception
+    {
+        parser P = new parser(new Yylex(source, ctx), ctx);
+        Symbol root = P.parse();
+        if (P.syntaxErrors() > 0) {
+            System.err.println("syntax errors in the program");
+            System.exit(-1);
+        }
+        return (ProgramNode)root.value;
+    }
+
+    /***
+     * Check that both forms unparse the same and report the same errors in
+     * name analysis (which must be done after the unparse, as an IdNode
+     * unparses its Sym once it has one).
+     ***/
+    private static void check(ProgramNode tree, FlatAst flat, NameTable names) {
+        StringWriter t = new StringWriter();
+        StringWriter f = new StringWriter();
+        PrintWriter p = new PrintWriter(t);
+        tree.unparse(p, 0);
+        p.flush();
+        p = new PrintWriter(f);
+        flat.unparse(p, names);
+        p.flush();
+        if (!t.toString().equals(f.toString())) {
+            System.err.println("the forms unparse differently");
+            System.exit(-1);
+        }
+
+        ByteArrayOutputStream treeErrs = new ByteArrayOutputStream();
+        ByteArrayOutputStream flatErrs = new ByteArrayOutputStream();
+        tree.nameAnalysis(new CompilationContext(new PrintStream(treeErrs)));
+        FlatNames.analyze(flat,
+                          new CompilationContext(new PrintStream(flatErrs)));
+        if (!treeErrs.toString().equals(flatErrs.toString())) {
+            System.err.println("the forms differ in name analysis:");
+            System.err.print(treeErrs);
+            System.err.println("----");
+            System.err.print(flatErrs);
+            System.exit(-1);
+        }
+        int errors = treeErrs.toString().split("\n", -1).length - 1;
+        System.out.println("same unparse, same name analysis (" + errors +
+                           " errors)");
+    }
+
+    private static PrintStream nowhere() {
+        return new PrintStream(new OutputStream() {
+            public void write(int b) { }
+        });
+    }
+
+    /***
+     * Return the bytes in use in the heap, after a full GC.
+     ***/
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int k = 0; k < 3; k++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /***
+     * Return a program of (about) the given number of nodes: functions of
+     * globals, locals, tuples, loops, ifs and calls.  The same argument
+     * always gives the same program.
+     ***/
+    private static String program(int nodes) {
+        Random rand = new Random(536);
+        StringBuilder b = new StringBuilder(nodes * 4);
+        b.append("tuple Point { integer x. integer y. }.\n");
+        b.append("tuple Box { tuple Point lo. tuple Point hi. }.\n");
+        b.append("integer count.\n");
+        b.append("logical done.\n\n");
+        b.append("integer area{integer w, integer h} [\n");
+        b.append("    return w * h.\n]\n\n");
+
+        // each function is about 400 nodes
+        int fctns = Math.max(1, nodes / 400);
+        for (int f = 0; f < fctns; f++) {
+            b.append("integer f").append(f).append("{integer a, integer b} [\n");
+            b.append("    integer i.\n    integer s.\n");
+            b.append("    tuple Box box.\n");
+            for (int k = 0; k < 6; k++) {
+                b.append("    box:lo:x = a + ").append(rand.nextInt(100))
+                 .append(".\n");
+                b.append("    s = s + (a * b - box:hi:y) / ")
+                 .append(1 + rand.nextInt(9)).append(".\n");
+                b.append("    if (s > ").append(rand.nextInt(1000))
+                 .append(" & ~done) [\n");
+                b.append("        integer t.\n");
+                b.append("        t = area(s, i + 1).\n");
+                b.append("        count++.\n");
+                b.append("        write << t.\n    ]\n");
+                b.append("    else [\n        s--.\n    ]\n");
+                b.append("    while (i < b) [\n");
+                b.append("        i = i + 1.\n");
+                b.append("        box:hi:y = box:lo:x - i.\n    ]\n");
+            }
+            b.append("    return s.\n]\n\n");
+        }
+        b.append("void main{} [\n    integer r.\n");
+        b.append("    read >> count.\n");
+        b.append("    r = f0(count, 2).\n    write << r.\n]\n");
+        return b.toString();
+    }
+}
@@ -0,0 +1,451 @@
+import java.util.*;
+
+/****
+ * FlatNames
+ *
+ * Name analysis of a FlatAst: the same checks, in the same order and with
+ * the same messages, as the nameAnalysis methods of ast.java, and the same
+ * offsets.  Instead of linking each ID to a Sym, it gives the number of
+ * the node that declares it (see decl), and the offsets go in an array by
+ * node (see offset).
+ *
+ * Since names are small ints (see NameTable), the names in scope are kept
+ * in an array indexed by name, which holds the innermost declaration of
+ * each name and the depth of its scope.  Adding a name logs what the array
+ * held before, and leaving a scope undoes the log back to where the scope
+ * began; so a lookup, local or global, is a single array access.  The
+ * fields of a tuple being declared are kept the same way, apart from the
+ * other names (the tuple name of a field is looked up among the globals).
+ ****/
+
+public class FlatNames {
+    // decl of a TUPLE_ACCESS that had an error (see decl)
+    public static final int BAD = -2;
+
+    private FlatAst ast;
+    private int[] decl;
+    private int[] offset;
+    private Scopes names;       // names in scope
+    private Scopes fields;      // fields of the tuple being declared
+    private boolean global = true;  // outside of functions?
+    private int frame = 0;          // next offset in the function
+
+    private FlatNames(FlatAst ast) {
+        this.ast = ast;
+        decl = new int[ast.size()];
+        offset = new int[ast.size()];
+        Arrays.fill(decl, -1);
+        names = new Scopes(ast.nameCount());
+        fields = new Scopes(ast.nameCount());
+    }
+
+    /***
+     * analyze
+     * Do name analysis of the whole program; errors are reported to the
+     * given compilation context.
+     ***/
+    public static FlatNames analyze(FlatAst ast, CompilationContext ctx) {
+        CompilationContext outer = ctx.enter();
+        try {
+            FlatNames pass = new FlatNames(ast);
+            pass.globals(ast.decls(ast.root()));
+            int main = pass.names.lookupLocal(NameTable.MAIN);
+            if (main < 0 || ast.kind(main) != FlatAst.FCTN_DECL) {
+                ErrMsg.fatal(0, 0, "No main function");
+            }
+            return pass;
+        } finally {
+            ctx.leave(outer);
+        }
+    }
+
+    /***
+     * Return the node declaring the name of an ID (-1 if it is undeclared
+     * or its declaration had an error).  For a TUPLE_ACCESS, return the
+     * TUPLE_DECL of the field's type if the field is of a tuple type, BAD
+     * if there was an error in it, and -1 otherwise.
+     ***/
+    public int decl(int n) {
+        return decl[n];
+    }
+
+    /***
+     * Return the offset of a VAR_DECL or FORMAL_DECL (as Sym.getOffset),
+     * or the size of the locals of a FCTN_DECL.
+     ***/
+    public int offset(int n) {
+        return offset[n];
+    }
+
+    // ******************************************************************
+    // declarations
+    // ******************************************************************
+
+    private void globals(int list) {
+        for (int k = 0; k < ast.childCount(list); k++) {
+            int n = ast.child(list, k);
+            switch (ast.kind(n)) {
+            case FlatAst.VAR_DECL:
+                varDecl(n, names);
+                break;
+            case FlatAst.FCTN_DECL:
+                fctnDecl(n);
+                break;
+            case FlatAst.TUPLE_DECL:
+                tupleDecl(n);
+                break;
+            default:
+                System.err.println("Unexpected node kind " + ast.kind(n) +
+                                   " in FlatNames.globals");
+                System.exit(-1);
+            }
+        }
+    }
+
+    private void locals(int list) {
+        for (int k = 0; k < ast.childCount(list); k++) {
+            varDecl(ast.child(list, k), names);
+        }
+    }
+
+    /***
+     * As VarDeclNode.nameAnalysis: the name is added to tab, and the name
+     * of a tuple type is looked up in names.
+     ***/
+    private void varDecl(int n, Scopes tab) {
+        int id = ast.id(n);
+        int name = ast.nameId(id);
+        int type = ast.type(n);
+        boolean badDecl = false;
+
+        if (ast.kind(type) == FlatAst.VOID) {
+            ErrMsg.fatal(ast.lineNum(id), ast.charNum(id),
+                         "Non-function declared void");
+            badDecl = true;
+        }
+        else if (ast.kind(type) == FlatAst.TUPLE) {
+            int tupleId = ast.id(type);
+            int d = names.lookupGlobal(ast.nameId(tupleId));
+            if (d < 0 || ast.kind(d) != FlatAst.TUPLE_DECL) {
+                ErrMsg.fatal(ast.lineNum(tupleId), ast.charNum(tupleId),
+                             "Invalid name of tuple type");
+                badDecl = true;
+            }
+            else {
+                decl[tupleId] = d;
+            }
+        }
+
+        if (tab.lookupLocal(name) >= 0) {
+            ErrMsg.fatal(ast.lineNum(id), ast.charNum(id),
+                         "Multiply-declared identifier");
+            badDecl = true;
+        }
+
+        if (!badDecl) {
+            if (ast.kind(type) != FlatAst.TUPLE) {
+                if (!global) {
+                    offset[n] = frame;
+                    frame -= 4;
+                } else {
+                    offset[n] = 1;
+                }
+            }
+            tab.add(name, n);
+            decl[id] = n;
+        }
+    }
+
+    private void fctnDecl(int n) {
+        int id = ast.id(n);
+        int name = ast.nameId(id);
+        boolean badDecl = false;
+        if (names.lookupLocal(name) >= 0) {
+            ErrMsg.fatal(ast.lineNum(id), ast.charNum(id),
+                         "Multiply-declared identifier");
+            badDecl = true;
+        }
+        else {
+            names.add(name, n);
+            decl[id] = n;
+        }
+
+        global = false;
+        frame = 4;  // offset of first param
+        names.enter();
+
+        int formals = ast.formals(n);
+        for (int k = 0; k < ast.childCount(formals); k++) {
+            formalDecl(ast.child(formals, k));
+        }
+
+        frame = -8;  // offset of first local
+        int body = ast.body(n);
+        locals(ast.decls(body));
+        stmts(ast.stmts(body));
+        if (!badDecl) {
+            offset[n] = -(frame + 8);
+        }
+
+        global = true;
+        names.exit();
+    }
+
+    private void formalDecl(int n) {
+        int id = ast.id(n);
+        int name = ast.nameId(id);
+        boolean badDecl = false;
+
+        if (ast.kind(ast.type(n)) == FlatAst.VOID) {
+            ErrMsg.fatal(ast.lineNum(id), ast.charNum(id),
+                         "Non-function declared void");
+            badDecl = true;
+        }
+
+        if (names.lookupLocal(name) >= 0) {
+            ErrMsg.fatal(ast.lineNum(id), ast.charNum(id),
+                         "Multiply-declared identifier");
+            badDecl = true;
+        }
+
+        if (!badDecl) {
+            offset[n] = frame;
+            frame += 4;
+            names.add(name, n);
+            decl[id] = n;
+        }
+    }
+
+    private void tupleDecl(int n) {
+        int id = ast.id(n);
+        int name = ast.nameId(id);
+        boolean badDecl = false;
+        if (names.lookupLocal(name) >= 0) {
+            ErrMsg.fatal(ast.lineNum(id), ast.charNum(id),
+                         "Multiply-declared identifier");
+            badDecl = true;
+        }
+
+        fields.enter();
+        int list = ast.decls(n);
+        for (int k = 0; k < ast.childCount(list); k++) {
+            varDecl(ast.child(list, k), fields);
+        }
+        fields.exit();
+
+        if (!badDecl) {
+            names.add(name, n);
+            decl[id] = n;
+        }
+    }
+
+    /***
+     * Return the field of the given TUPLE_DECL with the given name (the
+     * first one without an error), or -1.
+     ***/
+    private int field(int tuple, int name) {
+        int list = ast.decls(tuple);
+        for (int k = 0; k < ast.childCount(list); k++) {
+            int f = ast.child(list, k);
+            int id = ast.id(f);
+            if (ast.nameId(id) == name && decl[id] == f) {
+                return f;
+            }
+        }
+        return -1;
+    }
+
+    // ******************************************************************
+    // statements and expressions
+    // ******************************************************************
+
+    private void stmts(int list) {
+        for (int k = 0; k < ast.childCount(list); k++) {
+            stmt(ast.child(list, k));
+        }
+    }
+
+    private void stmt(int n) {
+        switch (ast.kind(n)) {
+        case FlatAst.IF: case FlatAst.WHILE:
+            exp(ast.exp(n));
+            names.enter();
+            locals(ast.decls(n));
+            stmts(ast.stmts(n));
+            names.exit();
+            break;
+        case FlatAst.IF_ELSE:
+            exp(ast.exp(n));
+            names.enter();
+            locals(ast.decls(n));
+            stmts(ast.stmts(n));
+            names.exit();
+            names.enter();
+            locals(ast.elseDecls(n));
+            stmts(ast.elseStmts(n));
+            names.exit();
+            break;
+        case FlatAst.RETURN:
+            if (ast.exp(n) >= 0) {
+                exp(ast.exp(n));
+            }
+            break;
+        default:
+            exp(ast.exp(n));
+            break;
+        }
+    }
+
+    private void exp(int n) {
+        switch (ast.kind(n)) {
+        case FlatAst.ID:
+            int d = names.lookupGlobal(ast.nameId(n));
+            if (d < 0) {
+                ErrMsg.fatal(ast.lineNum(n), ast.charNum(n),
+                             "Undeclared identifier");
+            } else {
+                decl[n] = d;
+            }
+            break;
+        case FlatAst.TUPLE_ACCESS:
+            tupleAccess(n);
+            break;
+        case FlatAst.EXP_LIST:
+        case FlatAst.CALL:
+        case FlatAst.ASSIGN:
+        case FlatAst.HOISTED:
+        case FlatAst.NOT:
+        case FlatAst.UNARY_MINUS:
+            for (int k = 0; k < ast.childCount(n); k++) {
+                exp(ast.child(n, k));
+            }
+            break;
+        default:
+            if (ast.isBinary(n)) {
+                exp(ast.lhs(n));
+                exp(ast.rhs(n));
+            }
+            break;
+        }
+    }
+
+    /***
+     * As TupleAccessNode.nameAnalysis.
+     ***/
+    private void tupleAccess(int n) {
+        int loc = ast.lhs(n);
+        boolean badAccess = false;
+        int tuple = -1;     // the TUPLE_DECL to look up the field in
+
+        exp(loc);
+
+        if (ast.kind(loc) == FlatAst.ID) {
+            int d = decl[loc];
+            if (d < 0) {    // ID was undeclared
+                badAccess = true;
+            }
+            else if (ast.kind(d) == FlatAst.VAR_DECL &&
+                     ast.kind(ast.type(d)) == FlatAst.TUPLE) {
+                tuple = decl[ast.id(ast.type(d))];
+            }
+            else {
+                ErrMsg.fatal(ast.lineNum(loc), ast.charNum(loc),
+                             "Colon-access of non-tuple type");
+                badAccess = true;
+            }
+        }
+        else if (ast.kind(loc) == FlatAst.TUPLE_ACCESS) {
+            if (decl[loc] == BAD) {
+                badAccess = true;
+            }
+            else {
+                tuple = decl[loc];
+                if (tuple < 0) {
+                    ErrMsg.fatal(ast.lineNum(loc), ast.charNum(loc),
+                                 "Colon-access of non-tuple type");
+                    badAccess = true;
+                }
+            }
+        }
+        else {
+            System.err.println("Unexpected node kind in LHS of colon-access");
+            System.exit(-1);
+        }
+
+        if (!badAccess) {
+            int id = ast.id(n);
+            int f = field(tuple, ast.nameId(id));
+            if (f < 0) {
+                ErrMsg.fatal(ast.lineNum(id), ast.charNum(id),
+                             "Invalid tuple field name");
+                badAccess = true;
+            }
+            else {
+                decl[id] = f;
+                if (ast.kind(ast.type(f)) == FlatAst.TUPLE) {
+                    decl[n] = decl[ast.id(ast.type(f))];
+                }
+            }
+        }
+        if (badAccess) {
+            decl[n] = BAD;
+        }
+    }
+
+    /***
+     * Nested scopes of names: for each name, its innermost declaration
+     * (-1 if none) and the depth of the scope it is in.
+     ***/
+    private static class Scopes {
+        private int[] decl;
+        private int[] depth;
+        private int level = 0;
+        private int[] log = new int[3 * 64];    // name, old decl, old depth
+        private int logSize = 0;
+        private int[] starts = new int[16];     // logSize when each scope
+                                                // was entered
+
+        Scopes(int nameCount) {
+            decl = new int[nameCount];
+            depth = new int[nameCount];
+            Arrays.fill(decl, -1);
+        }
+
+        int lookupLocal(int name) {
+            return depth[name] == level ? decl[name] : -1;
+        }
+
+        int lookupGlobal(int name) {
+            return decl[name];
+        }
+
+        void add(int name, int n) {
+            if (logSize == log.length) {
+                log = Arrays.copyOf(log, 2 * logSize);
+            }
+            log[logSize++] = name;
+            log[logSize++] = decl[name];
+            log[logSize++] = depth[name];
+            decl[name] = n;
+            depth[name] = level;
+        }
+
+        void enter() {
+            if (level == starts.length) {
+                starts = Arrays.copyOf(starts, 2 * level);
+            }
+            starts[level++] = logSize;
+        }
+
+        void exit() {
+            int start = starts[--level];
+            while (logSize > start) {
+                int old = log[--logSize];
+                int oldDecl = log[--logSize];
+                int name = log[--logSize];
+                decl[name] = oldDecl;
+                depth[name] = old;
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+import java.nio.*;
+import java.util.*;
+
+/****
+ * IncrementalLexer
+ *
+ * Keeps the text of a source file and its tokens (a TokenBuffer, see
+ * ByteScanner.fill) up to date as the text is edited, for editors that
+ * need the tokens after every change.  After an edit only the tokens
+ * around it are scanned again:
+ *   - scanning restarts at the start of the line the edit starts on.  No
+ *     token (and no comment or string) goes past the end of a line, so
+ *     the tokens before that line cannot have changed, and the scanner
+ *     state at the start of a line is known (character 1 of a line whose
+ *     number comes from the tokens before it);
+ *   - scanning stops at the first new token past the edit that starts
+ *     where an old token started (after the edit moved it) with the same
+ *     kind, length, value and character number.  From there on the
+ *     scanner would do exactly what it did before, so the rest of the old
+ *     tokens are kept, moved by the size of the edit (and the number of
+ *     lines it added).
+ * After edit, changedFrom, changedTo and removed tell which tokens are
+ * new.
+ *
+ * The text is ASCII, one byte per character, as for ByteScanner.
+ ****/
+
+public class IncrementalLexer {
+    private byte[] text;            // the source is text[0..length-1]
+    private int length;
+    private TokenBuffer tokens = new TokenBuffer();
+    private TokenBuffer scratch;    // the tokens scanned by one edit
+    private CompilationContext ctx; // for its NameTable
+
+    // what the last edit changed
+    private int changedFrom;        // its new tokens are changedFrom..
+    private int changedTo;          // changedTo-1,
+    private int removed;            // and it removed this many old ones
+
+    public IncrementalLexer(String source, CompilationContext ctx) {
+        this.ctx = ctx;
+        text = new byte[Math.max(16, 2 * source.length())];
+        length = 0;
+        replace(0, 0, source);
+        scratch = tokens.sharingLiterals();
+        new ByteScanner(buffer(0), ctx).fill(tokens);
+        changedFrom = 0;
+        changedTo = tokens.size();
+        removed = 0;
+    }
+
+    /***
+     * Return the tokens (the last one is EOF).
+     ***/
+    public TokenBuffer tokens() {
+        return tokens;
+    }
+
+    /***
+     * Return the current text.
+     ***/
+    public String text() {
+        char[] chars = new char[length];
+        for (int k = 0; k < length; k++) {
+            chars[k] = (char)(text[k] & 0xff);
+        }
+        return new String(chars);
+    }
+
+    // what the last edit changed
+    public int changedFrom() { return changedFrom; }
+    public int changedTo() { return changedTo; }
+    public int removed() { return removed; }
+
+    /***
+     * edit
+     * Replace the removeLen characters at offset with the given text, and
+     * scan again what that changed.
+     ***/
+    public void edit(int offset, int removeLen, String inserted) {
+        if (offset < 0 || removeLen < 0 || offset + removeLen > length) {
+            throw new IllegalArgumentException("bad edit: " + offset + ", " +
+                                               removeLen);
+        }
+
+        // the line the edit starts on, and the first token on or after it
+        int restart = offset;
+        while (restart > 0 && text[restart - 1] != '\n') {
+            restart--;
+        }
+        int first = firstAtOrAfter(restart);
+        int lineNum = lineAt(first, restart);
+
+        // change the text
+        int delta = inserted.length() - removeLen;
+        int oldEnd = offset + removeLen;    // the end of the edit, before it
+        int newEnd = offset + inserted.length();    // and after it
+        replace(offset, removeLen, inserted);
+
+        // scan until the tokens are the same as before
+        ByteScanner scanner = new ByteScanner(buffer(restart), lineNum, ctx);
+        scratch.clear();
+        int old = first;        // the next old token that could match
+        int lineDelta = 0;
+        boolean synced = false;
+        while (true) {
+            int n = scratch.size();
+            int kind = scanner.next(scratch);
+            for (int k = n; k < scratch.size(); k++) {
+                int st = scratch.start(k);
+                if (st < newEnd) {
+                    continue;
+                }
+                while (old < tokens.size() &&
+                       tokens.start(old) + delta < st) {
+                    old++;
+                }
+                if (old < tokens.size() && tokens.start(old) >= oldEnd &&
+                    same(scratch, k, old, delta)) {
+                    lineDelta = scratch.line(k) - tokens.line(old);
+                    scratch.truncate(k);
+                    synced = true;
+                    break;
+                }
+            }
+            if (synced || kind == sym.EOF) {
+                break;
+            }
+        }
+
+        int to = synced ? old : tokens.size();
+        tokens.replace(first, to, scratch);
+        if (synced) {
+            tokens.shift(first + scratch.size(), delta, lineDelta);
+        }
+        changedFrom = first;
+        changedTo = first + scratch.size();
+        removed = to - first;
+    }
+
+    /***
+     * Is token k of the new tokens the same as token old of the tokens,
+     * once that has been moved by delta?  (Not the line: every line after
+     * the edit moves by the same amount.)
+     ***/
+    private boolean same(TokenBuffer scanned, int k, int old, int delta) {
+        return scanned.start(k) == tokens.start(old) + delta &&
+               scanned.kind(k) == tokens.kind(old) &&
+               scanned.length(k) == tokens.length(old) &&
+               scanned.value(k) == tokens.value(old) &&
+               scanned.col(k) == tokens.col(old);
+    }
+
+    /***
+     * Return the index of the first token that starts at or after offset.
+     ***/
+    private int firstAtOrAfter(int offset) {
+        int lo = 0;
+        int hi = tokens.size() - 1;     // the EOF token starts at the end
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tokens.start(mid) < offset) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /***
+     * Return the number of the line that starts at offset, where token
+     * first is the first token at or after offset.  It is counted from the
+     * token before, as the scanner counts lines (see ByteScanner.skip).
+     ***/
+    private int lineAt(int first, int offset) {
+        int lineNum = 1;
+        int from = 0;
+        if (first > 0) {
+            lineNum = tokens.line(first - 1);
+            from = tokens.start(first - 1);
+        }
+        for (int k = from; k < offset; k++) {
+            if (text[k] == '\r' ||
+                (text[k] == '\n' && (k == 0 || text[k - 1] != '\r'))) {
+                lineNum++;
+            }
+        }
+        return lineNum;
+    }
+
+    /***
+     * Return a buffer on the text, positioned at offset.
+     ***/
+    private ByteBuffer buffer(int offset) {
+        ByteBuffer buf = ByteBuffer.wrap(text, 0, length);
+        buf.position(offset);
+        return buf;
+    }
+
+    /***
+     * Replace the len characters at offset with s (moving the text after
+     * them only once).
+     ***/
+    private void replace(int offset, int len, String s) {
+        int n = s.length();
+        if (length - len + n > text.length) {
+            text = Arrays.copyOf(text, Math.max(length - len + n,
+                                                2 * text.length));
+        }
+        if (n != len) {
+            System.arraycopy(text, offset + len, text, offset + n,
+                             length - offset - len);
+        }
+        for (int k = 0; k < n; k++) {
+            char c = s.charAt(k);
+            text[offset + k] = c < 256 ? (byte)c : (byte)'?';
+        }
+        length += n - len;
+    }
+}
@@ -0,0 +1,315 @@
+import java.util.*;
+
+/****
+ * InstrList
+ *
+ * The MIPS code generated for a program, kept in memory until it is
+ * written out.  The Codegen methods append to it; write then prints the
+ * whole list in one pass, formatted exactly as those methods describe.
+ * In between, passes can look at and change the code.
+ *
+ * Each instruction is one index into a set of parallel arrays:
+ *     form    which Codegen method made it (so how it is printed)
+ *     op      the op code: an Op ordinal, or -(k+1) for an op code that
+ *             is not an Op, whose text is string k
+ *     arg1, arg2, arg3
+ *             the arguments: string numbers (-1 for an empty argument)
+ *             or, for the int arguments of INT2, INT3 and INDEXED
+ *             instructions, the value itself
+ *     label   string number of the label (LABELED and LABEL)
+ *     comment string number of the comment (-1 for none)
+ * Strings (registers, labels, comments, ...) are stored once each and
+ * referred to by number, so two operands are the same register exactly
+ * when they have the same number.
+ ****/
+
+public class InstrList {
+    // forms of instruction, named after the Codegen methods that make them
+    public static final byte STR = 0;      // generate, generateWithComment
+    public static final byte INT3 = 1;     // generate(op, str, str, int)
+    public static final byte INT2 = 2;     // generate(op, str, int)
+    public static final byte INDEXED = 3;  // generateIndexed
+    public static final byte LABELED = 4;  // generateLabeled
+    public static final byte LABEL = 5;    // genLabel
+    public static final byte DELETED = 6;  // removed by an optimization
+
+    // op codes used by the code generator
+    public enum Op {
+        NONE(""), DATA(".data"), TEXT(".text"), ALIGN(".align "),
+        GLOBL(".globl "), SW("sw"), LW("lw"), LA("la"), LI("li"),
+        MOVE("move"), ADDU("addu"), SUBU("subu"), ADD("add"), SUB("sub"),
+        MUL("mul"), DIV("div"), NEG("neg"), NOT("not"), AND("and"),
+        OR("or"), XOR("xor"), SEQ("seq"), SNE("sne"), SLT("slt"),
+        SLE("sle"), SGT("sgt"), SGE("sge"), BEQ("beq"), BNE("bne"),
+        BLT("blt"), BLE("ble"), BGT("bgt"), BGE("bge"), J("j"), JAL("jal"),
+        JR("jr"), SYSCALL("syscall");
+
+        private final String text;
+
+        Op(String text) {
+            this.text = text;
+        }
+
+        public String text() {
+            return text;
+        }
+
+        private static final HashMap<String, Op> byText =
+            new HashMap<String, Op>();
+        static {
+            for (Op op : values()) {
+                byText.put(op.text, op);
+            }
+        }
+
+        /***
+         * Return the Op with the given text, or null if there is none.
+         ***/
+        public static Op of(String text) {
+            return byText.get(text);
+        }
+    }
+
+    private static final Op[] OPS = Op.values();
+
+    // for pretty printing: op codes are padded to this width
+    private static final int MAXLEN = 4;
+
+    // the instructions
+    private byte[] form = new byte[1024];
+    private int[] op = new int[1024];
+    private int[] arg1 = new int[1024];
+    private int[] arg2 = new int[1024];
+    private int[] arg3 = new int[1024];
+    private int[] label = new int[1024];
+    private int[] comment = new int[1024];
+    private int size = 0;
+
+    // the strings
+    private ArrayList<String> strings = new ArrayList<String>();
+    private HashMap<String, Integer> stringNums = new HashMap<String, Integer>();
+
+    /***
+     * Return the number of instructions.
+     ***/
+    public int size() {
+        return size;
+    }
+
+    /***
+     * Return the number of string s, adding it if it is new; the empty
+     * string is -1.
+     ***/
+    public int string(String s) {
+        if (s.isEmpty()) {
+            return -1;
+        }
+        Integer k = stringNums.get(s);
+        if (k == null) {
+            k = strings.size();
+            strings.add(s);
+            stringNums.put(s, k);
+        }
+        return k;
+    }
+
+    /***
+     * Return string k ("" for -1).
+     ***/
+    public String string(int k) {
+        return k < 0 ? "" : strings.get(k);
+    }
+
+    /***
+     * Return the op code number for the given op code text.
+     ***/
+    public int opcode(String text) {
+        Op o = Op.of(text);
+        return o != null ? o.ordinal() : -(string(text) + 1);
+    }
+
+    /***
+     * Append an instruction; returns its index.
+     ***/
+    public int add(byte f, int o, int a1, int a2, int a3, int lab, int comm) {
+        if (size == form.length) {
+            int n = 2 * size;
+            form = Arrays.copyOf(form, n);
+            op = Arrays.copyOf(op, n);
+            arg1 = Arrays.copyOf(arg1, n);
+            arg2 = Arrays.copyOf(arg2, n);
+            arg3 = Arrays.copyOf(arg3, n);
+            label = Arrays.copyOf(label, n);
+            comment = Arrays.copyOf(comment, n);
+        }
+        form[size] = f;
+        op[size] = o;
+        arg1[size] = a1;
+        arg2[size] = a2;
+        arg3[size] = a3;
+        label[size] = lab;
+        comment[size] = comm;
+        return size++;
+    }
+
+    /***
+     * Replace instruction k.
+     ***/
+    public void set(int k, byte f, int o, int a1, int a2, int a3, int lab,
+                    int comm) {
+        form[k] = f;
+        op[k] = o;
+        arg1[k] = a1;
+        arg2[k] = a2;
+        arg3[k] = a3;
+        label[k] = lab;
+        comment[k] = comm;
+    }
+
+    /***
+     * Mark instruction k as deleted; it is not written, and is removed by
+     * the next call of compact.
+     ***/
+    public void delete(int k) {
+        form[k] = DELETED;
+    }
+
+    /***
+     * Remove the deleted instructions, keeping the others in order.
+     ***/
+    public void compact() {
+        int n = 0;
+        for (int k = 0; k < size; k++) {
+            if (form[k] != DELETED) {
+                set(n++, form[k], op[k], arg1[k], arg2[k], arg3[k], label[k],
+                    comment[k]);
+            }
+        }
+        size = n;
+    }
+
+    // access to instruction k
+    public byte form(int k) { return form[k]; }
+    public int op(int k) { return op[k]; }
+    public int arg1(int k) { return arg1[k]; }
+    public int arg2(int k) { return arg2[k]; }
+    public int arg3(int k) { return arg3[k]; }
+    public int label(int k) { return label[k]; }
+    public int comment(int k) { return comment[k]; }
+
+    /***
+     * Is the op code of instruction k the given Op?
+     ***/
+    public boolean is(int k, Op o) {
+        return op[k] == o.ordinal();
+    }
+
+    /***
+     * Return the text of the op code of instruction k.
+     ***/
+    public String opText(int k) {
+        int o = op[k];
+        return o >= 0 ? OPS[o].text() : strings.get(-o - 1);
+    }
+
+    /***
+     * Write all of the instructions, in order.
+     ***/
+    public void write(AsmEmitter p) {
+        for (int k = 0; k < size; k++) {
+            write(p, k);
+        }
+    }
+
+    /***
+     * Write instruction k.
+     ***/
+    private void write(AsmEmitter p, int k) {
+        String opcode = opText(k);
+        switch (form[k]) {
+        case STR:
+            p.print('\t');
+            p.print(opcode);
+            if (arg1[k] >= 0) {
+                p.spaces(MAXLEN - opcode.length() + 2);
+                p.print(string(arg1[k]));
+                if (arg2[k] >= 0) {
+                    p.print(", ");
+                    p.print(string(arg2[k]));
+                    if (arg3[k] >= 0) {
+                        p.print(", ");
+                        p.print(string(arg3[k]));
+                    }
+                }
+            }
+            if (comment[k] >= 0) {
+                p.print("\t\t# ");
+                p.print(string(comment[k]));
+            }
+            break;
+
+        case INT3:
+            p.print('\t');
+            p.print(opcode);
+            p.spaces(MAXLEN - opcode.length() + 2);
+            p.print(string(arg1[k]));
+            p.print(", ");
+            p.print(string(arg2[k]));
+            p.print(", ");
+            p.print(arg3[k]);
+            break;
+
+        case INT2:
+            p.print('\t');
+            p.print(opcode);
+            p.spaces(MAXLEN - opcode.length() + 2);
+            p.print(string(arg1[k]));
+            p.print(", ");
+            p.print(arg2[k]);
+            break;
+
+        case INDEXED:
+            p.print('\t');
+            p.print(opcode);
+            p.spaces(MAXLEN - opcode.length() + 2);
+            p.print(string(arg1[k]));
+            p.print(", ");
+            p.print(arg3[k]);
+            p.print('(');
+            p.print(string(arg2[k]));
+            p.print(')');
+            if (comment[k] >= 0) {
+                p.print("\t# ");
+                p.print(string(comment[k]));
+            }
+            break;
+
+        case LABELED:
+            p.print(string(label[k]));
+            p.print(":\t");
+            p.print(opcode);
+            if (arg1[k] >= 0) {
+                p.spaces(MAXLEN - opcode.length() + 2);
+                p.print(string(arg1[k]));
+            }
+            if (comment[k] >= 0) {
+                p.print("\t# ");
+                p.print(string(comment[k]));
+            }
+            break;
+
+        case LABEL:
+            p.print(string(label[k]));
+            p.print(':');
+            if (comment[k] >= 0) {
+                p.print("\t\t# ");
+                p.print(string(comment[k]));
+            }
+            break;
+
+        case DELETED:
+            return;
+        }
+        p.println();
+    }
+}
@@ -0,0 +1,91 @@
+import java.nio.*;
+
+/****
+ * Keywords
+ *
+ * Tells the keywords of base from other identifiers.  The scanners match
+ * every keyword with the identifier rule and then look the word up here.
+ *
+ * The lookup uses a perfect hash: no two keywords have the same value of
+ *     (8 * first char + 2 * second char + length) mod 16
+ * so a word is a keyword only if it is the keyword in its slot of a
+ * 16-entry table, which takes one hash and one comparison.
+ ****/
+
+public class Keywords {
+    private static final int SIZE = 16;
+    private static final String[] WORDS = new String[SIZE];
+    private static final int[] KINDS = new int[SIZE];
+
+    static {
+        add("void", sym.VOID);
+        add("logical", sym.LOGICAL);
+        add("integer", sym.INTEGER);
+        add("True", sym.TRUE);
+        add("False", sym.FALSE);
+        add("tuple", sym.TUPLE);
+        add("read", sym.READ);
+        add("write", sym.WRITE);
+        add("if", sym.IF);
+        add("else", sym.ELSE);
+        add("while", sym.WHILE);
+        add("return", sym.RETURN);
+    }
+
+    private static void add(String word, int kind) {
+        int h = hash(word.charAt(0), word.charAt(1), word.length());
+        if (WORDS[h] != null) {
+            System.err.println("Keywords: " + word + " and " + WORDS[h] +
+                               " have the same hash");
+            System.exit(-1);
+        }
+        WORDS[h] = word;
+        KINDS[h] = kind;
+    }
+
+    private static int hash(int c0, int c1, int len) {
+        return (8 * c0 + 2 * c1 + len) & (SIZE - 1);
+    }
+
+    /***
+     * Return the kind of the keyword in chars[start..start+len), or -1 if
+     * it is not a keyword.
+     ***/
+    public static int lookup(char[] chars, int start, int len) {
+        if (len < 2 || len > 7) {
+            return -1;
+        }
+        int h = hash(chars[start], chars[start + 1], len);
+        String word = WORDS[h];
+        if (word == null || word.length() != len) {
+            return -1;
+        }
+        for (int i = 0; i < len; i++) {
+            if (word.charAt(i) != chars[start + i]) {
+                return -1;
+            }
+        }
+        return KINDS[h];
+    }
+
+    /***
+     * Return the kind of the keyword in the len bytes of buf at offset
+     * start, or -1 if it is not a keyword.
+     ***/
+    public static int lookup(ByteBuffer buf, int start, int len) {
+        if (len < 2 || len > 7) {
+            return -1;
+        }
+        int h = hash(buf.get(start) & 0xff, buf.get(start + 1) & 0xff, len);
+        String word = WORDS[h];
+        if (word == null || word.length() != len) {
+            return -1;
+        }
+        for (int i = 0; i < len; i++) {
+            if (word.charAt(i) != (buf.get(start + i) & 0xff)) {
+                return -1;
+            }
+        }
+        return KINDS[h];
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.*;
+
+/****
+ * LoopInvariants
+ *
+ * The loop-invariant expressions of one while loop.  An expression is
+ * invariant if it is made only of literals and locals (or parameters)
+ * that are not assigned anywhere in the loop, and it cannot fail: a
+ * division is invariant only if it divides by a constant other than 0 and
+ * -1.  (Globals are never invariant, since a function called in the loop
+ * may assign them.)
+ *
+ * Each invariant expression taken out of the loop gets a slot of its own
+ * in the function's frame, and the loop reads the slot instead.  A loop
+ * with hoisted expressions is inverted: its test is done once before the
+ * loop, and only if it is true are the expressions computed into their
+ * slots, then the body is run, with the test repeated at its end.
+ *
+ * The first test computes the expressions in the test itself, as the
+ * program would have, and saves them in their slots as it goes (see
+ * HoistedExpNode).  The other expressions are computed after it; since
+ * the program might not have computed them at all (they may be in an if,
+ * or after a return), an expression that can trap (an add, sub or
+ * negation that overflows) is only taken out of the loop if it is in the
+ * test and is always computed by it (it is not in the second operand of
+ * & or |).
+ ****/
+
+public class LoopInvariants {
+    private ConstEnv assigns;       // the assignments in the loop
+    private FctnSym fctn;           // the function the loop is in
+    private List<HoistedExpNode> hoisted = new LinkedList<HoistedExpNode>();
+    private boolean inTest;         // taking expressions out of the test?
+    private boolean always;         // ...from a part of it that is always
+                                    // computed?
+
+    public LoopInvariants(ConstEnv assigns, FctnSym fctn) {
+        this.assigns = assigns;
+        this.fctn = fctn;
+    }
+
+    /***
+     * Is sym assigned anywhere in the loop?
+     ***/
+    public boolean assignedIn(Sym sym) {
+        return assigns.timesAssigned(sym) > 0;
+    }
+
+    /***
+     * Return the loop test exp with its invariant parts taken out of the
+     * loop (see ExpNode.hoistFrom).
+     ***/
+    public ExpNode hoistFromTest(ExpNode exp) {
+        inTest = true;
+        always = true;
+        try {
+            return exp.hoistFrom(this);
+        } finally {
+            inTest = false;
+            always = false;
+        }
+    }
+
+    /***
+     * Called before taking expressions out of a part of an expression that
+     * is not always computed.  Returns what must be given back to
+     * leaveConditional after it.
+     ***/
+    public boolean enterConditional() {
+        boolean outer = always;
+        always = false;
+        return outer;
+    }
+
+    /***
+     * Undo a call to enterConditional.
+     ***/
+    public void leaveConditional(boolean outer) {
+        always = outer;
+    }
+
+    /***
+     * May the invariant expression exp be taken out of the loop here?
+     ***/
+    public boolean mayHoist(ExpNode exp) {
+        return !exp.canTrap() || (inTest && always);
+    }
+
+    /***
+     * Take the invariant expression exp out of the loop: give it a slot in
+     * the frame and return the node that reads it there.
+     ***/
+    public ExpNode hoist(ExpNode exp) {
+        int offset = -8 - fctn.getLocalsSize();  // just past the last local
+        fctn.setLocalsSize(fctn.getLocalsSize() + 4);
+        HoistedExpNode node = new HoistedExpNode(exp, offset, inTest,
+                                                 inTest && always);
+        hoisted.add(node);
+        return node;
+    }
+
+    /***
+     * Return the expressions taken out of the loop, in order.
+     ***/
+    public List<HoistedExpNode> hoisted() {
+        return hoisted;
+    }
+}
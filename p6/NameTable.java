@@ -0,0 +1,161 @@
+import java.nio.*;
+import java.util.*;
+
+/****
+ * NameTable
+ *
+ * The identifiers of one compile, each with a small number of its own (its
+ * id).  The scanner looks every identifier up here as it finds it, so each
+ * different name is made into a String only once, and from then on the
+ * compiler works with the id: IdTokenVal and IdNode carry it, and the
+ * symbol table is keyed on it.  "main" is always id MAIN.
+ *
+ * Names can be looked up from a String, or straight from the characters
+ * of a scanner's buffer (without making a String first).
+ ****/
+
+public class NameTable {
+    public static final int MAIN = 0;   // the id of "main"
+
+    private String[] names = new String[256];   // by id
+    private int[] hashes = new int[256];        // by id
+    private int size = 0;
+
+    // open hash table of ids + 1 (0 is an empty slot), by hash code
+    private int[] slots = new int[512];
+
+    public NameTable() {
+        id("main");
+    }
+
+    /***
+     * Return the number of names.
+     ***/
+    public int size() {
+        return size;
+    }
+
+    /***
+     * Return the name with the given id.
+     ***/
+    public String name(int id) {
+        return names[id];
+    }
+
+    /***
+     * Return the id of the given name, adding it if it is new.
+     ***/
+    public int id(String name) {
+        int hash = name.hashCode();
+        int mask = slots.length - 1;
+        for (int k = hash & mask; ; k = (k + 1) & mask) {
+            int id = slots[k] - 1;
+            if (id < 0) {
+                return add(k, name, hash);
+            }
+            if (hashes[id] == hash && names[id].equals(name)) {
+                return id;
+            }
+        }
+    }
+
+    /***
+     * Return the id of the name in chars[start..start+len), adding it if
+     * it is new.
+     ***/
+    public int id(char[] chars, int start, int len) {
+        int hash = 0;
+        for (int i = start; i < start + len; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int mask = slots.length - 1;
+        for (int k = hash & mask; ; k = (k + 1) & mask) {
+            int id = slots[k] - 1;
+            if (id < 0) {
+                return add(k, new String(chars, start, len), hash);
+            }
+            if (hashes[id] == hash && same(names[id], chars, start, len)) {
+                return id;
+            }
+        }
+    }
+
+    /***
+     * Return the id of the name in the len bytes (ASCII characters) of buf
+     * at offset start, adding it if it is new.
+     ***/
+    public int id(ByteBuffer buf, int start, int len) {
+        int hash = 0;
+        for (int i = start; i < start + len; i++) {
+            hash = 31 * hash + (buf.get(i) & 0xff);
+        }
+        int mask = slots.length - 1;
+        for (int k = hash & mask; ; k = (k + 1) & mask) {
+            int id = slots[k] - 1;
+            if (id < 0) {
+                char[] chars = new char[len];
+                for (int i = 0; i < len; i++) {
+                    chars[i] = (char)(buf.get(start + i) & 0xff);
+                }
+                return add(k, new String(chars), hash);
+            }
+            if (hashes[id] == hash && same(names[id], buf, start, len)) {
+                return id;
+            }
+        }
+    }
+
+    private static boolean same(String name, char[] chars, int start,
+                                int len) {
+        if (name.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (name.charAt(i) != chars[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean same(String name, ByteBuffer buf, int start,
+                                int len) {
+        if (name.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (name.charAt(i) != (buf.get(start + i) & 0xff)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /***
+     * Add a new name, whose hash code is hash, in the empty slot k;
+     * returns its id.
+     ***/
+    private int add(int k, String name, int hash) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, 2 * size);
+            hashes = Arrays.copyOf(hashes, 2 * size);
+        }
+        int id = size++;
+        names[id] = name;
+        hashes[id] = hash;
+        slots[k] = id + 1;
+
+        if (2 * size > slots.length) {     // keep the table half empty
+            slots = new int[2 * slots.length];
+            int mask = slots.length - 1;
+            for (int i = 0; i < size; i++) {
+                int j = hashes[i] & mask;
+                while (slots[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                slots[j] = i + 1;
+            }
+        }
+        return id;
+    }
+}
@@ -1,4 +1,7 @@
 import java.io.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
 import java_cup.runtime.*;
 
 /****
@@ -13,12 +16,80 @@ import java_cup.runtime.*;
  * calls the parser.  If the parse is successful, then it will call name
  * analysis and type checking routines. If there is no error at the end,
  * it will generate MIPS code to the output file.
+ *
+ * Alternatively, the single argument -server starts a compile server that
+ * reads compile requests from stdin (see CompileServer), and
+ *     -batch [-d outdir] file-or-directory ...
+ * compiles many files at the same time (see BatchCompiler).
+ *
+ * Any of these may be preceded by options:
+ *     -O          fold constants and take invariant expressions out of
+ *                 loops before generating code, then run the peephole
+ *                 optimizer over the generated code and report how many
+ *                 instructions it removed
+ *     -regalloc   evaluate expressions in registers instead of on the
+ *                 stack where possible (see ExpNode.genValue)
+ *     -mmap       map the source file into memory and scan it there (see
+ *                 ByteScanner) instead of reading it through a Reader
+ *     -tokens     like -mmap, but scan the whole file into a TokenBuffer
+ *                 before parsing it
+ *     -parallel   like -tokens, but scan pieces of a large file on
+ *                 several threads at once (see ParallelScanner)
+ *     -pipeline   scan the file on a thread of its own, while the parser
+ *                 takes the tokens (see TokenPipe); not with -tokens or
+ *                 -parallel, which scan before parsing
+ *     -time       report the time each pass (name analysis, type checking,
+ *                 ...) takes and the memory it allocates (see PassManager)
+ *     -fused      do name analysis and type checking in a single walk of
+ *                 the tree (see ProgramNode.analyze); the errors reported
+ *                 are the same
  ****/
 
 public class P6 {
     public static void main(String[] args)
         throws IOException // may be thrown by the scanner
     {
+        // options
+        int options = 0;
+        int k = 0;
+        while (k < args.length) {
+            if (args[k].equals("-O")) {
+                options |= CompilationContext.OPTIMIZE;
+            } else if (args[k].equals("-regalloc")) {
+                options |= CompilationContext.REGALLOC;
+            } else if (args[k].equals("-mmap")) {
+                options |= CompilationContext.MMAP;
+            } else if (args[k].equals("-tokens")) {
+                options |= CompilationContext.TOKENS;
+            } else if (args[k].equals("-parallel")) {
+                options |= CompilationContext.PARALLEL;
+            } else if (args[k].equals("-pipeline")) {
+                options |= CompilationContext.PIPELINE;
+            } else if (args[k].equals("-time")) {
+                options |= CompilationContext.TIME;
+            } else if (args[k].equals("-fused")) {
+                options |= CompilationContext.FUSED;
+            } else {
+                break;
+            }
+            k++;
+        }
+        args = Arrays.copyOfRange(args, k, args.length);
+
+        if (args.length == 1 && args[0].equals("-server")) {
+            CompileServer.serve(new BufferedReader(
+                                    new InputStreamReader(System.in)),
+                                System.out, options);
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("-batch")) {
+            if (!BatchCompiler.run(args, options)) {
+                System.exit(-1);
+            }
+            return;
+        }
+
         // check for command-line args
         if (args.length != 2) {
             System.err.println("please supply name of source (base) file " +
@@ -26,49 +97,121 @@ public class P6 {
             System.exit(-1);
         }
 
+        if (!compile(args[0], args[1],
+                     new CompilationContext(System.err, options))) {
+            System.exit(-1);
+        }
+    }
+
+    /***
+     * compile
+     * Compiles the base source in file inName into MIPS code in file
+     * outName.  All messages (including compile errors) are reported to
+     * ctx, which should be a new context for every compile.  Returns false
+     * if the files could not be opened or the program could not be parsed;
+     * use ctx.hasErrors() to check for errors found in the parsed program.
+     ***/
+    public static boolean compile(String inName, String outName,
+                                  CompilationContext ctx)
+        throws IOException // may be thrown by the scanner
+    {
+        // with -pipeline, the scanner reports to the pipe, which passes its
+        // messages on to ctx in order
+        TokenPipe pipe = null;
+        CompilationContext scanCtx = ctx;
+        if (ctx.option(CompilationContext.PIPELINE) &&
+            !ctx.option(CompilationContext.TOKENS) &&
+            !ctx.option(CompilationContext.PARALLEL)) {
+            pipe = new TokenPipe(ctx);
+            scanCtx = pipe.scannerContext();
+        }
+
         // open input file
         FileReader inFile = null;
+        java_cup.runtime.Scanner scanner;
         try {
-            inFile = new FileReader(args[0]);
-        } catch (FileNotFoundException ex) {
-            System.err.println("file " + args[0] + " not found");
-            System.exit(-1);
+            if (ctx.option(CompilationContext.PARALLEL)) {
+                TokenBuffer tokens = new TokenBuffer();
+                ParallelScanner.fill(ByteScanner.map(inName), tokens, ctx);
+                scanner = tokens.scanner(ctx);
+            } else if (ctx.option(CompilationContext.TOKENS)) {
+                TokenBuffer tokens = new TokenBuffer();
+                ByteScanner.open(inName, ctx).fill(tokens);
+                scanner = tokens.scanner(ctx);
+            } else if (ctx.option(CompilationContext.MMAP)) {
+                scanner = ByteScanner.open(inName, scanCtx);
+            } else {
+                inFile = new FileReader(inName);
+                scanner = new Yylex(inFile, scanCtx);
+            }
+        } catch (FileNotFoundException | NoSuchFileException ex) {
+            ctx.message("file " + inName + " not found");
+            return false;
         }
 
         // open output file
-        PrintWriter outFile = null;
+        AsmEmitter outFile = null;
         try {
-            Codegen.p = new PrintWriter(args[1]);
-        } catch (FileNotFoundException ex) {
-            System.err.println("file " + args[1] +
-                               " could not be opened for writing");
-            System.exit(-1);
+            outFile = new AsmEmitter(FileChannel.open(Paths.get(outName),
+                                         StandardOpenOption.WRITE,
+                                         StandardOpenOption.CREATE,
+                                         StandardOpenOption.TRUNCATE_EXISTING));
+        } catch (IOException ex) {
+            ctx.message("file " + outName +
+                        " could not be opened for writing");
+            if (inFile != null) {
+                inFile.close();
+            }
+            return false;
         }
 
-        parser P = new parser(new Yylex(inFile));
+        try {
+            if (pipe != null) {
+                pipe.start(scanner);
+                scanner = pipe;
+            }
+            parser P = new parser(scanner, ctx);
 
-        Symbol root = null; // parser returns a Symbol whose value field
-                            // is the translation of the root nonterminal
-                            // (i.e., of the nonterminal "program")
+            Symbol root = null; // parser returns a Symbol whose value field
+                                // is the translation of the root nonterminal
+                                // (i.e., of the nonterminal "program")
 
-        try {
-            root = P.parse(); // do the parse
-        } catch (Exception ex){
-            System.err.println("exception occured during parse: " + ex);
-            System.exit(-1);
-        }
+            try {
+                root = P.parse(); // do the parse
+            } catch (Exception ex){
+                if (!ctx.hasErrors()) {  // syntax errors are already reported
+                    ctx.message("exception occured during parse: " + ex);
+                }
+                return false;
+            } finally {
+                if (pipe != null) {
+                    pipe.close();
+                }
+            }
+            if (P.syntaxErrors() > 0) {  // all reported, but the AST is
+                return false;            // missing the parts with errors
+            }
 
-        ((ProgramNode)root.value).nameAnalysis();  // perform name analysis
+            // name analysis, type checking and, if there are no errors,
+            // code generation (see PassManager)
+            ProgramNode program = (ProgramNode)root.value;
+            PassManager passes = PassManager.standard();
+            if (ctx.option(CompilationContext.FUSED)) {
+                passes.fuse(PassManager.NAMES, PassManager.TYPES,
+                            PassManager.analysis());
+            }
+            passes.run(program, ctx);
 
-        if (!ErrMsg.getErr()) {  // if no errors, do type checking
-            ((ProgramNode)root.value).typeCheck();
+            if (!ctx.hasErrors()) {
+                ctx.code().write(outFile);
+            }
+        } finally {
+            if (inFile != null) {
+                inFile.close();
+            }
+            outFile.close();
         }
 
-        if (!ErrMsg.getErr()) {  // if no errors, do code generation
-            ((ProgramNode)root.value).codeGen();
-        }        
-        Codegen.p.close();
-
-        return;
+        return true;
     }
 }
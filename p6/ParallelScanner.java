@@ -0,0 +1,117 @@
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/****
+ * ParallelScanner
+ *
+ * Scans a large source into a TokenBuffer (as ByteScanner.fill does) on
+ * several threads at once.  The source is cut into chunks, each ending
+ * just after a \n.  No token of base goes past a \n: a comment (!! or $)
+ * ends at the end of its line, and so does a string literal, since a \n
+ * cannot be in one (an unterminated string is reported where its line
+ * ends).  So a \n is never inside a string or a comment, and scanning a
+ * chunk on its own from its first character gives exactly the tokens the
+ * whole-file scan finds there; only the line numbers differ.
+ *
+ * Each chunk is scanned on a ForkJoinPool by a ByteScanner of its own,
+ * into a TokenBuffer and a NameTable of its own (so the threads share
+ * nothing), counting lines from 1.  Then the chunks are appended in order
+ * to the result: every line number gets the number of lines in the chunks
+ * before it, and every id and literal is moved to the tables of the
+ * result.  Character numbers need no change, as each chunk starts a line;
+ * token offsets already are offsets in the whole source.  Since the names
+ * of each chunk are added in the order they were first seen, the ids come
+ * out the same as in a scan on one thread.
+ ****/
+
+public class ParallelScanner {
+    // a source is only split into chunks of at least this many bytes
+    private static final int MIN_CHUNK = 64 * 1024;
+
+    /***
+     * fill
+     * Scan the source in buf (from its position to its limit) into tokens,
+     * which should be empty, on the common ForkJoinPool.  Identifiers go
+     * into the NameTable of ctx.
+     ***/
+    public static void fill(ByteBuffer buf, TokenBuffer tokens,
+                            CompilationContext ctx) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        fill(buf, tokens, ctx, pool, pool.getParallelism());
+    }
+
+    /***
+     * As above, in (at most) the given number of chunks, on the given pool.
+     ***/
+    public static void fill(ByteBuffer buf, TokenBuffer tokens,
+                            CompilationContext ctx, ForkJoinPool pool,
+                            int chunks) {
+        int from = buf.position();
+        int end = buf.limit();
+        chunks = Math.min(chunks, (end - from) / MIN_CHUNK);
+        if (chunks <= 1) {
+            new ByteScanner(buf.duplicate(), ctx).fill(tokens);
+            return;
+        }
+
+        // cut the source just after the first \n at or past every
+        // chunk-size bytes
+        ArrayList<Chunk> parts = new ArrayList<Chunk>();
+        int size = (end - from) / chunks;
+        while (from < end) {
+            int to = Math.min(from + size, end);
+            while (to < end && buf.get(to - 1) != '\n') {
+                to++;
+            }
+            parts.add(new Chunk(buf, from, to, ctx));
+            from = to;
+        }
+
+        for (Chunk c : parts) {
+            pool.execute(c);
+        }
+        int lineDelta = 0;
+        for (int k = 0; k < parts.size(); k++) {
+            Chunk c = parts.get(k);
+            c.join();
+
+            // map the chunk's ids to ids of ctx's table
+            int[] ids = new int[c.names.size()];
+            for (int id = 0; id < ids.length; id++) {
+                ids[id] = ctx.names().id(c.names.name(id));
+            }
+
+            // append all but the chunk's EOF, which is kept for the last
+            // chunk only
+            int n = c.tokens.size();
+            int eofLine = c.tokens.line(n - 1);
+            tokens.append(c.tokens, k == parts.size() - 1 ? n : n - 1,
+                          lineDelta, ids);
+            lineDelta += eofLine - 1;
+        }
+    }
+
+    /***
+     * One chunk of the source, and (once it is done) its tokens.
+     ***/
+    private static class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private ByteBuffer buf;
+        private CompilationContext ctx;
+        TokenBuffer tokens = new TokenBuffer();
+        NameTable names = new NameTable();
+
+        Chunk(ByteBuffer source, int from, int to, CompilationContext ctx) {
+            buf = source.duplicate();
+            buf.limit(to);
+            buf.position(from);
+            this.ctx = ctx;
+        }
+
+        protected void compute() {
+            new ByteScanner(buf, 1, names, ctx).fill(tokens);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/****
+ * Pass
+ *
+ * One pass of the compiler over a parsed program (name analysis, type
+ * checking, ...), as run by a PassManager.  A pass has a name, by which
+ * it can be skipped or fused with another one (see PassManager).
+ ****/
+
+public abstract class Pass {
+    private String name;
+
+    public Pass(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /***
+     * runs
+     * Is this pass to run in the given compilation?  By default a pass
+     * only runs if no errors have been reported.
+     ***/
+    public boolean runs(CompilationContext ctx) {
+        return !ctx.hasErrors();
+    }
+
+    /***
+     * run
+     * Run this pass over the program; errors and messages are reported to
+     * the given compilation context.
+     ***/
+    public abstract void run(ProgramNode program, CompilationContext ctx);
+}
@@ -0,0 +1,244 @@
+import java.lang.management.*;
+import java.util.*;
+
+/****
+ * PassManager
+ *
+ * Runs the passes of the compiler over a parsed program, in the order they
+ * were added.  standard() gives the passes P6 runs:
+ *
+ *     names      name analysis
+ *     types      type checking
+ *     fold       constant folding (with -O)
+ *     hoist      taking loop invariants out of loops (with -O)
+ *     codegen    code generation
+ *     peephole   the peephole optimizer (with -O)
+ *
+ * each of which runs only if no errors have been reported before it
+ * (except names, which always runs; see Pass.runs).
+ *
+ * A pass can be skipped by its name.  Two passes can be fused: if they
+ * are next to each other in the pipeline (once the skipped ones are left
+ * out), a single pass given for the pair runs in their place, so that,
+ * say, two passes that each walk the whole tree can be done in one walk.
+ * With the -fused option, P6 fuses names and types into the pass given by
+ * analysis().
+ *
+ * With the -time option, the wall time each pass takes and the bytes it
+ * allocates (on JVMs that can count them) are reported as messages, after
+ * the number of nodes in the tree.
+ ****/
+
+public class PassManager {
+    // the names of the standard passes
+    public static final String NAMES = "names";
+    public static final String TYPES = "types";
+    public static final String FOLD = "fold";
+    public static final String HOIST = "hoist";
+    public static final String CODEGEN = "codegen";
+    public static final String PEEPHOLE = "peephole";
+    public static final String ANALYSIS = "names+types";
+
+    private ArrayList<Pass> passes = new ArrayList<Pass>();
+    private HashSet<String> skipped = new HashSet<String>();
+    private ArrayList<Fusion> fusions = new ArrayList<Fusion>();
+
+    /***
+     * Return a manager with the standard passes.
+     ***/
+    public static PassManager standard() {
+        PassManager pm = new PassManager();
+        pm.add(new Pass(NAMES) {
+            public boolean runs(CompilationContext ctx) {
+                return true;
+            }
+
+            public void run(ProgramNode program, CompilationContext ctx) {
+                program.nameAnalysis(ctx);
+            }
+        });
+        pm.add(new Pass(TYPES) {
+            public void run(ProgramNode program, CompilationContext ctx) {
+                program.typeCheck(ctx);
+            }
+        });
+        pm.add(new OptimizePass(FOLD) {
+            public void run(ProgramNode program, CompilationContext ctx) {
+                program.fold(ctx);
+            }
+        });
+        pm.add(new OptimizePass(HOIST) {
+            public void run(ProgramNode program, CompilationContext ctx) {
+                program.hoist(ctx);
+            }
+        });
+        pm.add(new Pass(CODEGEN) {
+            public void run(ProgramNode program, CompilationContext ctx) {
+                program.codeGen(ctx);
+            }
+        });
+        pm.add(new OptimizePass(PEEPHOLE) {
+            public void run(ProgramNode program, CompilationContext ctx) {
+                int before = ctx.code().size();
+                int removed = Peephole.optimize(ctx.code());
+                ctx.message("peephole: " + before + " instructions, " +
+                            removed + " removed, " + (before - removed) +
+                            " left");
+            }
+        });
+        return pm;
+    }
+
+    /***
+     * Return a pass that does name analysis and type checking in one walk
+     * of the tree (see ProgramNode.analyze), to be fused in place of the
+     * names and types passes.  Like names, it always runs.
+     ***/
+    public static Pass analysis() {
+        return new Pass(ANALYSIS) {
+            public boolean runs(CompilationContext ctx) {
+                return true;
+            }
+
+            public void run(ProgramNode program, CompilationContext ctx) {
+                program.analyze(ctx);
+            }
+        };
+    }
+
+    /***
+     * Add a pass at the end of the pipeline.
+     ***/
+    public void add(Pass pass) {
+        passes.add(pass);
+    }
+
+    /***
+     * Leave out the pass with the given name.
+     ***/
+    public void skip(String name) {
+        skipped.add(name);
+    }
+
+    /***
+     * Run pass in place of the passes named first and second whenever the
+     * second comes right after the first.
+     ***/
+    public void fuse(String first, String second, Pass pass) {
+        fusions.add(new Fusion(first, second, pass));
+    }
+
+    /***
+     * Return the passes that will run (if their runs() says so): the ones
+     * not skipped, with the fused pairs replaced.
+     ***/
+    public List<Pass> pipeline() {
+        ArrayList<Pass> list = new ArrayList<Pass>();
+        for (Pass p : passes) {
+            if (!skipped.contains(p.name())) {
+                list.add(p);
+            }
+        }
+        for (Fusion f : fusions) {
+            for (int k = 0; k + 1 < list.size(); k++) {
+                if (list.get(k).name().equals(f.first) &&
+                    list.get(k + 1).name().equals(f.second)) {
+                    list.set(k, f.pass);
+                    list.remove(k + 1);
+                }
+            }
+        }
+        return list;
+    }
+
+    /***
+     * Run the pipeline over the program.
+     ***/
+    public void run(ProgramNode program, CompilationContext ctx) {
+        boolean time = ctx.option(CompilationContext.TIME);
+        if (time) {
+            NodeCounter counter = new NodeCounter();
+            program.accept(counter);
+            ctx.message("time: " + counter.count + " nodes");
+        }
+
+        for (Pass p : pipeline()) {
+            if (!p.runs(ctx)) {
+                continue;
+            }
+            long allocBefore = time ? allocated() : 0;
+            long start = time ? System.nanoTime() : 0;
+            p.run(program, ctx);
+            if (time) {
+                long elapsed = System.nanoTime() - start;
+                long alloc = allocated() - allocBefore;
+                StringBuilder line = new StringBuilder();
+                line.append(String.format("time: %-10s %9.2f ms", p.name(),
+                                          elapsed / 1e6));
+                if (allocBefore >= 0) {
+                    line.append(String.format(" %10d KB", alloc / 1024));
+                }
+                ctx.message(line.toString());
+            }
+        }
+    }
+
+    /***
+     * Return the number of bytes the running thread has allocated, or -1
+     * if the JVM cannot tell (as in ScanBench).
+     ***/
+    private static long allocated() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean b =
+                (com.sun.management.ThreadMXBean)bean;
+            if (b.isThreadAllocatedMemorySupported() &&
+                b.isThreadAllocatedMemoryEnabled()) {
+                return b.getThreadAllocatedBytes(
+                           Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /***
+     * A pass that only runs with -O (and no errors).
+     ***/
+    private static abstract class OptimizePass extends Pass {
+        OptimizePass(String name) {
+            super(name);
+        }
+
+        public boolean runs(CompilationContext ctx) {
+            return super.runs(ctx) &&
+                   ctx.option(CompilationContext.OPTIMIZE);
+        }
+    }
+
+    /***
+     * A pass to run in place of two others.
+     ***/
+    private static class Fusion {
+        String first;
+        String second;
+        Pass pass;
+
+        Fusion(String first, String second, Pass pass) {
+            this.first = first;
+            this.second = second;
+            this.pass = pass;
+        }
+    }
+
+    /***
+     * Counts the nodes of a tree.
+     ***/
+    private static class NodeCounter extends AstVisitor {
+        int count = 0;
+
+        public void visitNode(ASTnode node) {
+            count++;
+            node.visitChildren(this);
+        }
+    }
+}
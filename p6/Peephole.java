@@ -0,0 +1,259 @@
+import java.util.*;
+
+/****
+ * Peephole
+ *
+ * A peephole optimizer for the code in an InstrList.  The code generator
+ * is a stack machine: every expression pushes its value and whoever uses
+ * the value pops it, often right away.  This pass looks at short
+ * straight-line stretches of code and
+ *   - replaces a push of register R1 followed by a pop into register R2
+ *     with "move R2, R1" (or nothing, if R1 and R2 are the same) when the
+ *     code in between does not touch $sp or change R1;
+ *   - folds adjacent adjustments of $sp into one, and removes adjustments
+ *     that add up to nothing (and the store into a slot that is popped
+ *     again without being read);
+ *   - removes an li, la or move whose register is set again before it
+ *     is used.
+ * These are repeated until nothing changes.
+ ****/
+
+public class Peephole {
+    private static final EnumSet<InstrList.Op> WRITES_ARG1 = EnumSet.of(
+        InstrList.Op.LW, InstrList.Op.LA, InstrList.Op.LI, InstrList.Op.MOVE,
+        InstrList.Op.ADDU, InstrList.Op.SUBU, InstrList.Op.ADD,
+        InstrList.Op.SUB, InstrList.Op.MUL, InstrList.Op.DIV,
+        InstrList.Op.NEG, InstrList.Op.NOT, InstrList.Op.AND,
+        InstrList.Op.OR, InstrList.Op.XOR, InstrList.Op.SEQ,
+        InstrList.Op.SNE, InstrList.Op.SLT, InstrList.Op.SLE,
+        InstrList.Op.SGT, InstrList.Op.SGE);
+
+    private InstrList code;
+    private int sp;     // string number of $sp
+
+    private Peephole(InstrList code) {
+        this.code = code;
+        sp = code.string(Codegen.SP);
+    }
+
+    /***
+     * optimize
+     * Optimize the given code; returns the number of instructions removed.
+     ***/
+    public static int optimize(InstrList code) {
+        Peephole opt = new Peephole(code);
+        int before = code.size();
+        boolean changed = true;
+        while (changed) {
+            changed = opt.pushPop();
+            changed = opt.stackAdjustments() || changed;
+            changed = opt.deadWrites() || changed;
+        }
+        return before - code.size();
+    }
+
+    /***
+     * Replace push/pop pairs with moves.  Returns true if anything changed.
+     ***/
+    private boolean pushPop() {
+        boolean changed = false;
+        for (int k = 0; k < code.size(); k++) {
+            if (!isPush(k)) {
+                continue;
+            }
+            int r1 = code.arg1(k);
+            int j = k + 2;
+            while (j < code.size() && !isPop(j) && isSimple(j) &&
+                   !uses(j, sp) && dest(j) != r1) {
+                j++;
+            }
+            if (j < code.size() && isPop(j)) {
+                int r2 = code.arg1(j);
+                code.delete(k);
+                code.delete(k + 1);
+                if (r1 == r2) {
+                    code.delete(j);
+                } else {
+                    code.set(j, InstrList.STR, InstrList.Op.MOVE.ordinal(),
+                             r2, r1, -1, -1, -1);
+                }
+                code.delete(j + 1);
+                changed = true;
+                k = j + 1;
+            }
+        }
+        code.compact();
+        return changed;
+    }
+
+    /***
+     * Fold adjacent adjustments of $sp and remove those that do nothing.
+     * Returns true if anything changed.
+     ***/
+    private boolean stackAdjustments() {
+        boolean changed = false;
+        for (int k = 0; k < code.size(); k++) {
+            if (!isAdjustment(k)) {
+                continue;
+            }
+            int net = amount(k);
+            int last = k;
+            while (last + 1 < code.size() && isAdjustment(last + 1)) {
+                net += amount(++last);
+            }
+            if (last == k && net != 0) {
+                continue;
+            }
+
+            for (int j = k; j <= last; j++) {
+                code.delete(j);
+            }
+            if (net > 0) {
+                code.set(k, InstrList.INT3, InstrList.Op.ADDU.ordinal(),
+                         sp, sp, net, -1, -1);
+            } else if (net < 0) {
+                code.set(k, InstrList.INT3, InstrList.Op.SUBU.ordinal(),
+                         sp, sp, -net, -1, -1);
+            } else if (k > 0 && code.form(k - 1) == InstrList.INDEXED &&
+                       code.is(k - 1, InstrList.Op.SW) &&
+                       code.arg2(k - 1) == sp && code.arg3(k - 1) == 0) {
+                code.delete(k - 1);   // pushed, then popped unread
+            }
+            changed = true;
+            k = last;
+        }
+        code.compact();
+        return changed;
+    }
+
+    /***
+     * Remove li, la and move instructions whose register is set again
+     * before it is used.  Returns true if anything changed.
+     ***/
+    private boolean deadWrites() {
+        boolean changed = false;
+        for (int k = 0; k < code.size(); k++) {
+            if (!code.is(k, InstrList.Op.LI) && !code.is(k, InstrList.Op.LA) &&
+                !code.is(k, InstrList.Op.MOVE)) {
+                continue;
+            }
+            int r = dest(k);
+            int j = k + 1;
+            while (j < code.size() && isSimple(j) && !reads(j, r) &&
+                   dest(j) != r) {
+                j++;
+            }
+            if (j < code.size() && isSimple(j) && !reads(j, r)) {
+                code.delete(k);
+                changed = true;
+            }
+        }
+        code.compact();
+        return changed;
+    }
+
+    /***
+     * Is instruction k the start of a push (sw R, 0($sp); subu $sp, $sp, 4)?
+     ***/
+    private boolean isPush(int k) {
+        return k + 1 < code.size() && code.form(k) == InstrList.INDEXED &&
+               code.is(k, InstrList.Op.SW) && code.arg2(k) == sp &&
+               code.arg3(k) == 0 && code.arg1(k) != sp &&
+               isAdjustment(k + 1) && amount(k + 1) == -4;
+    }
+
+    /***
+     * Is instruction k the start of a pop (lw R, 4($sp); addu $sp, $sp, 4)?
+     ***/
+    private boolean isPop(int k) {
+        return k + 1 < code.size() && code.form(k) == InstrList.INDEXED &&
+               code.is(k, InstrList.Op.LW) && code.arg2(k) == sp &&
+               code.arg3(k) == 4 && code.arg1(k) != sp &&
+               isAdjustment(k + 1) && amount(k + 1) == 4;
+    }
+
+    /***
+     * Is instruction k "addu $sp, $sp, n" or "subu $sp, $sp, n"?
+     ***/
+    private boolean isAdjustment(int k) {
+        return code.form(k) == InstrList.INT3 &&
+               (code.is(k, InstrList.Op.ADDU) || code.is(k, InstrList.Op.SUBU)) &&
+               code.arg1(k) == sp && code.arg2(k) == sp;
+    }
+
+    /***
+     * Return how much adjustment k adds to $sp.
+     ***/
+    private int amount(int k) {
+        return code.is(k, InstrList.Op.ADDU) ? code.arg3(k) : -code.arg3(k);
+    }
+
+    /***
+     * Is instruction k straight-line code whose effect on registers is
+     * known (no label, branch, call, syscall or directive)?
+     ***/
+    private boolean isSimple(int k) {
+        byte f = code.form(k);
+        if (f == InstrList.LABEL || f == InstrList.LABELED) {
+            return false;
+        }
+        if (code.is(k, InstrList.Op.NONE)) {  // a comment on a line of its own
+            return true;
+        }
+        return code.is(k, InstrList.Op.SW) ||
+               (code.op(k) >= 0 &&
+                WRITES_ARG1.contains(InstrList.Op.values()[code.op(k)]));
+    }
+
+    /***
+     * Return the register set by instruction k, or -1.
+     ***/
+    private int dest(int k) {
+        if (code.op(k) < 0 || code.form(k) == InstrList.LABEL ||
+            code.form(k) == InstrList.LABELED) {
+            return -1;
+        }
+        if ((code.is(k, InstrList.Op.MUL) || code.is(k, InstrList.Op.DIV)) &&
+            code.form(k) == InstrList.STR && code.arg3(k) < 0) {
+            return -1;   // mul/div R1, R2 sets hi and lo, not R1
+        }
+        return WRITES_ARG1.contains(InstrList.Op.values()[code.op(k)]) ?
+               code.arg1(k) : -1;
+    }
+
+    /***
+     * Does instruction k name register r (as any operand)?
+     ***/
+    private boolean uses(int k, int r) {
+        switch (code.form(k)) {
+        case InstrList.STR:
+            return code.arg1(k) == r || code.arg2(k) == r || code.arg3(k) == r;
+        case InstrList.INT3:
+        case InstrList.INDEXED:
+            return code.arg1(k) == r || code.arg2(k) == r;
+        case InstrList.INT2:
+        case InstrList.LABELED:
+            return code.arg1(k) == r;
+        default:
+            return false;
+        }
+    }
+
+    /***
+     * Does instruction k read register r?
+     ***/
+    private boolean reads(int k, int r) {
+        if (dest(k) < 0) {
+            return uses(k, r);
+        }
+        switch (code.form(k)) {   // every operand but the first is read
+        case InstrList.STR:
+            return code.arg2(k) == r || code.arg3(k) == r;
+        case InstrList.INT3:
+        case InstrList.INDEXED:
+            return code.arg2(k) == r;
+        default:
+            return false;
+        }
+    }
+}
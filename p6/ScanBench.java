@@ -0,0 +1,273 @@
+import java.io.*;
+import java.lang.management.*;
+import java.nio.*;
+import java.util.*;
+import java_cup.runtime.*;
+
+/****
+ * ScanBench
+ *
+ * Measures how fast the scanners run, so that changes to base.jlex (or to
+ * ByteScanner) can be checked for slowdowns.  A synthetic source of the
+ * given size and kind is made in memory and scanned over and over; after
+ * some warm-up rounds, each measured round prints tokens per second,
+ * bytes per second and the bytes allocated per token.
+ *
+ * Arguments (all optional):
+ *     -size N       size of the source in KB (default 1024)
+ *     -mix M        kind of source (default mixed):
+ *                       ids        mostly identifiers and keywords
+ *                       literals   mostly integer literals
+ *                       comments   mostly comment lines
+ *                       strings    long string literals
+ *                       mixed      statements like a real program
+ *     -scanner S    scanner to run (default yylex):
+ *                       yylex      Yylex.next_token, reading a Reader
+ *                       bytes      ByteScanner.next_token
+ *                       buffer     ByteScanner.fill into a TokenBuffer
+ *                       parallel   ParallelScanner.fill into a TokenBuffer
+ *     -warmup N     rounds before measuring (default 10)
+ *     -rounds N     measured rounds (default 10)
+ *
+ * The allocation rate is only shown on JVMs that can count the bytes a
+ * thread allocates (HotSpot and its relatives).
+ ****/
+
+public class ScanBench {
+    private static final String[] KEYWORDS = {
+        "void", "logical", "integer", "True", "False", "tuple", "read",
+        "write", "if", "else", "while", "return"
+    };
+    private static final String[] OPERATORS = {
+        "{", "}", "(", ")", "[", "]", ":", ",", ".", "<<", ">>", "=", "~",
+        "&", "|", "++", "--", "+", "-", "*", "/", "<", ">", "<=", ">=",
+        "==", "~="
+    };
+
+    public static void main(String[] args) throws Exception {
+        int size = 1024;
+        String mix = "mixed";
+        String scanner = "yylex";
+        int warmup = 10;
+        int rounds = 10;
+        for (int k = 0; k < args.length; k++) {
+            if (k + 1 == args.length) {
+                usage();
+            }
+            if (args[k].equals("-size")) {
+                size = Integer.parseInt(args[++k]);
+            } else if (args[k].equals("-mix")) {
+                mix = args[++k];
+            } else if (args[k].equals("-scanner")) {
+                scanner = args[++k];
+            } else if (args[k].equals("-warmup")) {
+                warmup = Integer.parseInt(args[++k]);
+            } else if (args[k].equals("-rounds")) {
+                rounds = Integer.parseInt(args[++k]);
+            } else {
+                usage();
+            }
+        }
+        if (!scanner.equals("yylex") && !scanner.equals("bytes") &&
+            !scanner.equals("buffer") && !scanner.equals("parallel")) {
+            usage();
+        }
+
+        String source = corpus(mix, size * 1024);
+        char[] chars = source.toCharArray();
+        ByteBuffer bytes = ByteBuffer.allocateDirect(source.length());
+        for (int k = 0; k < chars.length; k++) {
+            bytes.put(k, (byte)chars[k]);
+        }
+
+        System.out.println("scanner " + scanner + ", " + mix + ", " +
+                           source.length() + " bytes");
+        for (int r = 0; r < warmup + rounds; r++) {
+            long allocBefore = allocated();
+            long start = System.nanoTime();
+            int tokens = scan(scanner, chars, bytes);
+            long time = System.nanoTime() - start;
+            long alloc = allocated() - allocBefore;
+            if (r < warmup) {
+                continue;
+            }
+
+            StringBuilder line = new StringBuilder();
+            line.append(String.format("%8d tokens  %8.2f ms  %7.2f Mtok/s" +
+                                      "  %7.2f MB/s", tokens, time / 1e6,
+                                      tokens * 1e3 / time,
+                                      source.length() * 1e3 / time));
+            if (alloc >= 0) {
+                line.append(String.format("  %7.1f B/token",
+                                          (double)alloc / tokens));
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("usage: java ScanBench [-size KB] " +
+                           "[-mix ids|literals|comments|strings|mixed] " +
+                           "[-scanner yylex|bytes|buffer|parallel] " +
+                           "[-warmup N] [-rounds N]");
+        System.exit(-1);
+    }
+
+    /***
+     * Scan the source once with the given scanner; returns the number of
+     * tokens (not counting EOF).
+     ***/
+    private static int scan(String scanner, char[] chars, ByteBuffer bytes)
+        throws Exception
+    {
+        PrintStream nowhere = new PrintStream(new OutputStream() {
+            public void write(int b) { }
+        });
+        CompilationContext ctx = new CompilationContext(nowhere);
+
+        if (scanner.equals("buffer") || scanner.equals("parallel")) {
+            TokenBuffer tokens = new TokenBuffer();
+            if (scanner.equals("parallel")) {
+                ParallelScanner.fill(bytes.duplicate(), tokens, ctx);
+            } else {
+                new ByteScanner(bytes.duplicate(), ctx).fill(tokens);
+            }
+            int n = 0;
+            for (int k = 0; k < tokens.size(); k++) {
+                if (tokens.kind(k) >= 0 && tokens.kind(k) != sym.EOF) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        java_cup.runtime.Scanner s;
+        if (scanner.equals("bytes")) {
+            s = new ByteScanner(bytes.duplicate(), ctx);
+        } else {
+            s = new Yylex(new CharArrayReader(chars), ctx);
+        }
+        int n = 0;
+        while (s.next_token().sym != sym.EOF) {
+            n++;
+        }
+        return n;
+    }
+
+    /***
+     * Return the number of bytes the running thread has allocated, or -1
+     * if the JVM cannot tell.
+     ***/
+    private static long allocated() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean b =
+                (com.sun.management.ThreadMXBean)bean;
+            if (b.isThreadAllocatedMemorySupported() &&
+                b.isThreadAllocatedMemoryEnabled()) {
+                return b.getThreadAllocatedBytes(
+                           Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /***
+     * Return a source of (about) the given size and kind.  The same
+     * arguments always give the same source.
+     ***/
+    private static String corpus(String mix, int size) {
+        Random rand = new Random(536);
+        StringBuilder b = new StringBuilder(size + 200);
+        while (b.length() < size) {
+            if (mix.equals("ids")) {
+                for (int k = 0; k < 8; k++) {
+                    b.append(rand.nextInt(3) == 0 ?
+                             KEYWORDS[rand.nextInt(KEYWORDS.length)] :
+                             identifier(rand));
+                    b.append(rand.nextInt(4) == 0 ? ", " : " ");
+                }
+                b.append(".\n");
+            } else if (mix.equals("literals")) {
+                for (int k = 0; k < 10; k++) {
+                    b.append(rand.nextInt(1 << rand.nextInt(31)));
+                    b.append(' ').append(OPERATORS[rand.nextInt(
+                                                      OPERATORS.length)]);
+                    b.append(' ');
+                }
+                b.append('\n');
+            } else if (mix.equals("comments")) {
+                if (rand.nextInt(5) == 0) {
+                    b.append("    x = x + 1.\n");
+                } else {
+                    b.append(rand.nextBoolean() ? "!! " : "$ ");
+                    for (int k = 0; k < 10; k++) {
+                        b.append(identifier(rand)).append(' ');
+                    }
+                    b.append('\n');
+                }
+            } else if (mix.equals("strings")) {
+                b.append("    write << \"");
+                int len = 40 + rand.nextInt(200);
+                for (int k = 0; k < len; k++) {
+                    if (rand.nextInt(20) == 0) {
+                        b.append('\\').append("nst'\"\\".charAt(
+                                                  rand.nextInt(6)));
+                    } else {
+                        b.append((char)('a' + rand.nextInt(26)));
+                    }
+                }
+                b.append("\".\n");
+            } else if (mix.equals("mixed")) {
+                String x = identifier(rand);
+                switch (rand.nextInt(6)) {
+                case 0:
+                    b.append("    integer ").append(x).append(".\n");
+                    break;
+                case 1:
+                    b.append("    ").append(x).append(" = ")
+                     .append(identifier(rand)).append(" * ")
+                     .append(rand.nextInt(1000)).append(" + ")
+                     .append(identifier(rand)).append(".\n");
+                    break;
+                case 2:
+                    b.append("    if (").append(x).append(" < ")
+                     .append(rand.nextInt(100)).append(" & ~")
+                     .append(identifier(rand)).append(") [\n");
+                    b.append("        write << \"").append(x)
+                     .append(" is small\\n\".\n    ]\n");
+                    break;
+                case 3:
+                    b.append("    while (").append(x).append(" >= 0) [\n");
+                    b.append("        ").append(x).append("--.\n    ]\n");
+                    break;
+                case 4:
+                    b.append("    $ ").append(x).append(" is next\n");
+                    break;
+                default:
+                    b.append("    read >> ").append(x).append(".\n");
+                    break;
+                }
+            } else {
+                usage();
+            }
+        }
+        return b.toString();
+    }
+
+    /***
+     * Return a random identifier.
+     ***/
+    private static String identifier(Random rand) {
+        String letters = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ_";
+        StringBuilder b = new StringBuilder();
+        int len = 1 + rand.nextInt(10);
+        for (int k = 0; k < len; k++) {
+            b.append(letters.charAt(rand.nextInt(letters.length())));
+        }
+        if (rand.nextInt(3) == 0) {
+            b.append(rand.nextInt(100));
+        }
+        return b.toString();
+    }
+}
@@ -1,13 +1,73 @@
 import java.util.*;
 
+/***
+ * The symbol table: a list of scopes, innermost first.  Names are given
+ * by their ids (see NameTable), and each scope is a hash table from ids to
+ * Syms, so a lookup compares ints, not strings.
+ ***/
 public class SymTable {
-	private List<HashMap<String, Sym>> list;
+	/***
+	 * One scope: an open hash table of ids and their Syms.
+	 ***/
+	private static class Scope {
+		private int[] ids = new int[16];	// id + 1 (0 is an empty slot)
+		private Sym[] syms = new Sym[16];
+		private int size = 0;
+
+		Sym get(int id) {
+			int mask = ids.length - 1;
+			for (int k = id & mask; ids[k] != 0; k = (k + 1) & mask) {
+				if (ids[k] == id + 1)
+					return syms[k];
+			}
+			return null;
+		}
+
+		void put(int id, Sym sym) {
+			if (2 * (size + 1) > ids.length)
+				grow();
+			int mask = ids.length - 1;
+			int k = id & mask;	// ids are small and dense
+			while (ids[k] != 0 && ids[k] != id + 1)
+				k = (k + 1) & mask;
+			if (ids[k] == 0)
+				size++;
+			ids[k] = id + 1;
+			syms[k] = sym;
+		}
+
+		private void grow() {
+			int[] oldIds = ids;
+			Sym[] oldSyms = syms;
+			ids = new int[2 * oldIds.length];
+			syms = new Sym[2 * oldIds.length];
+			size = 0;
+			for (int k = 0; k < oldIds.length; k++) {
+				if (oldIds[k] != 0)
+					put(oldIds[k] - 1, oldSyms[k]);
+			}
+		}
+
+		public String toString() {
+			StringBuilder b = new StringBuilder("{");
+			for (int k = 0; k < ids.length; k++) {
+				if (ids[k] != 0) {
+					if (b.length() > 1)
+						b.append(", ");
+					b.append(ids[k] - 1).append('=').append(syms[k]);
+				}
+			}
+			return b.append('}').toString();
+		}
+	}
+
+	private List<Scope> list;
 	private int currOffset;
 	private boolean globalScope;
 	
 	public SymTable() {
-		list = new LinkedList<HashMap<String, Sym>>();
-		list.add(new HashMap<String, Sym>());
+		list = new LinkedList<Scope>();
+		list.add(new Scope());
 		currOffset = 0;
 		globalScope = true;
 	}
@@ -28,40 +88,40 @@ public class SymTable {
 		globalScope = value;
 	}
 
-	public void addDecl(String name, Sym sym) 
+	public void addDecl(int name, Sym sym) 
 	throws DuplicateSymNameException, EmptySymTableException {
-		if (name == null || sym == null)
+		if (name < 0 || sym == null)
 			throw new IllegalArgumentException();
 		
 		if (list.isEmpty())
 			throw new EmptySymTableException();
 		
-		HashMap<String, Sym> symTab = list.get(0);
-		if (symTab.containsKey(name))
+		Scope symTab = list.get(0);
+		if (symTab.get(name) != null)
 			throw new DuplicateSymNameException();
 		
 		symTab.put(name, sym);
 	}
 	
 	public void addScope() {
-		list.add(0, new HashMap<String, Sym>());
+		list.add(0, new Scope());
 	}
 	
-	public Sym lookupLocal(String name) 
+	public Sym lookupLocal(int name) 
 	throws EmptySymTableException {
 		if (list.isEmpty())
 			throw new EmptySymTableException();
 		
-		HashMap<String, Sym> symTab = list.get(0); 
+		Scope symTab = list.get(0); 
 		return symTab.get(name);
 	}
 
-	public Sym lookupGlobal(String name) 
+	public Sym lookupGlobal(int name) 
 	throws EmptySymTableException {
 		if (list.isEmpty())
 			throw new EmptySymTableException();
 		
-		for (HashMap<String, Sym> symTab : list) {
+		for (Scope symTab : list) {
 			Sym sym = symTab.get(name);
 			if (sym != null)
 				return sym;
@@ -78,7 +138,7 @@ public class SymTable {
 
 	public void print() {
 		System.out.print("\n++++ SYMBOL TABLE\n");
-		for (HashMap<String, Sym> symTab : list) {
+		for (Scope symTab : list) {
 			System.out.println(symTab.toString());
 		}
 		System.out.println("\n++++ END TABLE");
@@ -0,0 +1,266 @@
+import java.util.*;
+import java_cup.runtime.*;
+
+/****
+ * TokenBuffer
+ *
+ * The tokens of a whole source file, scanned before parsing starts (see
+ * ByteScanner.fill).  No object is made per token: each token is one index
+ * into a set of parallel arrays:
+ *     kind    the token kind (a sym constant), or ERROR or WARNING for a
+ *             message the scanner gave at that point
+ *     line, col
+ *             the line and character number of the token
+ *     start, length
+ *             where the token is in the source
+ *     value   the value of an INTLITERAL, the id of an ID (see NameTable);
+ *             for a STRLITERAL or a message, the number of its text in
+ *             the literal table
+ * The literal table holds each different text once.
+ *
+ * The parser reads the tokens through scanner(), which makes the Symbol
+ * (and TokenVal) for a token only when the parser asks for it, and gives
+ * the messages to the compilation context when it passes them, so they
+ * are printed in the same order as when the parser drives the scanner.
+ * The last token is always EOF.
+ ****/
+
+public class TokenBuffer {
+    // kinds for the messages
+    public static final int ERROR = -1;
+    public static final int WARNING = -2;
+
+    // the tokens
+    private int[] kind = new int[1024];
+    private int[] line = new int[1024];
+    private int[] col = new int[1024];
+    private int[] start = new int[1024];
+    private int[] length = new int[1024];
+    private int[] value = new int[1024];
+    private int size = 0;
+
+    // the literal table
+    private ArrayList<String> literals;
+    private HashMap<String, Integer> literalNums;
+
+    public TokenBuffer() {
+        literals = new ArrayList<String>();
+        literalNums = new HashMap<String, Integer>();
+    }
+
+    // an empty buffer that shares the literal table of other
+    private TokenBuffer(TokenBuffer other) {
+        literals = other.literals;
+        literalNums = other.literalNums;
+    }
+
+    /***
+     * Return a new, empty buffer with the same literal table as this one
+     * (so its tokens can be moved into this one, see replace).
+     ***/
+    public TokenBuffer sharingLiterals() {
+        return new TokenBuffer(this);
+    }
+
+    /***
+     * Return the number of tokens (and messages).
+     ***/
+    public int size() {
+        return size;
+    }
+
+    /***
+     * Append a token; returns its index.
+     ***/
+    public int add(int k, int ln, int cn, int st, int len, int val) {
+        if (size == kind.length) {
+            grow(2 * size);
+        }
+        kind[size] = k;
+        line[size] = ln;
+        col[size] = cn;
+        start[size] = st;
+        length[size] = len;
+        value[size] = val;
+        return size++;
+    }
+
+    private void grow(int n) {
+        kind = Arrays.copyOf(kind, n);
+        line = Arrays.copyOf(line, n);
+        col = Arrays.copyOf(col, n);
+        start = Arrays.copyOf(start, n);
+        length = Arrays.copyOf(length, n);
+        value = Arrays.copyOf(value, n);
+    }
+
+    /***
+     * Remove the tokens from index n on.
+     ***/
+    public void truncate(int n) {
+        size = n;
+    }
+
+    /***
+     * Replace tokens from..to-1 with all of the tokens of src, which must
+     * share the literal table of this buffer.
+     ***/
+    public void replace(int from, int to, TokenBuffer src) {
+        int newSize = size - (to - from) + src.size;
+        if (newSize > kind.length) {
+            grow(Math.max(newSize, 2 * kind.length));
+        }
+        if (to != from + src.size) {
+            move(to, from + src.size, size - to);
+        }
+        System.arraycopy(src.kind, 0, kind, from, src.size);
+        System.arraycopy(src.line, 0, line, from, src.size);
+        System.arraycopy(src.col, 0, col, from, src.size);
+        System.arraycopy(src.start, 0, start, from, src.size);
+        System.arraycopy(src.length, 0, length, from, src.size);
+        System.arraycopy(src.value, 0, value, from, src.size);
+        size = newSize;
+    }
+
+    // move n tokens from index from to index to
+    private void move(int from, int to, int n) {
+        System.arraycopy(kind, from, kind, to, n);
+        System.arraycopy(line, from, line, to, n);
+        System.arraycopy(col, from, col, to, n);
+        System.arraycopy(start, from, start, to, n);
+        System.arraycopy(length, from, length, to, n);
+        System.arraycopy(value, from, value, to, n);
+    }
+
+    /***
+     * Add startDelta to the start and lineDelta to the line of every token
+     * from index from on (after the source before them has changed).
+     ***/
+    public void shift(int from, int startDelta, int lineDelta) {
+        for (int k = from; k < size; k++) {
+            start[k] += startDelta;
+            line[k] += lineDelta;
+        }
+    }
+
+    /***
+     * Append the first n tokens of src, which has a literal table (and
+     * NameTable) of its own: lineDelta is added to their lines, the id of
+     * each ID is changed to ids[id], and texts are added to the literal
+     * table of this buffer.
+     ***/
+    public void append(TokenBuffer src, int n, int lineDelta, int[] ids) {
+        if (size + n > kind.length) {
+            grow(Math.max(size + n, 2 * kind.length));
+        }
+        System.arraycopy(src.kind, 0, kind, size, n);
+        System.arraycopy(src.col, 0, col, size, n);
+        System.arraycopy(src.start, 0, start, size, n);
+        System.arraycopy(src.length, 0, length, size, n);
+        for (int k = 0; k < n; k++) {
+            line[size + k] = src.line[k] + lineDelta;
+            int val = src.value[k];
+            switch (src.kind[k]) {
+            case sym.ID:
+                val = ids[val];
+                break;
+            case sym.STRLITERAL:
+            case ERROR:
+            case WARNING:
+                val = literal(src.literal(val));
+                break;
+            }
+            value[size + k] = val;
+        }
+        size += n;
+    }
+
+    /***
+     * Return the number of the given text in the literal table, adding it
+     * if it is new.
+     ***/
+    public int literal(String s) {
+        Integer k = literalNums.get(s);
+        if (k == null) {
+            k = literals.size();
+            literals.add(s);
+            literalNums.put(s, k);
+        }
+        return k;
+    }
+
+    /***
+     * Return text k of the literal table.
+     ***/
+    public String literal(int k) {
+        return literals.get(k);
+    }
+
+    /***
+     * Remove all of the tokens, so the buffer can be filled again (the
+     * literal table is kept, since it may be shared).
+     ***/
+    public void clear() {
+        size = 0;
+    }
+
+    // access to token k
+    public int kind(int k) { return kind[k]; }
+    public int line(int k) { return line[k]; }
+    public int col(int k) { return col[k]; }
+    public int start(int k) { return start[k]; }
+    public int length(int k) { return length[k]; }
+    public int value(int k) { return value[k]; }
+
+    /***
+     * Return a scanner that returns the tokens in order to the parser; the
+     * messages are reported to ctx.
+     ***/
+    public java_cup.runtime.Scanner scanner(CompilationContext ctx) {
+        return new Cursor(ctx);
+    }
+
+    private class Cursor implements java_cup.runtime.Scanner {
+        private int next = 0;           // the next token
+        private CompilationContext ctx;
+
+        Cursor(CompilationContext ctx) {
+            this.ctx = ctx;
+        }
+
+        public Symbol next_token() {
+            while (next < size) {
+                int k = next;
+                switch (kind[k]) {
+                case ERROR:
+                    ctx.fatal(line[k], col[k], literal(value[k]));
+                    next++;
+                    break;
+                case WARNING:
+                    ctx.warn(line[k], col[k], literal(value[k]));
+                    next++;
+                    break;
+                case sym.EOF:
+                    return new Symbol(sym.EOF);   // stays at the end
+                case sym.ID:
+                    next++;
+                    return new Symbol(sym.ID,
+                        new IdTokenVal(line[k], col[k],
+                                       ctx.names().name(value[k]), value[k]));
+                case sym.STRLITERAL:
+                    next++;
+                    return new Symbol(sym.STRLITERAL,
+                        new StrLitTokenVal(line[k], col[k], literal(value[k])));
+                case sym.INTLITERAL:
+                    next++;
+                    return new Symbol(sym.INTLITERAL,
+                        new IntLitTokenVal(line[k], col[k], value[k]));
+                default:
+                    next++;
+                    return new Symbol(kind[k], new TokenVal(line[k], col[k]));
+                }
+            }
+            return new Symbol(sym.EOF);
+        }
+    }
+}
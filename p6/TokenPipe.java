@@ -0,0 +1,237 @@
+import java_cup.runtime.*;
+
+/****
+ * TokenPipe
+ *
+ * Runs a scanner on a thread of its own, ahead of the parser, so that
+ * reading and scanning the source overlap with parsing it (the -pipeline
+ * option).  The scanner thread puts its tokens into a ring buffer of
+ * fixed size, and the parser takes them out through next_token.
+ *
+ * The ring has exactly one writer (the scanner thread) and one reader
+ * (the parser), so it needs no locks: the writer only moves tail and the
+ * reader only moves head, and each is a volatile counter that is written
+ * after the slots it covers.  Each side also keeps a copy of the other's
+ * counter and reads the real one only when the copy says the ring is full
+ * (or empty), so most tokens pass without touching the other thread's
+ * cache line.  A side that has to wait spins briefly, then yields.
+ *
+ * The scanner reports its errors and warnings to a context of the pipe's
+ * own, which puts them in the ring like tokens.  The parser's side reports
+ * them to the real context when it reaches them, so they are printed in
+ * the same order, and only as far as the parse gets, as without the pipe.
+ * A Throwable thrown by the scanner is passed along the same way and
+ * thrown again by next_token.
+ ****/
+
+public class TokenPipe implements java_cup.runtime.Scanner {
+    private static final int SIZE = 1024;   // slots in the ring (a power
+                                            // of 2)
+    private static final int SPINS = 100;   // wait this many times before
+                                            // yielding
+
+    private final Object[] ring = new Object[SIZE];
+    private volatile long head = 0;     // slots taken by the reader
+    private volatile long tail = 0;     // slots filled by the writer
+    private volatile boolean closed = false;
+
+    private long tailSeen = 0;          // the reader's copy of tail
+    private long headSeen = 0;          // the writer's copy of head
+
+    private java_cup.runtime.Scanner source;
+    private CompilationContext ctx;     // where messages are reported
+    private Recorder recorder;          // where the scanner reports them
+    private Thread thread;
+    private boolean atEnd = false;      // has the reader taken EOF?
+
+    /***
+     * Make a pipe whose messages are reported to ctx.  The scanner to run
+     * must be made with scannerContext() as its context (see P6.compile),
+     * then given to start.
+     ***/
+    public TokenPipe(CompilationContext ctx) {
+        this.ctx = ctx;
+        recorder = new Recorder();
+    }
+
+    /***
+     * Return the context the scanner must be made with.
+     ***/
+    public CompilationContext scannerContext() {
+        return recorder;
+    }
+
+    /***
+     * Start running source on the scanner thread.
+     ***/
+    public void start(java_cup.runtime.Scanner source) {
+        this.source = source;
+        thread = new Thread(new Runnable() {
+            public void run() {
+                produce();
+            }
+        }, "scanner");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /***
+     * Stop the scanner thread (if it is not done yet) and wait for it.
+     ***/
+    public void close() {
+        closed = true;
+        if (thread != null) {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /***
+     * next_token
+     * Return the next token from the scanner thread, first reporting the
+     * messages that come before it.
+     ***/
+    public Symbol next_token() throws Exception {
+        while (!atEnd) {
+            Object o = take();
+            if (o instanceof Symbol) {
+                Symbol s = (Symbol)o;
+                if (s.sym == sym.EOF) {
+                    atEnd = true;
+                }
+                return s;
+            } else if (o instanceof Message) {
+                Message m = (Message)o;
+                if (m.error) {
+                    ctx.fatal(m.lineNum, m.charNum, m.msg);
+                } else {
+                    ctx.warn(m.lineNum, m.charNum, m.msg);
+                }
+            } else if (o instanceof Error) {
+                atEnd = true;
+                throw (Error)o;
+            } else {
+                atEnd = true;
+                throw (Exception)o;
+            }
+        }
+        return new Symbol(sym.EOF);     // stays at the end
+    }
+
+    /***
+     * The body of the scanner thread: scan up to EOF (or a Throwable),
+     * unless the pipe is closed first.
+     ***/
+    private void produce() {
+        try {
+            while (!closed) {
+                Symbol s = source.next_token();
+                if (!put(s) || s.sym == sym.EOF) {
+                    return;
+                }
+            }
+        } catch (Throwable ex) {
+            put(ex);
+        }
+    }
+
+    /***
+     * Add o to the ring, waiting while it is full; returns false if the
+     * pipe was closed instead.
+     ***/
+    private boolean put(Object o) {
+        long t = tail;
+        int spins = 0;
+        while (t - headSeen == SIZE) {
+            headSeen = head;
+            if (t - headSeen < SIZE) {
+                break;
+            }
+            if (closed) {
+                return false;
+            }
+            spins = pause(spins);
+        }
+        ring[(int)t & (SIZE - 1)] = o;
+        tail = t + 1;
+        return true;
+    }
+
+    /***
+     * Remove the next object from the ring, waiting while it is empty.
+     ***/
+    private Object take() {
+        long h = head;
+        int spins = 0;
+        while (h == tailSeen) {
+            tailSeen = tail;
+            if (h < tailSeen) {
+                break;
+            }
+            spins = pause(spins);
+        }
+        int k = (int)h & (SIZE - 1);
+        Object o = ring[k];
+        ring[k] = null;
+        head = h + 1;
+        return o;
+    }
+
+    private static int pause(int spins) {
+        if (spins < SPINS) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+        return spins + 1;
+    }
+
+    /***
+     * An error or warning from the scanner.
+     ***/
+    private static class Message {
+        boolean error;
+        int lineNum;
+        int charNum;
+        String msg;
+
+        Message(boolean error, int lineNum, int charNum, String msg) {
+            this.error = error;
+            this.lineNum = lineNum;
+            this.charNum = charNum;
+            this.msg = msg;
+        }
+    }
+
+    /***
+     * The context the scanner reports to: its messages go into the ring,
+     * and it shares the names of the real context.
+     ***/
+    private class Recorder extends CompilationContext {
+        Recorder() {
+            super(null);
+        }
+
+        void fatal(int lineNum, int charNum, String msg) {
+            put(new Message(true, lineNum, charNum, msg));
+        }
+
+        void warn(int lineNum, int charNum, String msg) {
+            put(new Message(false, lineNum, charNum, msg));
+        }
+
+        public NameTable names() {
+            return ctx.names();
+        }
+    }
+}
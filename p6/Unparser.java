@@ -0,0 +1,335 @@
+import java.io.*;
+
+/****
+ * Unparser
+ *
+ * Writes a tree (see ast.java) back out as source, one declaration or
+ * statement per line, with every expression fully parenthesized and each
+ * ID followed by its symbol once name analysis has linked it; this is
+ * what ASTnode.unparse does.
+ *
+ * indent is the number of spaces a declaration or statement starts with;
+ * a list, the program and a function body pass it on to their children,
+ * and the bodies of functions, tuples, ifs and whiles are written 4
+ * further in.  An AssignExpNode visited with indent -1 is the whole of an
+ * assignment statement, and has no parentheses.
+ ****/
+
+public class Unparser extends AstVisitor {
+    private PrintWriter p;
+    private int indent;
+
+    public Unparser(PrintWriter p, int indent) {
+        this.p = p;
+        this.indent = indent;
+    }
+
+    /***
+     * Write node with the given indent.
+     ***/
+    private void unparse(ASTnode node, int indent) {
+        int outer = this.indent;
+        this.indent = indent;
+        node.accept(this);
+        this.indent = outer;
+    }
+
+    private void doIndent() {
+        for (int k=0; k<indent; k++) p.print(" ");
+    }
+
+    // lists and the program (the program, DeclListNode, StmtListNode and
+    // FctnBodyNode just visit their children, with the same indent)
+
+    public void visit(ExpListNode node) {
+        for (int k = 0; k < node.size(); k++) {
+            if (k > 0) {
+                p.print(", ");
+            }
+            unparse(node.exp(k), indent);
+        }
+    }
+
+    public void visit(FormalsListNode node) {
+        for (int k = 0; k < node.length(); k++) {
+            if (k > 0) {
+                p.print(", ");
+            }
+            unparse(node.formal(k), indent);
+        }
+    }
+
+
+    // declarations
+
+    public void visit(VarDeclNode node) {
+        doIndent();
+        unparse(node.typeNode(), 0);
+        p.print(" ");
+        unparse(node.idNode(), 0);
+        p.println(".");
+    }
+
+    public void visit(FctnDeclNode node) {
+        doIndent();
+        unparse(node.typeNode(), 0);
+        p.print(" ");
+        unparse(node.idNode(), 0);
+        p.print("{");
+        unparse(node.formalsList(), 0);
+        p.println("} [");
+        unparse(node.body(), indent+4);
+        p.println("]\n");
+    }
+
+    public void visit(FormalDeclNode node) {
+        unparse(node.typeNode(), 0);
+        p.print(" ");
+        unparse(node.idNode(), 0);
+    }
+
+    public void visit(TupleDeclNode node) {
+        doIndent();
+        p.print("tuple ");
+        unparse(node.idNode(), 0);
+        p.println(" {");
+        unparse(node.declList(), indent+4);
+        doIndent();
+        p.println("}.\n");
+    }
+
+
+    // types
+
+    public void visit(LogicalNode node) {
+        p.print("logical");
+    }
+
+    public void visit(IntegerNode node) {
+        p.print("integer");
+    }
+
+    public void visit(VoidNode node) {
+        p.print("void");
+    }
+
+    public void visit(TupleNode node) {
+        p.print("tuple ");
+        p.print(node.idNode().name());
+    }
+
+
+    // statements
+
+    public void visit(AssignStmtNode node) {
+        doIndent();
+        unparse(node.assign(), -1);
+        p.println(".");
+    }
+
+    public void visit(PostIncStmtNode node) {
+        doIndent();
+        unparse(node.exp(), 0);
+        p.println("++.");
+    }
+
+    public void visit(PostDecStmtNode node) {
+        doIndent();
+        unparse(node.exp(), 0);
+        p.println("--.");
+    }
+
+    public void visit(IfStmtNode node) {
+        doIndent();
+        p.print("if ");
+        unparse(node.exp(), 0);
+        p.println(" [");
+        unparse(node.declList(), indent+4);
+        unparse(node.stmtList(), indent+4);
+        doIndent();
+        p.println("]");
+    }
+
+    public void visit(IfElseStmtNode node) {
+        doIndent();
+        p.print("if ");
+        unparse(node.exp(), 0);
+        p.println(" [");
+        unparse(node.thenDeclList(), indent+4);
+        unparse(node.thenStmtList(), indent+4);
+        doIndent();
+        p.println("]");
+        doIndent();
+        p.println("else [");
+        unparse(node.elseDeclList(), indent+4);
+        unparse(node.elseStmtList(), indent+4);
+        doIndent();
+        p.println("]");
+    }
+
+    public void visit(WhileStmtNode node) {
+        doIndent();
+        p.print("while ");
+        unparse(node.exp(), 0);
+        p.println(" [");
+        unparse(node.declList(), indent+4);
+        unparse(node.stmtList(), indent+4);
+        doIndent();
+        p.println("]");
+    }
+
+    public void visit(ReadStmtNode node) {
+        doIndent();
+        p.print("read >> ");
+        unparse(node.exp(), 0);
+        p.println(".");
+    }
+
+    public void visit(WriteStmtNode node) {
+        doIndent();
+        p.print("write << ");
+        unparse(node.exp(), 0);
+        p.println(".");
+    }
+
+    public void visit(CallStmtNode node) {
+        doIndent();
+        unparse(node.call(), 0);
+        p.println(".");
+    }
+
+    public void visit(ReturnStmtNode node) {
+        doIndent();
+        p.print("return");
+        if (node.exp() != null) {
+            p.print(" ");
+            unparse(node.exp(), 0);
+        }
+        p.println(".");
+    }
+
+
+    // expressions
+
+    public void visit(TrueNode node) {
+        p.print("True");
+    }
+
+    public void visit(FalseNode node) {
+        p.print("False");
+    }
+
+    public void visit(IdNode node) {
+        p.print(node.name());
+        if (node.sym() != null) {
+            p.print("<" + node.sym() + ">");
+        }
+    }
+
+    public void visit(IntLitNode node) {
+        p.print(node.intVal());
+    }
+
+    public void visit(StrLitNode node) {
+        p.print(node.strVal());
+    }
+
+    public void visit(TupleAccessNode node) {
+        p.print("(");
+        unparse(node.loc(), 0);
+        p.print("):");
+        unparse(node.idNode(), 0);
+    }
+
+    public void visit(AssignExpNode node) {
+        if (indent != -1)  p.print("(");
+        unparse(node.lhs(), 0);
+        p.print(" = ");
+        unparse(node.exp(), 0);
+        if (indent != -1)  p.print(")");
+    }
+
+    public void visit(CallExpNode node) {
+        unparse(node.idNode(), 0);
+        p.print("(");
+        if (node.expList() != null) {
+            unparse(node.expList(), 0);
+        }
+        p.print(")");
+    }
+
+    public void visit(HoistedExpNode node) {
+        unparse(node.exp(), indent);
+    }
+
+    public void visit(NotNode node) {
+        p.print("(~");
+        unparse(node.exp(), 0);
+        p.print(")");
+    }
+
+    public void visit(UnaryMinusNode node) {
+        p.print("(-");
+        unparse(node.exp(), 0);
+        p.print(")");
+    }
+
+    public void visit(PlusNode node) {
+        binary(node, "+");
+    }
+
+    public void visit(MinusNode node) {
+        binary(node, "-");
+    }
+
+    public void visit(TimesNode node) {
+        binary(node, "*");
+    }
+
+    public void visit(DivideNode node) {
+        binary(node, "/");
+    }
+
+    public void visit(EqualsNode node) {
+        binary(node, "==");
+    }
+
+    public void visit(NotEqualsNode node) {
+        binary(node, "~=");
+    }
+
+    public void visit(GreaterNode node) {
+        binary(node, ">");
+    }
+
+    public void visit(GreaterEqNode node) {
+        binary(node, ">=");
+    }
+
+    public void visit(LessNode node) {
+        binary(node, "<");
+    }
+
+    public void visit(LessEqNode node) {
+        binary(node, "<=");
+    }
+
+    public void visit(AndNode node) {
+        binary(node, "&");
+    }
+
+    public void visit(OrNode node) {
+        binary(node, "|");
+    }
+
+    /***
+     * Write a binary expression with the given operator.
+     ***/
+    private void binary(BinaryExpNode node, String op) {
+        p.print("(");
+        unparse(node.exp1(), 0);
+        p.print(" " + op + " ");
+        unparse(node.exp2(), 0);
+        p.print(")");
+    }
+}
@@ -6,7 +6,7 @@ import java.util.*;
 // represents a base program.
 //
 // Internal nodes of the tree contain pointers to children, organized
-// either in a list (for nodes that may have a variable number of 
+// either in an array (for nodes that may have a variable number of 
 // children) or as a fixed set of fields.
 //
 // The nodes for literals and identifiers contain line and character 
@@ -21,16 +21,16 @@ import java.util.*;
 //     Subclass              Children
 //     --------              --------
 //     ProgramNode           DeclListNode
-//     DeclListNode          linked list of DeclNode
+//     DeclListNode          array of DeclNode
 //     DeclNode:
 //       VarDeclNode         TypeNode, IdNode, int
 //       FctnDeclNode        TypeNode, IdNode, FormalsListNode, FctnBodyNode
 //       FormalDeclNode      TypeNode, IdNode
 //       TupleDeclNode       IdNode, DeclListNode
 //
-//     StmtListNode          linked list of StmtNode
-//     ExpListNode           linked list of ExpNode
-//     FormalsListNode       linked list of FormalDeclNode
+//     StmtListNode          array of StmtNode
+//     ExpListNode           array of ExpNode
+//     FormalsListNode       array of FormalDeclNode
 //     FctnBodyNode          DeclListNode, StmtListNode
 //
 //     TypeNode:
@@ -61,6 +61,7 @@ import java.util.*;
 //       TupleAccessNode     ExpNode, IdNode
 //       AssignExpNode       ExpNode, ExpNode
 //       CallExpNode         IdNode, ExpListNode
+//       HoistedExpNode      ExpNode
 //       UnaryExpNode        ExpNode
 //         UnaryMinusNode
 //         NotNode
@@ -79,14 +80,14 @@ import java.util.*;
 //         OrNode
 //
 // Here are the different kinds of AST nodes again, organized according to
-// whether they are leaves, internal nodes with linked lists of children, 
+// whether they are leaves, internal nodes with arrays of children, 
 // or internal nodes with a fixed number of children:
 //
 // (1) Leaf nodes:
 //        LogicalNode,  IntegerNode,  VoidNode,    IdNode,  
 //        TrueNode,     FalseNode,    IntLitNode,  StrLitNode
 //
-// (2) Internal nodes with (possibly empty) linked lists of children:
+// (2) Internal nodes with (possibly empty) arrays of children:
 //        DeclListNode, StmtListNode, ExpListNode, FormalsListNode
 //
 // (3) Internal nodes with fixed numbers of children:
@@ -95,6 +96,7 @@ import java.util.*;
 //        PostIncStmtNode, PostDecStmtNode, IfStmtNode,    IfElseStmtNode,
 //        WhileStmtNode,   ReadStmtNode,    WriteStmtNode, CallStmtNode,
 //        ReturnStmtNode,  TupleAccessNode, AssignExpNode, CallExpNode,
+//        HoistedExpNode,
 //        UnaryExpNode,    UnaryMinusNode,  NotNode,       BinaryExpNode,   
 //        PlusNode,        MinusNode,       TimesNode,     DivideNode,
 //        EqualsNode,      NotEqualsNode,   LessNode,      LessEqNode,
@@ -107,13 +109,22 @@ import java.util.*;
 // **********************************************************************
 
 abstract class ASTnode { 
-    // every subclass must provide an unparse operation
-    abstract public void unparse(PrintWriter p, int indent);
-
-    // this method can be used by the unparse methods to do indenting
-    protected void doIndent(PrintWriter p, int indent) {
-        for (int k=0; k<indent; k++) p.print(" ");
+    // write this node (and its children) out as source, indented by indent
+    // spaces (see Unparser)
+    public void unparse(PrintWriter p, int indent) {
+        accept(new Unparser(p, indent));
     }
+
+    // every subclass must take a visitor (see AstVisitor): accept calls
+    // the visit method for its class, and visitChildren calls accept on
+    // each of its children, in order
+    abstract public void accept(AstVisitor v);
+
+    public void visitChildren(AstVisitor v) { }
+
+    // every subclass must also add itself (and its children) to a FlatAst,
+    // returning its number there (see FlatAst)
+    abstract public int flatten(FlatAst flat);
 }
 
 // **********************************************************************
@@ -130,42 +141,134 @@ class ProgramNode extends ASTnode {
      * nameAnalysis
      * Creates an empty symbol table for the outermost scope, then processes
      * all of the globals, tuple defintions, and functions in the program.
+     * Errors are reported to the given compilation context.
      ***/
-    public void nameAnalysis() {
-        SymTable symTab = new SymTable();
-        myDeclList.nameAnalysis(symTab);
-        if (noMain) {
-            ErrMsg.fatal(0, 0, "No main function");
+    public void nameAnalysis(CompilationContext ctx) {
+        CompilationContext outer = ctx.enter();
+        try {
+            SymTable symTab = new SymTable();
+            myDeclList.nameAnalysis(symTab);
+            if (!(symTab.lookupLocal(NameTable.MAIN) instanceof FctnSym)) {
+                ErrMsg.fatal(0, 0, "No main function");
+            }
+        } catch (EmptySymTableException ex) {
+            System.err.println("Unexpected EmptySymTableException " +
+                               " in ProgramNode.nameAnalysis");
+            System.exit(-1);
+        } finally {
+            ctx.leave(outer);
+        }
+    }
+	
+    /***
+     * analyze
+     * Name analysis and type checking in a single walk of the tree: each
+     * declaration, statement and expression is type checked right after
+     * its names are analyzed.  The diagnostics are the same, in the same
+     * order, as those of nameAnalysis followed by typeCheck (which is only
+     * done if there were no errors before it): the type errors are held
+     * until the end, and dropped if any other error has been reported (see
+     * CompilationContext.typeError).
+     ***/
+    public void analyze(CompilationContext ctx) {
+        CompilationContext outer = ctx.enter();
+        ctx.holdTypeErrors();
+        try {
+            SymTable symTab = new SymTable();
+            myDeclList.analyze(symTab);
+            if (!(symTab.lookupLocal(NameTable.MAIN) instanceof FctnSym)) {
+                ErrMsg.fatal(0, 0, "No main function");
+            }
+        } catch (EmptySymTableException ex) {
+            System.err.println("Unexpected EmptySymTableException " +
+                               " in ProgramNode.analyze");
+            System.exit(-1);
+        } finally {
+            ctx.releaseTypeErrors();
+            ctx.leave(outer);
         }
     }
 	
     /***
      * typeCheck
+     * Errors are reported to the given compilation context.
      ***/
-    public void typeCheck() {
-        myDeclList.typeCheck();
+    public void typeCheck(CompilationContext ctx) {
+        CompilationContext outer = ctx.enter();
+        try {
+            myDeclList.typeCheck();
+        } finally {
+            ctx.leave(outer);
+        }
     }
 	
+    /***
+     * fold
+     * Constant folding (see ExpNode.fold and StmtNode.fold), done after
+     * type checking and before code generation.
+     ***/
+    public void fold(CompilationContext ctx) {
+        CompilationContext outer = ctx.enter();
+        try {
+            myDeclList.fold();
+        } finally {
+            ctx.leave(outer);
+        }
+    }
+
+    /***
+     * hoist
+     * Take loop-invariant expressions out of while loops (see
+     * LoopInvariants), done before code generation.
+     ***/
+    public void hoist(CompilationContext ctx) {
+        CompilationContext outer = ctx.enter();
+        try {
+            myDeclList.hoist();
+        } finally {
+            ctx.leave(outer);
+        }
+    }
+
     /***
      * codeGen
+     * Code is written to the output of the given compilation context.
      ***/
-    public void codeGen() {
-        myDeclList.codeGen();
+    public void codeGen(CompilationContext ctx) {
+        CompilationContext outer = ctx.enter();
+        try {
+            myDeclList.codeGen();
+        } finally {
+            ctx.leave(outer);
+        }
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        myDeclList.unparse(p, indent);
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myDeclList.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myDeclList.flatten(flat));
+        return flat.node(FlatAst.PROGRAM, mark);
+    }
+
+    // the children (see Unparser)
+    public DeclListNode declList() {
+        return myDeclList;
     }
 
     // 1 child
     private DeclListNode myDeclList;
-
-    public static boolean noMain = true; 
 }
 
 class DeclListNode extends ASTnode {
     public DeclListNode(List<DeclNode> S) {
-        myDecls = S;
+        myDecls = S.toArray(new DeclNode[S.size()]);
     }
 
     /***
@@ -201,6 +304,33 @@ class DeclListNode extends ASTnode {
         }
     }
 
+    /***
+     * analyze
+     ***/
+    public void analyze(SymTable symTab) {
+        for (DeclNode node : myDecls) {
+            node.analyze(symTab);
+        }
+    }
+
+    /***
+     * fold
+     ***/
+    public void fold() {
+        for (DeclNode node : myDecls) {
+            node.fold();
+        }
+    }
+
+    /***
+     * hoist
+     ***/
+    public void hoist() {
+        for (DeclNode node : myDecls) {
+            node.hoist();
+        }
+    }
+
     /***
      * codeGen
      ***/
@@ -210,25 +340,31 @@ class DeclListNode extends ASTnode {
         }
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        Iterator it = myDecls.iterator();
-        try {
-            while (it.hasNext()) {
-                ((DeclNode)it.next()).unparse(p, indent);
-            }
-        } catch (NoSuchElementException ex) {
-            System.err.println("unexpected NoSuchElementException in DeclListNode.print");
-            System.exit(-1);
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        for (int k = 0; k < myDecls.length; k++) {
+            myDecls[k].accept(v);
         }
     }
 
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        for (int k = 0; k < myDecls.length; k++) {
+            flat.push(myDecls[k].flatten(flat));
+        }
+        return flat.node(FlatAst.DECL_LIST, mark);
+    }
+
     // list of children (DeclNodes)
-    private List<DeclNode> myDecls;
+    private DeclNode[] myDecls;
 }
 
 class StmtListNode extends ASTnode {
     public StmtListNode(List<StmtNode> S) {
-        myStmts = S;
+        myStmts = S.toArray(new StmtNode[S.size()]);
     }
 
     /***
@@ -250,30 +386,97 @@ class StmtListNode extends ASTnode {
         }
     }
 
+    /***
+     * analyze
+     ***/
+    public void analyze(SymTable symTab, Type retType) {
+        for (StmtNode node : myStmts) {
+            node.analyze(symTab, retType);
+        }
+    }
+
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        for (StmtNode node : myStmts) {
+            node.countAssigns(env);
+        }
+    }
+
+    /***
+     * fold
+     * Fold each statement in the list, replacing the list by what is left.
+     ***/
+    public void fold(ConstEnv env) {
+        List<StmtNode> folded = new ArrayList<StmtNode>(myStmts.length);
+        fold(env, folded);
+        myStmts = folded.toArray(new StmtNode[folded.size()]);
+    }
+
+    /***
+     * fold
+     * Fold each statement in the list, adding what is left to out.
+     ***/
+    public void fold(ConstEnv env, List<StmtNode> out) {
+        for (StmtNode node : myStmts) {
+            node.fold(env, out);
+        }
+    }
+
+    /***
+     * hoistLoops
+     ***/
+    public void hoistLoops(FctnSym fctn) {
+        for (StmtNode node : myStmts) {
+            node.hoistLoops(fctn);
+        }
+    }
+
+    /***
+     * hoistFrom
+     ***/
+    public void hoistFrom(LoopInvariants loop) {
+        for (StmtNode node : myStmts) {
+            node.hoistFrom(loop);
+        }
+    }
+
     public void codeGen(){
         for(StmtNode node : myStmts){
             node.codeGen();
         }
     }
     
-    public void unparse(PrintWriter p, int indent) {
-        Iterator<StmtNode> it = myStmts.iterator();
-        while (it.hasNext()) {
-            it.next().unparse(p, indent);
-        } 
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        for (int k = 0; k < myStmts.length; k++) {
+            myStmts[k].accept(v);
+        }
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        for (int k = 0; k < myStmts.length; k++) {
+            flat.push(myStmts[k].flatten(flat));
+        }
+        return flat.node(FlatAst.STMT_LIST, mark);
     }
 
     // list of children (StmtNodes)
-    private List<StmtNode> myStmts;
+    private StmtNode[] myStmts;
 }
 
 class ExpListNode extends ASTnode {
     public ExpListNode(List<ExpNode> S) {
-        myExps = S;
+        myExps = S.toArray(new ExpNode[S.size()]);
     }
 
     public int size() {
-        return myExps.size();
+        return myExps.length;
     }
 
     /***
@@ -290,44 +493,88 @@ class ExpListNode extends ASTnode {
      * typeCheck
      ***/
     public void typeCheck(List<Type> typeList) {
-        int k = 0;
-        try {
-            for (ExpNode node : myExps) {
-                Type actualType = node.typeCheck();     // actual type of arg
-                
-                if (!actualType.isErrorType()) {        // if this is not an error
-                    Type formalType = typeList.get(k);  // get the formal type
-                    if (!formalType.equals(actualType)) {
-                        ErrMsg.fatal(node.lineNum(), node.charNum(),
-                                     "Actual type does not match formal type");
-                    }
-                }
-                k++;
+        for (int k = 0; k < myExps.length; k++) {
+            checkType(myExps[k], myExps[k].typeCheck(), typeList.get(k));
+        }
+    }
+
+    /***
+     * analyze
+     * As nameAnalysis and typeCheck, for the args of a call.
+     ***/
+    public void analyze(SymTable symTab, List<Type> typeList) {
+        for (int k = 0; k < myExps.length; k++) {
+            checkType(myExps[k], myExps[k].analyze(symTab), typeList.get(k));
+        }
+    }
+
+    private static void checkType(ExpNode node, Type actualType,
+                                  Type formalType) {
+        if (!actualType.isErrorType()) {        // if this is not an error
+            if (!formalType.equals(actualType)) {
+                ErrMsg.typeError(node.lineNum(), node.charNum(),
+                                 "Actual type does not match formal type");
             }
-        } catch (NoSuchElementException e) {
-            System.err.println("unexpected NoSuchElementException in ExpListNode.typeCheck");
-            System.exit(-1);
         }
     }
     
-    public void unparse(PrintWriter p, int indent) {
-        Iterator<ExpNode> it = myExps.iterator();
-        if (it.hasNext()) {         // if there is at least one element
-            it.next().unparse(p, indent);
-            while (it.hasNext()) {  // print the rest of the list
-                p.print(", ");
-                it.next().unparse(p, indent);
-            }
-        } 
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        for (ExpNode node : myExps) {
+            node.countAssigns(env);
+        }
+    }
+
+    /***
+     * fold
+     ***/
+    public void fold(ConstEnv env) {
+        for (int k = 0; k < myExps.length; k++) {
+            myExps[k] = myExps[k].fold(env);
+        }
+    }
+
+    /***
+     * hoistFrom
+     ***/
+    public void hoistFrom(LoopInvariants loop) {
+        for (int k = 0; k < myExps.length; k++) {
+            myExps[k] = myExps[k].hoistFrom(loop);
+        }
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        for (int k = 0; k < myExps.length; k++) {
+            myExps[k].accept(v);
+        }
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        for (int k = 0; k < myExps.length; k++) {
+            flat.push(myExps[k].flatten(flat));
+        }
+        return flat.node(FlatAst.EXP_LIST, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode exp(int k) {
+        return myExps[k];
     }
 
     // list of children (ExpNodes)
-    private List<ExpNode> myExps;
+    private ExpNode[] myExps;
 }
 
 class FormalsListNode extends ASTnode {
     public FormalsListNode(List<FormalDeclNode> S) {
-        myFormals = S;
+        myFormals = S.toArray(new FormalDeclNode[S.size()]);
     }
 
     /***
@@ -338,7 +585,7 @@ class FormalsListNode extends ASTnode {
      *     if there was no error, add type of formal decl to list
      ***/
     public List<Type> nameAnalysis(SymTable symTab) {
-        List<Type> typeList = new LinkedList<Type>();
+        List<Type> typeList = new ArrayList<Type>(myFormals.length);
         for (FormalDeclNode node : myFormals) {
             Sym sym = node.nameAnalysis(symTab);
             if (sym != null) {
@@ -352,22 +599,34 @@ class FormalsListNode extends ASTnode {
      * Return the number of formals in this list.
      ***/
     public int length() {
-        return myFormals.size();
+        return myFormals.length;
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        Iterator<FormalDeclNode> it = myFormals.iterator();
-        if (it.hasNext()) { // if there is at least one element
-            it.next().unparse(p, indent);
-            while (it.hasNext()) {  // print the rest of the list
-                p.print(", ");
-                it.next().unparse(p, indent);
-            }
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        for (int k = 0; k < myFormals.length; k++) {
+            myFormals[k].accept(v);
         }
     }
 
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        for (int k = 0; k < myFormals.length; k++) {
+            flat.push(myFormals[k].flatten(flat));
+        }
+        return flat.node(FlatAst.FORMALS_LIST, mark);
+    }
+
+    // the children (see Unparser)
+    public FormalDeclNode formal(int k) {
+        return myFormals[k];
+    }
+
     // list of children (FormalDeclNodes)
-    private List<FormalDeclNode> myFormals;
+    private FormalDeclNode[] myFormals;
 }
 
 class FctnBodyNode extends ASTnode {
@@ -376,6 +635,18 @@ class FctnBodyNode extends ASTnode {
         myStmtList = stmtList;
     }
 
+    /***
+     * The parser also builds the bodies of ifs and whiles as FctnBodyNodes,
+     * then takes their lists out.
+     ***/
+    public DeclListNode declList() {
+        return myDeclList;
+    }
+
+    public StmtListNode stmtList() {
+        return myStmtList;
+    }
+
     /***
      * nameAnalysis
      * Given a symbol table symTab, do:
@@ -393,14 +664,51 @@ class FctnBodyNode extends ASTnode {
     public void typeCheck(Type retType) {
         myStmtList.typeCheck(retType);
     }
+
+    /***
+     * analyze
+     ***/
+    public void analyze(SymTable symTab, Type retType) {
+        myDeclList.nameAnalysis(symTab);
+        myStmtList.analyze(symTab, retType);
+    }
     
+    /***
+     * fold
+     * Find out how often each variable is assigned, then fold the
+     * statements.
+     ***/
+    public void fold() {
+        ConstEnv env = new ConstEnv();
+        myStmtList.countAssigns(env);
+        myStmtList.fold(env);
+    }
+
+    /***
+     * hoistLoops
+     ***/
+    public void hoistLoops(FctnSym fctn) {
+        myStmtList.hoistLoops(fctn);
+    }
+
     public void codeGen(){
         myStmtList.codeGen();
     }
     
-    public void unparse(PrintWriter p, int indent) {
-        myDeclList.unparse(p, indent);
-        myStmtList.unparse(p, indent);
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myDeclList.accept(v);
+        myStmtList.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myDeclList.flatten(flat));
+        flat.push(myStmtList.flatten(flat));
+        return flat.node(FlatAst.FCTN_BODY, mark);
     }
 
     // 2 children
@@ -422,6 +730,16 @@ abstract class DeclNode extends ASTnode {
     // default version of typeCheck for non-function decls
     public void typeCheck() { }
 
+    // default version of analyze (see ProgramNode.analyze) for
+    // non-function decls, which have nothing to type check
+    public void analyze(SymTable symTab) {
+        nameAnalysis(symTab);
+    }
+
+    // default versions of fold and hoist for non-function decls
+    public void fold() { }
+    public void hoist() { }
+
     // default version of codeGen for tuple decls
     public void codeGen() { }
 }
@@ -454,7 +772,7 @@ class VarDeclNode extends DeclNode {
     
     public Sym nameAnalysis(SymTable symTab, SymTable globalTab) {
         boolean badDecl = false;
-        String name = myId.name();
+        int name = myId.nameId();
         Sym sym = null;
         IdNode tupleId = null;
 
@@ -467,7 +785,7 @@ class VarDeclNode extends DeclNode {
         else if (myType instanceof TupleNode) {
             tupleId = ((TupleNode)myType).idNode();
 			try {
-				sym = globalTab.lookupGlobal(tupleId.name());
+				sym = globalTab.lookupGlobal(tupleId.nameId());
             
 				// if the name for the tuple type is not found, 
 				// or is not a tuple type
@@ -539,12 +857,30 @@ class VarDeclNode extends DeclNode {
         }
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        myType.unparse(p, 0);
-        p.print(" ");
-        myId.unparse(p, 0);
-        p.println(".");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myType.accept(v);
+        myId.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myType.flatten(flat));
+        flat.push(myId.flatten(flat));
+        return flat.node(FlatAst.VAR_DECL, myId.lineNum(), myId.charNum(),
+                         mySize, mark);
+    }
+
+    // the children (see Unparser)
+    public TypeNode typeNode() {
+        return myType;
+    }
+
+    public IdNode idNode() {
+        return myId;
     }
 
     // 3 children
@@ -580,7 +916,20 @@ class FctnDeclNode extends DeclNode {
      *     exit scope
      ***/
     public Sym nameAnalysis(SymTable symTab) {
-        String name = myId.name();
+        analyze(symTab, false);
+        return null;
+    }
+
+    /***
+     * analyze
+     * As nameAnalysis, but type check the body as it is processed.
+     ***/
+    public void analyze(SymTable symTab) {
+        analyze(symTab, true);
+    }
+
+    private void analyze(SymTable symTab, boolean typeCheck) {
+        int name = myId.nameId();
         FctnSym sym = null;
         try {
 			if (symTab.lookupLocal(name) != null) {
@@ -589,11 +938,6 @@ class FctnDeclNode extends DeclNode {
 			}
         
 			else { // add function name to local symbol table
-
-                if (name.equals("main")) {
-                    ProgramNode.noMain = false; 
-                }
-
 				try {
 					sym = new FctnSym(myType.type(), myFormalsList.length());
 					symTab.addDecl(name, sym);
@@ -628,7 +972,12 @@ class FctnDeclNode extends DeclNode {
         symTab.setOffset(-8);  // offset of first local
         int temp = symTab.getOffset();
 
-        myBody.nameAnalysis(symTab); // process the function body
+        // process the function body
+        if (typeCheck) {
+            myBody.analyze(symTab, myType.type());
+        } else {
+            myBody.nameAnalysis(symTab);
+        }
        
         if (sym != null) {
             sym.setLocalsSize(-1*(symTab.getOffset() - temp));
@@ -642,8 +991,6 @@ class FctnDeclNode extends DeclNode {
                                " in FctnDeclNode.nameAnalysis");
             System.exit(-1);
         }
-        
-        return null;
     } 
 
     /***
@@ -653,6 +1000,24 @@ class FctnDeclNode extends DeclNode {
         myBody.typeCheck(myType.type());
     }
 
+    /***
+     * fold
+     ***/
+    public void fold() {
+        myBody.fold();
+    }
+
+    /***
+     * hoist
+     * The slots for the hoisted expressions are added to the function's
+     * locals (so this must be done before code generation).
+     ***/
+    public void hoist() {
+        if (myId.sym() instanceof FctnSym) {
+            myBody.hoistLoops((FctnSym)myId.sym());
+        }
+    }
+
     public void codeGen() {
         // Prologue
         Codegen.generate(".text");
@@ -680,16 +1045,42 @@ class FctnDeclNode extends DeclNode {
         Codegen.generate("syscall");
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        myType.unparse(p, 0);
-        p.print(" ");
-        myId.unparse(p, 0);
-        p.print("{");
-        myFormalsList.unparse(p, 0);
-        p.println("} [");
-        myBody.unparse(p, indent+4);
-        p.println("]\n");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myType.accept(v);
+        myId.accept(v);
+        myFormalsList.accept(v);
+        myBody.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myType.flatten(flat));
+        flat.push(myId.flatten(flat));
+        flat.push(myFormalsList.flatten(flat));
+        flat.push(myBody.flatten(flat));
+        return flat.node(FlatAst.FCTN_DECL, myId.lineNum(), myId.charNum(),
+                         0, mark);
+    }
+
+    // the children (see Unparser)
+    public TypeNode typeNode() {
+        return myType;
+    }
+
+    public IdNode idNode() {
+        return myId;
+    }
+
+    public FormalsListNode formalsList() {
+        return myFormalsList;
+    }
+
+    public FctnBodyNode body() {
+        return myBody;
     }
 
     // 4 children
@@ -714,7 +1105,7 @@ class FormalDeclNode extends DeclNode {
      * else add a new entry to the symbol table and return that Sym
      ***/
     public Sym nameAnalysis(SymTable symTab) {
-        String name = myId.name();
+        int name = myId.nameId();
         boolean badDecl = false;
         Sym sym = null;
         
@@ -758,10 +1149,30 @@ class FormalDeclNode extends DeclNode {
         return sym;
     }  
 
-    public void unparse(PrintWriter p, int indent) {
-        myType.unparse(p, 0);
-        p.print(" ");
-        myId.unparse(p, 0);
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myType.accept(v);
+        myId.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myType.flatten(flat));
+        flat.push(myId.flatten(flat));
+        return flat.node(FlatAst.FORMAL_DECL, myId.lineNum(), myId.charNum(),
+                         0, mark);
+    }
+
+    // the children (see Unparser)
+    public TypeNode typeNode() {
+        return myType;
+    }
+
+    public IdNode idNode() {
+        return myId;
     }
 
     // 2 children
@@ -786,7 +1197,7 @@ class TupleDeclNode extends DeclNode {
      *     add a new entry to symbol table for this tuple
      ***/
     public Sym nameAnalysis(SymTable symTab) {
-        String name = myId.name();
+        int name = myId.nameId();
         boolean badDecl = false;
         try {
 			if (symTab.lookupLocal(name) != null) {
@@ -824,20 +1235,36 @@ class TupleDeclNode extends DeclNode {
         return null;
     } 
 
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        p.print("tuple ");
-        myId.unparse(p, 0);
-        p.println(" {");
-        myDeclList.unparse(p, indent+4);
-        doIndent(p, indent);
-        p.println("}.\n");
+    public void accept(AstVisitor v) {
+        v.visit(this);
     }
 
-    // 2 children
-    private IdNode myId;
-	private DeclListNode myDeclList;
-}
+    public void visitChildren(AstVisitor v) {
+        myId.accept(v);
+        myDeclList.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myId.flatten(flat));
+        flat.push(myDeclList.flatten(flat));
+        return flat.node(FlatAst.TUPLE_DECL, myId.lineNum(), myId.charNum(),
+                         0, mark);
+    }
+
+    // the children (see Unparser)
+    public IdNode idNode() {
+        return myId;
+    }
+
+    public DeclListNode declList() {
+        return myDeclList;
+    }
+
+    // 2 children
+    private IdNode myId;
+	private DeclListNode myDeclList;
+}
 
 // **********************************************************************
 // *****  TypeNode and its subclasses
@@ -859,8 +1286,15 @@ class LogicalNode extends TypeNode {
         return new LogicalType();
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("logical");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+    }
+
+    public int flatten(FlatAst flat) {
+        return flat.node(FlatAst.LOGICAL, flat.mark());
     }
 }
 
@@ -875,8 +1309,15 @@ class IntegerNode extends TypeNode {
         return new IntegerType();
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("integer");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+    }
+
+    public int flatten(FlatAst flat) {
+        return flat.node(FlatAst.INTEGER, flat.mark());
     }
 }
 
@@ -891,8 +1332,15 @@ class VoidNode extends TypeNode {
         return new VoidType();
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("void");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+    }
+
+    public int flatten(FlatAst flat) {
+        return flat.node(FlatAst.VOID, flat.mark());
     }
 }
 
@@ -912,10 +1360,20 @@ class TupleNode extends TypeNode {
         return new TupleType(myId);
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("tuple ");
-        p.print(myId.name());
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myId.accept(v);
     }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myId.flatten(flat));
+        return flat.node(FlatAst.TUPLE, mark);
+    }
+
 	
 	// 1 child
     private IdNode myId;
@@ -929,6 +1387,56 @@ abstract class StmtNode extends ASTnode {
     abstract public void nameAnalysis(SymTable symTab);
     abstract public void typeCheck(Type retType);
     abstract public void codeGen();
+
+    /***
+     * analyze
+     * Name analysis and type checking of this statement in one walk (see
+     * ProgramNode.analyze), in a function that returns retType.
+     ***/
+    abstract public void analyze(SymTable symTab, Type retType);
+
+    /***
+     * checkCondition
+     * Report an error if the condition of an if or a while (stmt), of the
+     * given type, is not logical.
+     ***/
+    protected static void checkCondition(ExpNode exp, Type type, String stmt) {
+        if (!type.isErrorType() && !type.isLogicalType()) {
+            ErrMsg.typeError(exp.lineNum(), exp.charNum(),
+                             "Non-logical expression used in " + stmt +
+                             " condition");
+        }
+    }
+
+    /***
+     * countAssigns
+     * Tell env about every variable this statement assigns.
+     ***/
+    public void countAssigns(ConstEnv env) { }
+
+    /***
+     * fold
+     * Fold the constants in this statement, then add the statement to out,
+     * or, if its condition turned out to be constant, the statements that
+     * are left of it (if any).
+     ***/
+    public void fold(ConstEnv env, List<StmtNode> out) {
+        out.add(this);
+    }
+
+    /***
+     * hoistLoops
+     * Take the invariant expressions out of every while loop in this
+     * statement (slots for them are added to the locals of fctn).
+     ***/
+    public void hoistLoops(FctnSym fctn) { }
+
+    /***
+     * hoistFrom
+     * Replace the expressions in this statement that are invariant in the
+     * given loop (which contains the statement) by HoistedExpNodes.
+     ***/
+    public void hoistFrom(LoopInvariants loop) { }
 }
 
 class AssignStmtNode extends StmtNode {
@@ -951,17 +1459,59 @@ class AssignStmtNode extends StmtNode {
         myAssign.typeCheck();
     }
 
+    public void analyze(SymTable symTab, Type retType) {
+        myAssign.analyze(symTab);
+    }
+
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        myAssign.countAssigns(env);
+    }
+
+    /***
+     * fold
+     * An assignment of a constant may make the variable's value known (see
+     * ConstEnv).
+     ***/
+    public void fold(ConstEnv env, List<StmtNode> out) {
+        myAssign.fold(env);
+        myAssign.foldAssign(env);
+        out.add(this);
+    }
+
+    /***
+     * hoistFrom
+     ***/
+    public void hoistFrom(LoopInvariants loop) {
+        myAssign.hoistFrom(loop);
+    }
+
     /***
      * codeGen
      ***/
     public void codeGen(){
-        //TODO
+        myAssign.genAssign();
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        myAssign.unparse(p, -1); // no parentheses
-        p.println(".");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myAssign.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myAssign.flatten(flat));
+        return flat.node(FlatAst.ASSIGN_STMT, mark);
+    }
+
+    // the children (see Unparser)
+    public AssignExpNode assign() {
+        return myAssign;
     }
 
     // 1 child
@@ -985,11 +1535,26 @@ class PostIncStmtNode extends StmtNode {
      * typeCheck
      ***/
     public void typeCheck(Type retType) {
-        Type type = myExp.typeCheck();
-        
+        checkType(myExp.typeCheck());
+    }
+
+    public void analyze(SymTable symTab, Type retType) {
+        checkType(myExp.analyze(symTab));
+    }
+
+    private void checkType(Type type) {
         if (!type.isErrorType() && !type.isIntegerType()) {
-            ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                         "Arithmetic operator used with non-integer operand");
+            ErrMsg.typeError(myExp.lineNum(), myExp.charNum(),
+                             "Arithmetic operator used with non-integer operand");
+        }
+    }
+
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        if (myExp instanceof IdNode) {
+            env.assigned(((IdNode)myExp).sym());
         }
     }
 
@@ -1000,10 +1565,23 @@ class PostIncStmtNode extends StmtNode {
         //TODO
     }
     
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        myExp.unparse(p, 0);
-        p.println("++.");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myExp.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myExp.flatten(flat));
+        return flat.node(FlatAst.POST_INC, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode exp() {
+        return myExp;
     }
 
     // 1 child
@@ -1027,11 +1605,26 @@ class PostDecStmtNode extends StmtNode {
      * typeCheck
      ***/
     public void typeCheck(Type retType) {
-        Type type = myExp.typeCheck();
-        
+        checkType(myExp.typeCheck());
+    }
+
+    public void analyze(SymTable symTab, Type retType) {
+        checkType(myExp.analyze(symTab));
+    }
+
+    private void checkType(Type type) {
         if (!type.isErrorType() && !type.isIntegerType()) {
-            ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                         "Arithmetic operator used with non-integer operand");
+            ErrMsg.typeError(myExp.lineNum(), myExp.charNum(),
+                             "Arithmetic operator used with non-integer operand");
+        }
+    }
+
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        if (myExp instanceof IdNode) {
+            env.assigned(((IdNode)myExp).sym());
         }
     }
 
@@ -1042,10 +1635,23 @@ class PostDecStmtNode extends StmtNode {
         //TODO
     }
        
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        myExp.unparse(p, 0);
-        p.println("--.");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myExp.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myExp.flatten(flat));
+        return flat.node(FlatAst.POST_DEC, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode exp() {
+        return myExp;
     }
 
     // 1 child
@@ -1085,40 +1691,103 @@ class IfStmtNode extends StmtNode {
      * typeCheck
      ***/
     public void typeCheck(Type retType) {
-        Type type = myExp.typeCheck();
-        
-        if (!type.isErrorType() && !type.isLogicalType()) {
-            ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                         "Non-logical expression used in if condition");        
-        }
-        
+        checkCondition(myExp, myExp.typeCheck(), "if");
         myStmtList.typeCheck(retType);
     }
 
+    public void analyze(SymTable symTab, Type retType) {
+        checkCondition(myExp, myExp.analyze(symTab), "if");
+        symTab.addScope();
+        myDeclList.nameAnalysis(symTab);
+        myStmtList.analyze(symTab, retType);
+        try {
+            symTab.removeScope();
+        } catch (EmptySymTableException ex) {
+            System.err.println("Unexpected EmptySymTableException " +
+                               " in IfStmtNode.analyze");
+            System.exit(-1);        
+        }
+    }
+
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        myExp.countAssigns(env);
+        myStmtList.countAssigns(env);
+    }
+
+    /***
+     * fold
+     * If the condition is constant, only the statements of the body are
+     * left (if it is true) or nothing (if it is false).
+     ***/
+    public void fold(ConstEnv env, List<StmtNode> out) {
+        myExp = myExp.fold(env);
+        if (!myExp.isConst()) {
+            myStmtList.fold(env.nested());
+            out.add(this);
+        } else if (myExp.constValue() != 0) {
+            myStmtList.fold(env.nested(), out);
+        }
+    }
+
+    /***
+     * hoistLoops
+     ***/
+    public void hoistLoops(FctnSym fctn) {
+        myStmtList.hoistLoops(fctn);
+    }
+
+    /***
+     * hoistFrom
+     ***/
+    public void hoistFrom(LoopInvariants loop) {
+        myExp = myExp.hoistFrom(loop);
+        myStmtList.hoistFrom(loop);
+    }
+
     /***
      * codeGen
      ***/
     public void codeGen(){
         Codegen.generateWithComment("", "IF-THEN");
-        Codegen.generate(".data");
         String EndofConstruct = Codegen.nextLabel();
-        myExp.codeGen();
-        Codegen.genPop(Codegen.T0);
-        Codegen.generate("beq", Codegen.T0, Codegen.FALSE, EndofConstruct);
+        myExp.genJumpCode(null, EndofConstruct);
         myDeclList.codeGen();
         myStmtList.codeGen();
         Codegen.genLabel(EndofConstruct);
     }
            
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        p.print("if ");
-        myExp.unparse(p, 0);
-        p.println(" [");
-        myDeclList.unparse(p, indent+4);
-        myStmtList.unparse(p, indent+4);
-        doIndent(p, indent);
-        p.println("]");  
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myExp.accept(v);
+        myDeclList.accept(v);
+        myStmtList.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myExp.flatten(flat));
+        flat.push(myDeclList.flatten(flat));
+        flat.push(myStmtList.flatten(flat));
+        return flat.node(FlatAst.IF, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode exp() {
+        return myExp;
+    }
+
+    public DeclListNode declList() {
+        return myDeclList;
+    }
+
+    public StmtListNode stmtList() {
+        return myStmtList;
     }
 
     // 3 children
@@ -1177,39 +1846,137 @@ class IfElseStmtNode extends StmtNode {
      * typeCheck
      ***/
     public void typeCheck(Type retType) {
-        Type type = myExp.typeCheck();
-        
-        if (!type.isErrorType() && !type.isLogicalType()) {
-            ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                         "Non-logical expression used in if condition");        
-        }
-        
+        checkCondition(myExp, myExp.typeCheck(), "if");
         myThenStmtList.typeCheck(retType);
         myElseStmtList.typeCheck(retType);
     }
 
+    public void analyze(SymTable symTab, Type retType) {
+        checkCondition(myExp, myExp.analyze(symTab), "if");
+        symTab.addScope();
+        myThenDeclList.nameAnalysis(symTab);
+        myThenStmtList.analyze(symTab, retType);
+        try {
+            symTab.removeScope();
+        } catch (EmptySymTableException ex) {
+            System.err.println("Unexpected EmptySymTableException " +
+                               " in IfElseStmtNode.analyze");
+            System.exit(-1);        
+        }
+        symTab.addScope();
+        myElseDeclList.nameAnalysis(symTab);
+        myElseStmtList.analyze(symTab, retType);
+        try {
+            symTab.removeScope();
+        } catch (EmptySymTableException ex) {
+            System.err.println("Unexpected EmptySymTableException " +
+                               " in IfElseStmtNode.analyze");
+            System.exit(-1);        
+        }
+    }
+
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        myExp.countAssigns(env);
+        myThenStmtList.countAssigns(env);
+        myElseStmtList.countAssigns(env);
+    }
+
+    /***
+     * fold
+     * If the condition is constant, only the statements of the branch it
+     * selects are left.
+     ***/
+    public void fold(ConstEnv env, List<StmtNode> out) {
+        myExp = myExp.fold(env);
+        if (!myExp.isConst()) {
+            myThenStmtList.fold(env.nested());
+            myElseStmtList.fold(env.nested());
+            out.add(this);
+        } else if (myExp.constValue() != 0) {
+            myThenStmtList.fold(env.nested(), out);
+        } else {
+            myElseStmtList.fold(env.nested(), out);
+        }
+    }
+
+    /***
+     * hoistLoops
+     ***/
+    public void hoistLoops(FctnSym fctn) {
+        myThenStmtList.hoistLoops(fctn);
+        myElseStmtList.hoistLoops(fctn);
+    }
+
+    /***
+     * hoistFrom
+     ***/
+    public void hoistFrom(LoopInvariants loop) {
+        myExp = myExp.hoistFrom(loop);
+        myThenStmtList.hoistFrom(loop);
+        myElseStmtList.hoistFrom(loop);
+    }
+
     /***
      * codeGen
      ***/
     public void codeGen(){
-        //TODO
+        Codegen.generateWithComment("", "IF-THEN-ELSE");
+        String elseLab = Codegen.nextLabel();
+        String endLab = Codegen.nextLabel();
+        myExp.genJumpCode(null, elseLab);
+        myThenDeclList.codeGen();
+        myThenStmtList.codeGen();
+        Codegen.generate("j", endLab);
+        Codegen.genLabel(elseLab);
+        myElseDeclList.codeGen();
+        myElseStmtList.codeGen();
+        Codegen.genLabel(endLab);
     }
         
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        p.print("if ");
-        myExp.unparse(p, 0);
-        p.println(" [");
-        myThenDeclList.unparse(p, indent+4);
-        myThenStmtList.unparse(p, indent+4);
-        doIndent(p, indent);
-        p.println("]");
-        doIndent(p, indent);
-        p.println("else [");
-        myElseDeclList.unparse(p, indent+4);
-        myElseStmtList.unparse(p, indent+4);
-        doIndent(p, indent);
-        p.println("]"); 
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myExp.accept(v);
+        myThenDeclList.accept(v);
+        myThenStmtList.accept(v);
+        myElseDeclList.accept(v);
+        myElseStmtList.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myExp.flatten(flat));
+        flat.push(myThenDeclList.flatten(flat));
+        flat.push(myThenStmtList.flatten(flat));
+        flat.push(myElseDeclList.flatten(flat));
+        flat.push(myElseStmtList.flatten(flat));
+        return flat.node(FlatAst.IF_ELSE, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode exp() {
+        return myExp;
+    }
+
+    public DeclListNode thenDeclList() {
+        return myThenDeclList;
+    }
+
+    public StmtListNode thenStmtList() {
+        return myThenStmtList;
+    }
+
+    public DeclListNode elseDeclList() {
+        return myElseDeclList;
+    }
+
+    public StmtListNode elseStmtList() {
+        return myElseStmtList;
     }
 
     // 5 children
@@ -1253,72 +2020,206 @@ class WhileStmtNode extends StmtNode {
      * typeCheck
      ***/
     public void typeCheck(Type retType) {
-        Type type = myExp.typeCheck();
-        
-        if (!type.isErrorType() && !type.isLogicalType()) {
-            ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                         "Non-logical expression used in while condition");        
-        }
-        
+        checkCondition(myExp, myExp.typeCheck(), "while");
         myStmtList.typeCheck(retType);
     }
 
+    public void analyze(SymTable symTab, Type retType) {
+        checkCondition(myExp, myExp.analyze(symTab), "while");
+        symTab.addScope();
+        myDeclList.nameAnalysis(symTab);
+        myStmtList.analyze(symTab, retType);
+        try {
+            symTab.removeScope();
+        } catch (EmptySymTableException ex) {
+            System.err.println("Unexpected EmptySymTableException " +
+                               " in WhileStmtNode.analyze");
+            System.exit(-1);        
+        }
+    }
+
     /***
-     * codeGen
+     * countAssigns
      ***/
-    public void codeGen(){
-        //TODO
-    }
-    
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        p.print("while ");
-        myExp.unparse(p, 0);
-        p.println(" [");
-        myDeclList.unparse(p, indent+4);
-        myStmtList.unparse(p, indent+4);
-        doIndent(p, indent);
-        p.println("]");
+    public void countAssigns(ConstEnv env) {
+        myExp.countAssigns(env);
+        myStmtList.countAssigns(env);
     }
 
-    // 3 children
-    private ExpNode myExp;
-    private DeclListNode myDeclList;
-    private StmtListNode myStmtList;
-}
-
-class ReadStmtNode extends StmtNode {
-    public ReadStmtNode(ExpNode e) {
-        myExp = e;
+    /***
+     * fold
+     * A loop whose condition is False is left out.  (No variable assigned
+     * in the loop has a known value, so the condition means the same thing
+     * on every iteration.)
+     ***/
+    public void fold(ConstEnv env, List<StmtNode> out) {
+        myExp = myExp.fold(env);
+        if (myExp.isConst() && myExp.constValue() == 0) {
+            return;
+        }
+        myStmtList.fold(env.nested());
+        out.add(this);
     }
 
     /***
-     * nameAnalysis
-     * Given a symbol table symTab, perform name analysis on this node's child
+     * hoistLoops
+     * This loop is done first, then the loops inside it (so an expression
+     * that is invariant in both goes all the way out).
      ***/
-    public void nameAnalysis(SymTable symTab) {
-        myExp.nameAnalysis(symTab);
-    } 
- 
+    public void hoistLoops(FctnSym fctn) {
+        ConstEnv assigns = new ConstEnv();
+        myExp.countAssigns(assigns);
+        myStmtList.countAssigns(assigns);
+        LoopInvariants loop = new LoopInvariants(assigns, fctn);
+        myExp = loop.hoistFromTest(myExp);
+        myStmtList.hoistFrom(loop);
+        myHoisted = loop.hoisted();
+        myStmtList.hoistLoops(fctn);
+    }
+
     /***
-     * typeCheck
+     * hoistFrom
      ***/
-    public void typeCheck(Type retType) {
-        Type type = myExp.typeCheck();
-        
+    public void hoistFrom(LoopInvariants loop) {
+        myExp = myExp.hoistFrom(loop);
+        myStmtList.hoistFrom(loop);
+    }
+
+    /***
+     * codeGen
+     * The test is at the end of the loop, and the loop starts by jumping to
+     * it; a loop with hoisted expressions is inverted instead (see
+     * genInverted).
+     ***/
+    public void codeGen(){
+        Codegen.generateWithComment("", "WHILE");
+        if (!myHoisted.isEmpty()) {
+            genInverted();
+            return;
+        }
+        String bodyLab = Codegen.nextLabel();
+        String testLab = Codegen.nextLabel();
+        Codegen.generate("j", testLab);
+        Codegen.genLabel(bodyLab);
+        myDeclList.codeGen();
+        myStmtList.codeGen();
+        Codegen.genLabel(testLab);
+        myExp.genJumpCode(bodyLab, null);
+    }
+
+    /***
+     * genInverted
+     * The first test is done before the loop, and computes the hoisted
+     * expressions in it; if it is true, the other hoisted expressions are
+     * computed, then the loop is run (see LoopInvariants).
+     ***/
+    private void genInverted() {
+        String bodyLab = Codegen.nextLabel();
+        String doneLab = Codegen.nextLabel();
+        for (HoistedExpNode node : myHoisted) {
+            node.setFirstTest(true);
+        }
+        myExp.genJumpCode(null, doneLab);
+        for (HoistedExpNode node : myHoisted) {
+            node.setFirstTest(false);
+            if (!node.computedByTest()) {
+                node.genInit();
+            }
+        }
+        Codegen.genLabel(bodyLab);
+        myDeclList.codeGen();
+        myStmtList.codeGen();
+        myExp.genJumpCode(bodyLab, null);
+        Codegen.genLabel(doneLab);
+    }
+    
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myExp.accept(v);
+        myDeclList.accept(v);
+        myStmtList.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myExp.flatten(flat));
+        flat.push(myDeclList.flatten(flat));
+        flat.push(myStmtList.flatten(flat));
+        return flat.node(FlatAst.WHILE, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode exp() {
+        return myExp;
+    }
+
+    public DeclListNode declList() {
+        return myDeclList;
+    }
+
+    public StmtListNode stmtList() {
+        return myStmtList;
+    }
+
+    // 3 children
+    private ExpNode myExp;
+    private DeclListNode myDeclList;
+    private StmtListNode myStmtList;
+
+    // the expressions taken out of the loop
+    private List<HoistedExpNode> myHoisted = new LinkedList<HoistedExpNode>();
+}
+
+class ReadStmtNode extends StmtNode {
+    public ReadStmtNode(ExpNode e) {
+        myExp = e;
+    }
+
+    /***
+     * nameAnalysis
+     * Given a symbol table symTab, perform name analysis on this node's child
+     ***/
+    public void nameAnalysis(SymTable symTab) {
+        myExp.nameAnalysis(symTab);
+    } 
+ 
+    /***
+     * typeCheck
+     ***/
+    public void typeCheck(Type retType) {
+        checkType(myExp.typeCheck());
+    }
+
+    public void analyze(SymTable symTab, Type retType) {
+        checkType(myExp.analyze(symTab));
+    }
+
+    private void checkType(Type type) {
         if (type.isFctnType()) {
-            ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                         "Read attempt of function name");
+            ErrMsg.typeError(myExp.lineNum(), myExp.charNum(),
+                             "Read attempt of function name");
         }
         
         if (type.isTupleDefType()) {
-            ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                         "Read attempt of tuple name");
+            ErrMsg.typeError(myExp.lineNum(), myExp.charNum(),
+                             "Read attempt of tuple name");
         }
         
         if (type.isTupleType()) {
-            ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                         "Read attempt of tuple variable");
+            ErrMsg.typeError(myExp.lineNum(), myExp.charNum(),
+                             "Read attempt of tuple variable");
+        }
+    }
+
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        if (myExp instanceof IdNode) {
+            env.assigned(((IdNode)myExp).sym());
         }
     }
 
@@ -1327,18 +2228,29 @@ class ReadStmtNode extends StmtNode {
      ***/
     public void codeGen(){
         Codegen.generateWithComment("", "READ");
-        Codegen.generate(".data");
         myExp.codeGen();
         Codegen.genPop(Codegen.A0);
         Codegen.generate("li", Codegen.V0, 5);
         Codegen.generate("syscall");
     }
       
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        p.print("read >> ");
-        myExp.unparse(p, 0);
-        p.println(".");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myExp.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myExp.flatten(flat));
+        return flat.node(FlatAst.READ, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode exp() {
+        return myExp;
     }
 
     // 1 child (actually can only be an IdNode or a TupleAccessNode)
@@ -1362,30 +2274,59 @@ class WriteStmtNode extends StmtNode {
      * typeCheck
      ***/
     public void typeCheck(Type retType) {
-        Type type = myExp.typeCheck();
+        checkType(myExp.typeCheck());
+    }
+
+    public void analyze(SymTable symTab, Type retType) {
+        checkType(myExp.analyze(symTab));
+    }
+
+    private void checkType(Type type) {
         myType = type;
         
         if (type.isFctnType()) {
-            ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                         "Write attempt of function name");
+            ErrMsg.typeError(myExp.lineNum(), myExp.charNum(),
+                             "Write attempt of function name");
         }
         
         if (type.isTupleDefType()) {
-            ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                         "Write attempt of tuple name");
+            ErrMsg.typeError(myExp.lineNum(), myExp.charNum(),
+                             "Write attempt of tuple name");
         }
         
         if (type.isTupleType()) {
-            ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                         "Write attempt of tuple variable");
+            ErrMsg.typeError(myExp.lineNum(), myExp.charNum(),
+                             "Write attempt of tuple variable");
         }
         
         if (type.isVoidType()) {
-            ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                         "Write attempt of void");
+            ErrMsg.typeError(myExp.lineNum(), myExp.charNum(),
+                             "Write attempt of void");
         }
     }
          
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        myExp.countAssigns(env);
+    }
+
+    /***
+     * fold
+     ***/
+    public void fold(ConstEnv env, List<StmtNode> out) {
+        myExp = myExp.fold(env);
+        out.add(this);
+    }
+
+    /***
+     * hoistFrom
+     ***/
+    public void hoistFrom(LoopInvariants loop) {
+        myExp = myExp.hoistFrom(loop);
+    }
+
     /***
      * codeGen
      ***/
@@ -1395,18 +2336,28 @@ class WriteStmtNode extends StmtNode {
             type = 4;
         }
         Codegen.generateWithComment("", "WRITE");
-        Codegen.generate(".data");
-        myExp.codeGen();
-        Codegen.genPop(Codegen.A0);
+        myExp.genValue(Codegen.A0);
         Codegen.generate("li", Codegen.V0, type);
         Codegen.generate("syscall");
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        p.print("write << ");
-        myExp.unparse(p, 0);
-        p.println(".");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myExp.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myExp.flatten(flat));
+        return flat.node(FlatAst.WRITE, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode exp() {
+        return myExp;
     }
 
     // 2 children
@@ -1434,6 +2385,32 @@ class CallStmtNode extends StmtNode {
         myCall.typeCheck();
     }
 
+    public void analyze(SymTable symTab, Type retType) {
+        myCall.analyze(symTab);
+    }
+
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        myCall.countAssigns(env);
+    }
+
+    /***
+     * fold
+     ***/
+    public void fold(ConstEnv env, List<StmtNode> out) {
+        myCall.fold(env);
+        out.add(this);
+    }
+
+    /***
+     * hoistFrom
+     ***/
+    public void hoistFrom(LoopInvariants loop) {
+        myCall.hoistFrom(loop);
+    }
+
     /***
      * codeGen
      ***/
@@ -1441,10 +2418,23 @@ class CallStmtNode extends StmtNode {
         myCall.codeGen();
     }
     
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        myCall.unparse(p, indent);
-        p.println(".");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myCall.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myCall.flatten(flat));
+        return flat.node(FlatAst.CALL_STMT, mark);
+    }
+
+    // the children (see Unparser)
+    public CallExpNode call() {
+        return myCall;
     }
 
     // 1 child
@@ -1471,27 +2461,65 @@ class ReturnStmtNode extends StmtNode {
      * typeCheck
      ***/
     public void typeCheck(Type retType) {
-        if (myExp != null) {  // return value given
-            Type type = myExp.typeCheck();
-            
+        checkType(myExp != null ? myExp.typeCheck() : null, retType);
+    }
+
+    public void analyze(SymTable symTab, Type retType) {
+        checkType(myExp != null ? myExp.analyze(symTab) : null, retType);
+    }
+
+    /***
+     * checkType
+     * type is the type of the value returned (null if none).
+     ***/
+    private void checkType(Type type, Type retType) {
+        if (type != null) {  // return value given
             if (retType.isVoidType()) {
-                ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                             "Return with value in void function");                
+                ErrMsg.typeError(myExp.lineNum(), myExp.charNum(),
+                                 "Return with value in void function");                
             }
             
             else if (!retType.isErrorType() && !type.isErrorType() && !retType.equals(type)){
-                ErrMsg.fatal(myExp.lineNum(), myExp.charNum(),
-                             "Return value wrong type");
+                ErrMsg.typeError(myExp.lineNum(), myExp.charNum(),
+                                 "Return value wrong type");
             }
         }
         
         else {  // no return value given -- ok if this is a void function
             if (!retType.isVoidType()) {
-                ErrMsg.fatal(0, 0, "Return value missing");                
+                ErrMsg.typeError(0, 0, "Return value missing");                
             }
         }
         
     }
+
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        if (myExp != null) {
+            myExp.countAssigns(env);
+        }
+    }
+
+    /***
+     * fold
+     ***/
+    public void fold(ConstEnv env, List<StmtNode> out) {
+        if (myExp != null) {
+            myExp = myExp.fold(env);
+        }
+        out.add(this);
+    }
+
+    /***
+     * hoistFrom
+     ***/
+    public void hoistFrom(LoopInvariants loop) {
+        if (myExp != null) {
+            myExp = myExp.hoistFrom(loop);
+        }
+    }
     
     /***
      * codeGen
@@ -1500,14 +2528,27 @@ class ReturnStmtNode extends StmtNode {
         //TODO
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        doIndent(p, indent);
-        p.print("return");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        if (myExp != null) {
+            myExp.accept(v);
+        }
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
         if (myExp != null) {
-            p.print(" ");
-            myExp.unparse(p, 0);
+            flat.push(myExp.flatten(flat));
         }
-        p.println(".");
+        return flat.node(FlatAst.RETURN, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode exp() {
+        return myExp;
     }
 
     // 1 child
@@ -1523,12 +2564,166 @@ abstract class ExpNode extends ASTnode {
      * Default version for nodes with no names
      ***/
     public void nameAnalysis(SymTable symTab) { }
+
+    /***
+     * analyze
+     * Name analysis and type checking of this expression in one walk (see
+     * ProgramNode.analyze): as nameAnalysis(symTab) followed by
+     * typeCheck(), which is what this default does.
+     ***/
+    public Type analyze(SymTable symTab) {
+        nameAnalysis(symTab);
+        return typeCheck();
+    }
         
     abstract public Type typeCheck();
     abstract public int lineNum();
     abstract public int charNum();
 
+    /***
+     * countAssigns
+     * Tell env about every variable this expression assigns.
+     ***/
+    public void countAssigns(ConstEnv env) { }
+
+    /***
+     * fold
+     * Return this expression with its constant parts computed: a literal
+     * if the whole expression is constant, otherwise this node, with its
+     * children folded.  An operation that would fail at run time (division
+     * by zero, overflow in add, sub or neg) is left for run time.
+     ***/
+    public ExpNode fold(ConstEnv env) {
+        return this;
+    }
+
+    /***
+     * invariant
+     * Is this expression invariant in the given loop (see LoopInvariants)?
+     ***/
+    public boolean invariant(LoopInvariants loop) {
+        return false;
+    }
+
+    /***
+     * hoistFrom
+     * Return this expression with its largest parts that are invariant in
+     * the given loop (other than literals and variables, which are as cheap
+     * to load as the slot would be) replaced by HoistedExpNodes.
+     ***/
+    public ExpNode hoistFrom(LoopInvariants loop) {
+        return this;
+    }
+
+    /***
+     * Is this expression a literal (IntLitNode, TrueNode or FalseNode)?
+     ***/
+    public boolean isConst() {
+        return false;
+    }
+
+    /***
+     * Return the value of this literal (1 for True and 0 for False).
+     ***/
+    public int constValue() {
+        return 0;
+    }
+
+    /***
+     * Return a new literal with the given value, at this expression's place
+     * in the source.
+     ***/
+    protected ExpNode intLit(int value) {
+        return new IntLitNode(lineNum(), charNum(), value);
+    }
+
+    protected ExpNode logicalLit(boolean value) {
+        if (value) {
+            return new TrueNode(lineNum(), charNum());
+        }
+        return new FalseNode(lineNum(), charNum());
+    }
+
+    /***
+     * codeGen
+     * Generate code that pushes the value of this expression.
+     ***/
     public void codeGen() { }
+
+    /***
+     * canTrap
+     * Could computing this expression trap?  Adds, subs and negations trap
+     * on overflow (see LoopInvariants).
+     ***/
+    public boolean canTrap() {
+        return false;
+    }
+
+    /***
+     * regNeed
+     * Return the number of registers needed to evaluate this expression
+     * without using the stack (its Sethi-Ullman number), or -1 if it cannot
+     * be evaluated in registers: it contains a call, an assignment or
+     * something that is not a simple integer or logical value.
+     ***/
+    public int regNeed() {
+        return -1;
+    }
+
+    /***
+     * genReg
+     * Generate code that evaluates this expression into register
+     * Codegen.REGS[k], using only REGS[k] and up.  Only called if
+     * regNeed() is positive and REGS has that many registers from k on.
+     ***/
+    public void genReg(int k) { }
+
+    /***
+     * inRegs
+     * Is this expression to be evaluated in registers?
+     ***/
+    protected boolean inRegs() {
+        int n = regNeed();
+        return n > 0 && n <= Codegen.REGS.length && Codegen.regAlloc();
+    }
+
+    /***
+     * genValue
+     * Generate code that leaves the value of this expression in register
+     * reg: in registers if it can be (see regNeed), otherwise by pushing it
+     * and popping it into reg.
+     ***/
+    public void genValue(String reg) {
+        if (inRegs()) {
+            genReg(0);
+            if (!reg.equals(Codegen.REGS[0])) {
+                Codegen.generate("move", reg, Codegen.REGS[0]);
+            }
+        } else {
+            codeGen();
+            Codegen.genPop(reg);
+        }
+    }
+
+    /***
+     * genJumpCode
+     * Generate code for this logical expression that jumps to trueLab if it
+     * is true and to falseLab if it is false.  Either label may be null,
+     * meaning that case falls through to the code that follows.  This
+     * version computes the value and tests it; conditions override it to
+     * branch directly.
+     ***/
+    public void genJumpCode(String trueLab, String falseLab) {
+        genValue(Codegen.T0);
+        if (trueLab != null) {
+            Codegen.generate("bne", Codegen.T0, Codegen.FALSE, trueLab);
+            if (falseLab != null) {
+                Codegen.generate("j", falseLab);
+            }
+        } else if (falseLab != null) {
+            Codegen.generate("beq", Codegen.T0, Codegen.FALSE, falseLab);
+        }
+    }
 }
 
 class TrueNode extends ExpNode {
@@ -1558,8 +2753,46 @@ class TrueNode extends ExpNode {
         return new LogicalType();
     }
      
-    public void unparse(PrintWriter p, int indent) {
-        p.print("True");
+    public boolean isConst() {
+        return true;
+    }
+
+    public int constValue() {
+        return 1;
+    }
+
+    public boolean invariant(LoopInvariants loop) {
+        return true;
+    }
+
+    public void codeGen() {
+        Codegen.generate("li", Codegen.T0, Codegen.TRUE);
+        Codegen.genPush(Codegen.T0);
+    }
+
+    public int regNeed() {
+        return 1;
+    }
+
+    public void genReg(int k) {
+        Codegen.generate("li", Codegen.REGS[k], Codegen.TRUE);
+    }
+
+    public void genJumpCode(String trueLab, String falseLab) {
+        if (trueLab != null) {
+            Codegen.generate("j", trueLab);
+        }
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+    }
+
+    public int flatten(FlatAst flat) {
+        return flat.node(FlatAst.TRUE, myLineNum, myCharNum, 0, flat.mark());
     }
 
     private int myLineNum;
@@ -1593,26 +2826,65 @@ class FalseNode extends ExpNode {
         return new LogicalType();
     }
         
-    public void unparse(PrintWriter p, int indent) {
-        p.print("False");
+    public boolean isConst() {
+        return true;
     }
 
-    private int myLineNum;
-    private int myCharNum;
-}
+    public int constValue() {
+        return 0;
+    }
 
-class IdNode extends ExpNode {
-    public IdNode(int lineNum, int charNum, String strVal) {
-        myLineNum = lineNum;
-        myCharNum = charNum;
-        myStrVal = strVal;
+    public boolean invariant(LoopInvariants loop) {
+        return true;
     }
 
-    /***
-     * Link the given symbol to this ID.
-     ***/
-    public void link(Sym sym) {
-        mySym = sym;
+    public void codeGen() {
+        Codegen.generate("li", Codegen.T0, Codegen.FALSE);
+        Codegen.genPush(Codegen.T0);
+    }
+
+    public int regNeed() {
+        return 1;
+    }
+
+    public void genReg(int k) {
+        Codegen.generate("li", Codegen.REGS[k], Codegen.FALSE);
+    }
+
+    public void genJumpCode(String trueLab, String falseLab) {
+        if (falseLab != null) {
+            Codegen.generate("j", falseLab);
+        }
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+    }
+
+    public int flatten(FlatAst flat) {
+        return flat.node(FlatAst.FALSE, myLineNum, myCharNum, 0, flat.mark());
+    }
+
+    private int myLineNum;
+    private int myCharNum;
+}
+
+class IdNode extends ExpNode {
+    public IdNode(int lineNum, int charNum, String strVal, int nameId) {
+        myLineNum = lineNum;
+        myCharNum = charNum;
+        myStrVal = strVal;
+        myNameId = nameId;
+    }
+
+    /***
+     * Link the given symbol to this ID.
+     ***/
+    public void link(Sym sym) {
+        mySym = sym;
     }
     
     /***
@@ -1621,6 +2893,13 @@ class IdNode extends ExpNode {
     public String name() {
         return myStrVal;
     }
+
+    /***
+     * Return the id of the name of this ID (see NameTable).
+     ***/
+    public int nameId() {
+        return myNameId;
+    }
     
     /***
      * Return the symbol associated with this ID.
@@ -1670,7 +2949,7 @@ class IdNode extends ExpNode {
      * HINT: This may be useful during code generation.
      ***/
     public boolean isMain() {
-        return (myStrVal.equals("main"));
+        return myNameId == NameTable.MAIN;
     } 
 
     /***
@@ -1681,7 +2960,7 @@ class IdNode extends ExpNode {
      ***/
     public void nameAnalysis(SymTable symTab) {
 		try {
-            Sym sym = symTab.lookupGlobal(myStrVal);
+            Sym sym = symTab.lookupGlobal(myNameId);
             if (sym == null) {
                 ErrMsg.fatal(myLineNum, myCharNum, "Undeclared identifier");
             } else {
@@ -1708,6 +2987,16 @@ class IdNode extends ExpNode {
         return null;
     }
 
+    /***
+     * analyze
+     * An undeclared ID has no Sym (and there are no type errors to report
+     * anyway).
+     ***/
+    public Type analyze(SymTable symTab) {
+        nameAnalysis(symTab);
+        return mySym == null ? new ErrorType() : mySym.getType();
+    }
+
     public void genJumpAndLink(){
         if(this.isMain()){
             Codegen.generate("jal",  "main");
@@ -1717,34 +3006,87 @@ class IdNode extends ExpNode {
         
     }
 
+    /***
+     * fold
+     * A local whose value is known is replaced by a new literal with the
+     * value, at this ID's place in the source.
+     ***/
+    public ExpNode fold(ConstEnv env) {
+        ExpNode value = env.lookup(mySym);
+        if (value == null) {
+            return this;
+        }
+        if (mySym.getType().isLogicalType()) {
+            return logicalLit(value.constValue() != 0);
+        }
+        return intLit(value.constValue());
+    }
+
+    public boolean invariant(LoopInvariants loop) {
+        return !mySym.isGlobal() && !loop.assignedIn(mySym);
+    }
+
     public void codeGen(){
+        genReg(Codegen.T0);
+        Codegen.genPush(Codegen.T0);
+    }
+
+    public int regNeed() {
+        return 1;
+    }
+
+    public void genReg(int k) {
+        genReg(Codegen.REGS[k]);
+    }
+
+    /***
+     * Load the value of this (integer or logical) variable into reg.
+     ***/
+    private void genReg(String reg) {
         if(mySym.isGlobal()){
-            Codegen.generate("lw", Codegen.T0, "_" + myStrVal);
+            Codegen.generate("lw", reg, "_" + myStrVal);
         }else{
-            Codegen.generateIndexed("lw", Codegen.T0, Codegen.FP, 0);
+            Codegen.generateIndexed("lw", reg, Codegen.FP, mySym.getOffset());
+        }
+    }
+
+    /***
+     * Store the value in reg into this variable.
+     ***/
+    public void genStore(String reg) {
+        if(mySym.isGlobal()){
+            Codegen.generate("sw", reg, "_" + myStrVal);
+        }else{
+            Codegen.generateIndexed("sw", reg, Codegen.FP, mySym.getOffset());
         }
-        Codegen.genPush(Codegen.T0);
     }
 
     public void genAddr(){
         if(mySym.isGlobal()){
             Codegen.generate("la", Codegen.T0, "_" + myStrVal);
         }else{
-            Codegen.generateIndexed("la", Codegen.T0, Codegen.FP, -8);
+            Codegen.generateIndexed("la", Codegen.T0, Codegen.FP,
+                                    mySym.getOffset());
         }
         Codegen.genPush(Codegen.T0);
     }
         
-    public void unparse(PrintWriter p, int indent) {
-        p.print(myStrVal);
-        if (mySym != null) {
-            p.print("<" + mySym + ">");
-        }
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+    }
+
+    public int flatten(FlatAst flat) {
+        return flat.node(FlatAst.ID, myLineNum, myCharNum, myNameId,
+                         flat.mark());
     }
 
     private int myLineNum;
     private int myCharNum;
     private String myStrVal;
+    private int myNameId;
     private Sym mySym;
 }
 
@@ -1776,13 +3118,46 @@ class IntLitNode extends ExpNode {
         return new IntegerType();
     }
 
+    public boolean isConst() {
+        return true;
+    }
+
+    public int constValue() {
+        return myIntVal;
+    }
+
+    public boolean invariant(LoopInvariants loop) {
+        return true;
+    }
+
     public void codeGen(){
         Codegen.generate("li", Codegen.T0, myIntVal);
         Codegen.genPush(Codegen.T0);
     }
+
+    public int regNeed() {
+        return 1;
+    }
+
+    public void genReg(int k) {
+        Codegen.generate("li", Codegen.REGS[k], myIntVal);
+    }
     
-    public void unparse(PrintWriter p, int indent) {
-        p.print(myIntVal);
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+    }
+
+    public int flatten(FlatAst flat) {
+        return flat.node(FlatAst.INT_LIT, myLineNum, myCharNum, myIntVal,
+                         flat.mark());
+    }
+
+    // the children (see Unparser)
+    public int intVal() {
+        return myIntVal;
     }
 
     private int myLineNum;
@@ -1818,16 +3193,36 @@ class StrLitNode extends ExpNode {
         return new StringType();
     }
 
+    /***
+     * codeGen
+     * The string goes in the data segment (switching to it here, so that
+     * a literal anywhere in an expression is safe) and its address is
+     * pushed.
+     ***/
     public void codeGen(){
         String label = Codegen.nextLabel();
+        Codegen.generate(".data");
         Codegen.generateLabeled(label, ".asciiz " + myStrVal, "");
         Codegen.generate(".text");
         Codegen.generate("la", Codegen.T0, label);
         Codegen.genPush(Codegen.T0);
     }
         
-    public void unparse(PrintWriter p, int indent) {
-        p.print(myStrVal);
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+    }
+
+    public int flatten(FlatAst flat) {
+        return flat.node(FlatAst.STR_LIT, myLineNum, myCharNum,
+                         flat.string(myStrVal), flat.mark());
+    }
+
+    // the children (see Unparser)
+    public String strVal() {
+        return myStrVal;
     }
 
     private int myLineNum;
@@ -1941,7 +3336,7 @@ class TupleAccessNode extends ExpNode {
         // do name analysis on RHS of colon-access in the tuple's symbol table
         if (!badAccess) {
 			try {
-				sym = tupleSymTab.lookupGlobal(myId.name()); // lookup
+				sym = tupleSymTab.lookupGlobal(myId.nameId()); // lookup
 				if (sym == null) { // not found - RHS is not a valid field name
 					ErrMsg.fatal(myId.lineNum(), myId.charNum(), 
 								"Invalid tuple field name");
@@ -1970,12 +3365,40 @@ class TupleAccessNode extends ExpNode {
     public Type typeCheck() {
         return myId.typeCheck();
     }
+
+    /***
+     * analyze
+     * After an error in the colon-access, the field has no Sym (and there
+     * are no type errors to report anyway).
+     ***/
+    public Type analyze(SymTable symTab) {
+        nameAnalysis(symTab);
+        return myId.sym() == null ? new ErrorType() : myId.typeCheck();
+    }
         
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myLoc.unparse(p, 0);
-        p.print("):");
-        myId.unparse(p, 0);
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myLoc.accept(v);
+        myId.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myLoc.flatten(flat));
+        flat.push(myId.flatten(flat));
+        return flat.node(FlatAst.TUPLE_ACCESS, lineNum(), charNum(), 0, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode loc() {
+        return myLoc;
+    }
+
+    public IdNode idNode() {
+        return myId;
     }
 
     // 4 children
@@ -2017,48 +3440,116 @@ class AssignExpNode extends ExpNode {
         myExp.nameAnalysis(symTab);
     }
 
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        if (myLhs instanceof IdNode) {
+            env.assigned(((IdNode)myLhs).sym());
+        }
+        myExp.countAssigns(env);
+    }
+
+    /***
+     * fold
+     * Only the right-hand side is folded.
+     ***/
+    public ExpNode fold(ConstEnv env) {
+        myExp = myExp.fold(env);
+        return this;
+    }
+
+    public ExpNode hoistFrom(LoopInvariants loop) {
+        myExp = myExp.hoistFrom(loop);
+        return this;
+    }
+
+    /***
+     * foldAssign
+     * Called after fold for an assignment that is a statement: tell env
+     * if a constant was assigned.
+     ***/
+    public void foldAssign(ConstEnv env) {
+        if (myLhs instanceof IdNode && myExp.isConst()) {
+            env.assignedConst(((IdNode)myLhs).sym(), myExp);
+        }
+    }
+
+    /***
+     * genAssign
+     * Generate code for the assignment, leaving the value assigned in T0.
+     ***/
+    public void genAssign(){
+        myExp.genValue(Codegen.T0);
+        ((IdNode)myLhs).genStore(Codegen.T0);
+    }
+
     public void codeGen(){
-        myExp.codeGen();
-        ((IdNode)myLhs).genAddr();
+        genAssign();
+        Codegen.genPush(Codegen.T0);
+    }
 
-        Codegen.genPop(Codegen.T1);
-        Codegen.genPop(Codegen.T0);
-        Codegen.generateIndexed("sw", Codegen.T0, Codegen.T1, 0);
+    public void accept(AstVisitor v) {
+        v.visit(this);
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        if (indent != -1)  p.print("(");
-        myLhs.unparse(p, 0);
-        p.print(" = ");
-        myExp.unparse(p, 0);
-        if (indent != -1)  p.print(")");    
+    public void visitChildren(AstVisitor v) {
+        myLhs.accept(v);
+        myExp.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myLhs.flatten(flat));
+        flat.push(myExp.flatten(flat));
+        return flat.node(FlatAst.ASSIGN, lineNum(), charNum(), 0, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode lhs() {
+        return myLhs;
+    }
+
+    public ExpNode exp() {
+        return myExp;
     }
   
     /***
      * typeCheck
      ***/
     public Type typeCheck() {
-        Type typeLhs = myLhs.typeCheck();
-        Type typeExp = myExp.typeCheck();
+        return checkTypes(myLhs.typeCheck(), myExp.typeCheck());
+    }
+
+    public Type analyze(SymTable symTab) {
+        return checkTypes(myLhs.analyze(symTab), myExp.analyze(symTab));
+    }
+
+    /***
+     * checkTypes
+     * Return the type of the assignment (reporting any errors), given the
+     * types of its sides.
+     ***/
+    private Type checkTypes(Type typeLhs, Type typeExp) {
         Type retType = typeLhs;
         
         if (typeLhs.isFctnType() && typeExp.isFctnType()) {
-            ErrMsg.fatal(lineNum(), charNum(), "Assignment to function name");
+            ErrMsg.typeError(lineNum(), charNum(), "Assignment to function name");
             retType = new ErrorType();
         }
         
         if (typeLhs.isTupleDefType() && typeExp.isTupleDefType()) {
-            ErrMsg.fatal(lineNum(), charNum(), "Assignment to tuple name");
+            ErrMsg.typeError(lineNum(), charNum(), "Assignment to tuple name");
             retType = new ErrorType();
         }
         
         if (typeLhs.isTupleType() && typeExp.isTupleType()) {
-            ErrMsg.fatal(lineNum(), charNum(), "Assignment to tuple variable");
+            ErrMsg.typeError(lineNum(), charNum(), "Assignment to tuple variable");
             retType = new ErrorType();
         }        
         
         if (!typeLhs.equals(typeExp) && !typeLhs.isErrorType() && !typeExp.isErrorType()) {
-            ErrMsg.fatal(lineNum(), charNum(), "Mismatched type");
+            ErrMsg.typeError(lineNum(), charNum(), "Mismatched type");
             retType = new ErrorType();
         }
         
@@ -2082,7 +3573,7 @@ class CallExpNode extends ExpNode {
 
     public CallExpNode(IdNode name) {
         myId = name;
-        myExpList = new ExpListNode(new LinkedList<ExpNode>());
+        myExpList = new ExpListNode(new ArrayList<ExpNode>(0));
     }
 
     /***
@@ -2116,8 +3607,8 @@ class CallExpNode extends ExpNode {
      ***/
     public Type typeCheck() {
         if (!myId.typeCheck().isFctnType()) {  
-            ErrMsg.fatal(myId.lineNum(), myId.charNum(), 
-                         "Call attempt on non-function");
+            ErrMsg.typeError(myId.lineNum(), myId.charNum(), 
+                             "Call attempt on non-function");
             return new ErrorType();
         }
         
@@ -2129,28 +3620,100 @@ class CallExpNode extends ExpNode {
         }
         
         if (myExpList.size() != fctnSym.getNumParams()) {
-            ErrMsg.fatal(myId.lineNum(), myId.charNum(), 
-                         "Function call with wrong number of args");
+            ErrMsg.typeError(myId.lineNum(), myId.charNum(), 
+                             "Function call with wrong number of args");
             return fctnSym.getReturnType();
         }
         
         myExpList.typeCheck(fctnSym.getParamTypes());
         return fctnSym.getReturnType();
     }
+
+    /***
+     * analyze
+     * As typeCheck; the args of a call that has a type error are only
+     * name analyzed (as typeCheck does not look at them).  So are the args
+     * of a call to a function with a bad formal (one declared void, which
+     * has no type in getParamTypes), or of any call after a name error:
+     * typeCheck is not done at all then.
+     ***/
+    public Type analyze(SymTable symTab) {
+        if (!myId.analyze(symTab).isFctnType()) {
+            ErrMsg.typeError(myId.lineNum(), myId.charNum(),
+                             "Call attempt on non-function");
+            myExpList.nameAnalysis(symTab);
+            return new ErrorType();
+        }
+
+        FctnSym fctnSym = (FctnSym)(myId.sym());
+
+        if (myExpList.size() != fctnSym.getNumParams()) {
+            ErrMsg.typeError(myId.lineNum(), myId.charNum(),
+                             "Function call with wrong number of args");
+            myExpList.nameAnalysis(symTab);
+            return fctnSym.getReturnType();
+        }
+
+        if (ErrMsg.getErr() ||
+            fctnSym.getParamTypes().size() != fctnSym.getNumParams()) {
+            myExpList.nameAnalysis(symTab);
+            return fctnSym.getReturnType();
+        }
+
+        myExpList.analyze(symTab, fctnSym.getParamTypes());
+        return fctnSym.getReturnType();
+    }
          
+    /***
+     * countAssigns
+     ***/
+    public void countAssigns(ConstEnv env) {
+        myExpList.countAssigns(env);
+    }
+
+    /***
+     * fold
+     * The arguments are folded; the call itself is not constant.
+     ***/
+    public ExpNode fold(ConstEnv env) {
+        myExpList.fold(env);
+        return this;
+    }
+
+    public ExpNode hoistFrom(LoopInvariants loop) {
+        myExpList.hoistFrom(loop);
+        return this;
+    }
+
     public void codeGen(){
         Codegen.generate("subu", Codegen.SP, Codegen.SP, ((FctnSym)myId.sym()).getParamsSize());
         myId.genJumpAndLink();
         Codegen.genPush(Codegen.V0);
     }
-    // **** unparse ****
-    public void unparse(PrintWriter p, int indent) {
-        myId.unparse(p, 0);
-        p.print("(");
-        if (myExpList != null) {
-            myExpList.unparse(p, 0);
-        }
-        p.print(")");   
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myId.accept(v);
+        myExpList.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myId.flatten(flat));
+        flat.push(myExpList.flatten(flat));
+        return flat.node(FlatAst.CALL, lineNum(), charNum(), 0, mark);
+    }
+
+    // the children (see Unparser)
+    public IdNode idNode() {
+        return myId;
+    }
+
+    public ExpListNode expList() {
+        return myExpList;
     }
 
     // 2 children
@@ -2158,6 +3721,126 @@ class CallExpNode extends ExpNode {
     private ExpListNode myExpList;  // possibly null
 }
 
+class HoistedExpNode extends ExpNode {
+    public HoistedExpNode(ExpNode exp, int offset, boolean inTest,
+                          boolean computedByTest) {
+        myExp = exp;
+        myOffset = offset;
+        myInTest = inTest;
+        myComputedByTest = computedByTest;
+    }
+
+    /***
+     * Return the line number for this expression.
+     * The line number is the one corresponding to the hoisted expression.
+     ***/
+    public int lineNum() {
+        return myExp.lineNum();
+    }
+
+    /***
+     * Return the char number for this expression.
+     * The char number is the one corresponding to the hoisted expression.
+     ***/
+    public int charNum() {
+        return myExp.charNum();
+    }
+
+    /***
+     * typeCheck
+     ***/
+    public Type typeCheck() {
+        return myExp.typeCheck();
+    }
+
+    /***
+     * genInit
+     * Generate code that computes the hoisted expression into its slot.
+     ***/
+    public void genInit() {
+        myExp.genValue(Codegen.T0);
+        Codegen.generateIndexed("sw", Codegen.T0, Codegen.FP, myOffset,
+                                "HOISTED");
+    }
+
+    /***
+     * computedByTest
+     * Is the expression always computed by the first test of its loop (so
+     * it need not be computed after it)?
+     ***/
+    public boolean computedByTest() {
+        return myComputedByTest;
+    }
+
+    /***
+     * setFirstTest
+     * While the code for the first test of the loop is generated, the
+     * expression is computed where it is used, and saved in its slot.
+     ***/
+    public void setFirstTest(boolean firstTest) {
+        myFirstTest = firstTest;
+    }
+
+    public void codeGen() {
+        if (myFirstTest) {
+            genInit();
+        } else {
+            Codegen.generateIndexed("lw", Codegen.T0, Codegen.FP, myOffset);
+        }
+        Codegen.genPush(Codegen.T0);
+    }
+
+    /***
+     * regNeed
+     * In the test, enough registers to compute the expression (see
+     * setFirstTest); elsewhere it is only loaded.
+     ***/
+    public int regNeed() {
+        if (!myInTest) {
+            return 1;
+        }
+        int n = myExp.regNeed();
+        return n < 0 ? -1 : Math.max(n, 1);
+    }
+
+    public void genReg(int k) {
+        if (myFirstTest) {
+            myExp.genReg(k);
+            Codegen.generateIndexed("sw", Codegen.REGS[k], Codegen.FP,
+                                    myOffset, "HOISTED");
+        } else {
+            Codegen.generateIndexed("lw", Codegen.REGS[k], Codegen.FP,
+                                    myOffset);
+        }
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public void visitChildren(AstVisitor v) {
+        myExp.accept(v);
+    }
+
+    public int flatten(FlatAst flat) {
+        int mark = flat.mark();
+        flat.push(myExp.flatten(flat));
+        return flat.node(FlatAst.HOISTED, lineNum(), charNum(), myOffset, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode exp() {
+        return myExp;
+    }
+
+    // 1 child
+    private ExpNode myExp;
+    private int myOffset;   // of the slot holding the value, from $fp
+    private boolean myInTest;           // in the loop test?
+    private boolean myComputedByTest;   // always computed by the first test?
+    private boolean myFirstTest;        // generating the first test?
+}
+
 abstract class UnaryExpNode extends ExpNode {
     public UnaryExpNode(ExpNode exp) {
         myExp = exp;
@@ -2186,46 +3869,306 @@ abstract class UnaryExpNode extends ExpNode {
     public void nameAnalysis(SymTable symTab) {
         myExp.nameAnalysis(symTab);
     }
-    
-    // 1 child
-    protected ExpNode myExp;
-}
 
-abstract class BinaryExpNode extends ExpNode {
-    public BinaryExpNode(ExpNode exp1, ExpNode exp2) {
-        myExp1 = exp1;
-        myExp2 = exp2;
+    /***
+     * typeCheck
+     ***/
+    public Type typeCheck() {
+        return checkType(myExp.typeCheck());
+    }
+
+    public Type analyze(SymTable symTab) {
+        return checkType(myExp.analyze(symTab));
+    }
+
+    /***
+     * checkType
+     * Return the type of this expression (reporting any errors), given the
+     * type of the operand.
+     ***/
+    abstract protected Type checkType(Type type);
+
+    public void countAssigns(ConstEnv env) {
+        myExp.countAssigns(env);
+    }
+
+    public boolean canTrap() {
+        return myExp.canTrap();
+    }
+
+    public int regNeed() {
+        return myExp.regNeed();
+    }
+
+    public boolean invariant(LoopInvariants loop) {
+        return myExp.invariant(loop);
+    }
+
+    public ExpNode hoistFrom(LoopInvariants loop) {
+        if (invariant(loop) && loop.mayHoist(this)) {
+            return loop.hoist(this);
+        }
+        myExp = myExp.hoistFrom(loop);
+        return this;
+    }
+
+    /***
+     * genOp
+     * Generate code that applies the operator to the value in reg.
+     ***/
+    abstract protected void genOp(String reg);
+
+    public void codeGen() {
+        if (inRegs()) {
+            genReg(0);
+            Codegen.genPush(Codegen.REGS[0]);
+            return;
+        }
+        myExp.codeGen();
+        Codegen.genPop(Codegen.T0);
+        genOp(Codegen.T0);
+        Codegen.genPush(Codegen.T0);
+    }
+
+    public void genReg(int k) {
+        myExp.genReg(k);
+        genOp(Codegen.REGS[k]);
+    }
+    
+    public void visitChildren(AstVisitor v) {
+        myExp.accept(v);
+    }
+
+    /***
+     * Add this node to flat as a node of the given kind.
+     ***/
+    protected int flatten(FlatAst flat, int kind) {
+        int mark = flat.mark();
+        flat.push(myExp.flatten(flat));
+        return flat.node(kind, lineNum(), charNum(), 0, mark);
+    }
+
+    // the children (see Unparser)
+    public ExpNode exp() {
+        return myExp;
+    }
+
+    // 1 child
+    protected ExpNode myExp;
+}
+
+abstract class BinaryExpNode extends ExpNode {
+    public BinaryExpNode(ExpNode exp1, ExpNode exp2) {
+        myExp1 = exp1;
+        myExp2 = exp2;
+    }
+    
+    /***
+     * Return the line number for this binary expression node. 
+     * The line number is the one corresponding to the left operand.
+     ***/
+    public int lineNum() {
+        return myExp1.lineNum();
+    }
+    
+    /***
+     * Return the char number for this binary expression node.
+     * The char number is the one corresponding to the left operand.
+     ***/
+    public int charNum() {
+        return myExp1.charNum();
+    }
+    
+    /***
+     * nameAnalysis
+     * Given a symbol table symTab, perform name analysis on this node's 
+     * two children
+     ***/
+    public void nameAnalysis(SymTable symTab) {
+        myExp1.nameAnalysis(symTab);
+        myExp2.nameAnalysis(symTab);
+    }
+
+    /***
+     * typeCheck
+     ***/
+    public Type typeCheck() {
+        return checkTypes(myExp1.typeCheck(), myExp2.typeCheck());
+    }
+
+    public Type analyze(SymTable symTab) {
+        return checkTypes(myExp1.analyze(symTab), myExp2.analyze(symTab));
+    }
+
+    /***
+     * checkTypes
+     * Return the type of this expression (reporting any errors), given the
+     * types of the operands.
+     ***/
+    abstract protected Type checkTypes(Type type1, Type type2);
+
+    public void countAssigns(ConstEnv env) {
+        myExp1.countAssigns(env);
+        myExp2.countAssigns(env);
+    }
+
+    public ExpNode fold(ConstEnv env) {
+        myExp1 = myExp1.fold(env);
+        myExp2 = myExp2.fold(env);
+        if (myExp1.isConst() && myExp2.isConst()) {
+            ExpNode value = foldConst(myExp1.constValue(),
+                                      myExp2.constValue());
+            if (value != null) {
+                return value;
+            }
+        }
+        return this;
+    }
+
+    public boolean invariant(LoopInvariants loop) {
+        return myExp1.invariant(loop) && myExp2.invariant(loop);
+    }
+
+    public ExpNode hoistFrom(LoopInvariants loop) {
+        if (invariant(loop) && loop.mayHoist(this)) {
+            return loop.hoist(this);
+        }
+        myExp1 = myExp1.hoistFrom(loop);
+        myExp2 = myExp2.hoistFrom(loop);
+        return this;
+    }
+
+    /***
+     * Return the literal for the operator applied to v1 and v2, or null if
+     * it is not to be computed at compile time.
+     ***/
+    abstract protected ExpNode foldConst(int v1, int v2);
+
+    /***
+     * Return the op code of the instruction that applies the operator.
+     ***/
+    abstract protected String opcode();
+
+    public boolean canTrap() {
+        return myExp1.canTrap() || myExp2.canTrap();
+    }
+
+    /***
+     * regNeed
+     * The operand that needs more registers is evaluated first; if both
+     * need the same number, one more is needed to hold the first result
+     * while the second is evaluated.
+     ***/
+    public int regNeed() {
+        if (myRegNeed == 0) {
+            int n1 = myExp1.regNeed();
+            int n2 = myExp2.regNeed();
+            if (n1 < 0 || n2 < 0) {
+                myRegNeed = -1;
+            } else if (n1 == n2) {
+                myRegNeed = n1 + 1;
+            } else {
+                myRegNeed = Math.max(n1, n2);
+            }
+        }
+        return myRegNeed;
+    }
+
+    public void codeGen() {
+        if (inRegs()) {
+            genReg(0);
+            Codegen.genPush(Codegen.REGS[0]);
+            return;
+        }
+        myExp1.codeGen();
+        myExp2.codeGen();
+
+        Codegen.genPop(Codegen.T1);
+        Codegen.genPop(Codegen.T0);
+        Codegen.generate(opcode(), Codegen.T0, Codegen.T0, Codegen.T1);
+        Codegen.genPush(Codegen.T0);
+    }
+
+    public void genReg(int k) {
+        String[] regs = genOperands(k);
+        Codegen.generate(opcode(), Codegen.REGS[k], regs[0], regs[1]);
     }
-    
+
     /***
-     * Return the line number for this binary expression node. 
-     * The line number is the one corresponding to the left operand.
+     * genOperands
+     * Evaluate the two operands into registers REGS[k] and REGS[k+1] (the
+     * one that needs more registers first); returns the registers that
+     * hold the first and the second operand.
      ***/
-    public int lineNum() {
-        return myExp1.lineNum();
+    private String[] genOperands(int k) {
+        String[] regs = Codegen.REGS;
+        if (myExp2.regNeed() > myExp1.regNeed()) {
+            myExp2.genReg(k);
+            myExp1.genReg(k + 1);
+            return new String[] { regs[k + 1], regs[k] };
+        }
+        myExp1.genReg(k);
+        myExp2.genReg(k + 1);
+        return new String[] { regs[k], regs[k + 1] };
     }
-    
+
     /***
-     * Return the char number for this binary expression node.
-     * The char number is the one corresponding to the left operand.
+     * genBranch
+     * genJumpCode for a comparison: compare the operands and branch with
+     * op (taken if the comparison is true) or negOp (taken if it is false).
      ***/
-    public int charNum() {
-        return myExp1.charNum();
+    protected void genBranch(String op, String negOp, String trueLab,
+                             String falseLab) {
+        String[] regs;
+        if (inRegs()) {
+            regs = genOperands(0);
+        } else {
+            myExp1.codeGen();
+            myExp2.codeGen();
+            Codegen.genPop(Codegen.T1);
+            Codegen.genPop(Codegen.T0);
+            regs = new String[] { Codegen.T0, Codegen.T1 };
+        }
+
+        if (trueLab != null) {
+            Codegen.generate(op, regs[0], regs[1], trueLab);
+            if (falseLab != null) {
+                Codegen.generate("j", falseLab);
+            }
+        } else if (falseLab != null) {
+            Codegen.generate(negOp, regs[0], regs[1], falseLab);
+        }
     }
-    
+
+    public void visitChildren(AstVisitor v) {
+        myExp1.accept(v);
+        myExp2.accept(v);
+    }
+
     /***
-     * nameAnalysis
-     * Given a symbol table symTab, perform name analysis on this node's 
-     * two children
+     * Add this node to flat as a node of the given kind.
      ***/
-    public void nameAnalysis(SymTable symTab) {
-        myExp1.nameAnalysis(symTab);
-        myExp2.nameAnalysis(symTab);
+    protected int flatten(FlatAst flat, int kind) {
+        int mark = flat.mark();
+        flat.push(myExp1.flatten(flat));
+        flat.push(myExp2.flatten(flat));
+        return flat.node(kind, lineNum(), charNum(), 0, mark);
     }
     
+    // the children (see Unparser)
+    public ExpNode exp1() {
+        return myExp1;
+    }
+
+    public ExpNode exp2() {
+        return myExp2;
+    }
+
     // 2 children
     protected ExpNode myExp1;
     protected ExpNode myExp2;
+
+    protected int myRegNeed;  // regNeed(), once computed (0 if not yet)
 }
 
 // **********************************************************************
@@ -2238,15 +4181,14 @@ class NotNode extends UnaryExpNode {
     }
 
     /***
-     * typeCheck
+     * checkType
      ***/
-    public Type typeCheck() {
-        Type type = myExp.typeCheck();
+    protected Type checkType(Type type) {
         Type retType = new LogicalType();
         
         if (!type.isErrorType() && !type.isLogicalType()) {
-            ErrMsg.fatal(lineNum(), charNum(),
-                         "Logical operator used with non-logical operand");
+            ErrMsg.typeError(lineNum(), charNum(),
+                             "Logical operator used with non-logical operand");
             retType = new ErrorType();
         }
         
@@ -2257,10 +4199,28 @@ class NotNode extends UnaryExpNode {
         return retType;
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(~");
-        myExp.unparse(p, 0);
-        p.print(")");
+    public ExpNode fold(ConstEnv env) {
+        myExp = myExp.fold(env);
+        if (myExp.isConst()) {
+            return logicalLit(myExp.constValue() == 0);
+        }
+        return this;
+    }
+
+    protected void genOp(String reg) {
+        Codegen.generate("seq", reg, reg, Codegen.FALSE);
+    }
+
+    public void genJumpCode(String trueLab, String falseLab) {
+        myExp.genJumpCode(falseLab, trueLab);
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.NOT);
     }
 }
 
@@ -2270,15 +4230,14 @@ class UnaryMinusNode extends UnaryExpNode {
     }
 
     /***
-     * typeCheck
+     * checkType
      ***/
-    public Type typeCheck() {
-        Type type = myExp.typeCheck();
+    protected Type checkType(Type type) {
         Type retType = new IntegerType();
         
         if (!type.isErrorType() && !type.isIntegerType()) {
-            ErrMsg.fatal(lineNum(), charNum(),
-                         "Arithmetic operator used with non-integer operand");
+            ErrMsg.typeError(lineNum(), charNum(),
+                             "Arithmetic operator used with non-integer operand");
             retType = new ErrorType();
         }
         
@@ -2289,10 +4248,28 @@ class UnaryMinusNode extends UnaryExpNode {
         return retType;
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(-");
-        myExp.unparse(p, 0);
-        p.print(")");
+    public ExpNode fold(ConstEnv env) {
+        myExp = myExp.fold(env);
+        if (myExp.isConst() && myExp.constValue() != Integer.MIN_VALUE) {
+            return intLit(-myExp.constValue());
+        }
+        return this;
+    }
+
+    public boolean canTrap() {
+        return true;
+    }
+
+    protected void genOp(String reg) {
+        Codegen.generate("neg", reg, reg);
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.UNARY_MINUS);
     }
 }
 
@@ -2306,22 +4283,20 @@ abstract class ArithmeticExpNode extends BinaryExpNode {
     }
     
     /***
-     * typeCheck
+     * checkTypes
      ***/
-    public Type typeCheck() {
-        Type type1 = myExp1.typeCheck();
-        Type type2 = myExp2.typeCheck();
+    protected Type checkTypes(Type type1, Type type2) {
         Type retType = new IntegerType();
         
         if (!type1.isErrorType() && !type1.isIntegerType()) {
-            ErrMsg.fatal(myExp1.lineNum(), myExp1.charNum(),
-                         "Arithmetic operator used with non-integer operand");
+            ErrMsg.typeError(myExp1.lineNum(), myExp1.charNum(),
+                             "Arithmetic operator used with non-integer operand");
             retType = new ErrorType();
         }
         
         if (!type2.isErrorType() && !type2.isIntegerType()) {
-            ErrMsg.fatal(myExp2.lineNum(), myExp2.charNum(),
-                         "Arithmetic operator used with non-integer operand");
+            ErrMsg.typeError(myExp2.lineNum(), myExp2.charNum(),
+                             "Arithmetic operator used with non-integer operand");
             retType = new ErrorType();
         }
         
@@ -2339,22 +4314,20 @@ abstract class LogicalExpNode extends BinaryExpNode {
     }
     
     /***
-     * typeCheck
+     * checkTypes
      ***/
-    public Type typeCheck() {
-        Type type1 = myExp1.typeCheck();
-        Type type2 = myExp2.typeCheck();
+    protected Type checkTypes(Type type1, Type type2) {
         Type retType = new LogicalType();
         
         if (!type1.isErrorType() && !type1.isLogicalType()) {
-            ErrMsg.fatal(myExp1.lineNum(), myExp1.charNum(),
-                         "Logical operator used with non-logical operand");
+            ErrMsg.typeError(myExp1.lineNum(), myExp1.charNum(),
+                             "Logical operator used with non-logical operand");
             retType = new ErrorType();
         }
         
         if (!type2.isErrorType() && !type2.isLogicalType()) {
-            ErrMsg.fatal(myExp2.lineNum(), myExp2.charNum(),
-                         "Logical operator used with non-logical operand");
+            ErrMsg.typeError(myExp2.lineNum(), myExp2.charNum(),
+                             "Logical operator used with non-logical operand");
             retType = new ErrorType();
         }
         
@@ -2364,6 +4337,83 @@ abstract class LogicalExpNode extends BinaryExpNode {
         
         return retType;
     }
+
+    /***
+     * hoistFrom
+     * The second operand is not always computed.
+     ***/
+    public ExpNode hoistFrom(LoopInvariants loop) {
+        if (invariant(loop) && loop.mayHoist(this)) {
+            return loop.hoist(this);
+        }
+        myExp1 = myExp1.hoistFrom(loop);
+        boolean outer = loop.enterConditional();
+        myExp2 = myExp2.hoistFrom(loop);
+        loop.leaveConditional(outer);
+        return this;
+    }
+
+    /***
+     * regNeed
+     * The operands are evaluated one after the other into the same
+     * register, so no extra register is needed to hold the first result.
+     ***/
+    public int regNeed() {
+        if (myRegNeed == 0) {
+            int n1 = myExp1.regNeed();
+            int n2 = myExp2.regNeed();
+            if (n1 < 0 || n2 < 0) {
+                myRegNeed = -1;
+            } else {
+                myRegNeed = Math.max(n1, n2);
+            }
+        }
+        return myRegNeed;
+    }
+
+    /***
+     * genReg
+     * Evaluate the first operand into REGS[k]; if that decides the value
+     * (see decidedBy), branch past the second operand, which may trap (a
+     * division by zero), so that it is evaluated only when it is needed.
+     ***/
+    public void genReg(int k) {
+        String doneLab = Codegen.nextLabel();
+        myExp1.genReg(k);
+        Codegen.generate(decidedBy(), Codegen.REGS[k], Codegen.FALSE,
+                         doneLab);
+        myExp2.genReg(k);
+        Codegen.genLabel(doneLab);
+    }
+
+    /***
+     * decidedBy
+     * The branch, comparing the first operand with FALSE, that is taken
+     * when the first operand alone decides the value.
+     ***/
+    protected abstract String decidedBy();
+
+    /***
+     * codeGen
+     * Unless the operands are evaluated in registers (see genReg), the
+     * value is computed with jump code so that the second operand is
+     * evaluated only when it is needed.
+     ***/
+    public void codeGen() {
+        if (inRegs()) {
+            super.codeGen();
+            return;
+        }
+        String falseLab = Codegen.nextLabel();
+        String doneLab = Codegen.nextLabel();
+        genJumpCode(null, falseLab);
+        Codegen.generate("li", Codegen.T0, Codegen.TRUE);
+        Codegen.generate("j", doneLab);
+        Codegen.genLabel(falseLab);
+        Codegen.generate("li", Codegen.T0, Codegen.FALSE);
+        Codegen.genLabel(doneLab);
+        Codegen.genPush(Codegen.T0);
+    }
 }
 
 abstract class EqualityExpNode extends BinaryExpNode {
@@ -2372,40 +4422,38 @@ abstract class EqualityExpNode extends BinaryExpNode {
     }
     
     /***
-     * typeCheck
+     * checkTypes
      ***/
-    public Type typeCheck() {
-        Type type1 = myExp1.typeCheck();
-        Type type2 = myExp2.typeCheck();
+    protected Type checkTypes(Type type1, Type type2) {
         Type retType = new LogicalType();
         
         if (type1.isVoidType() && type2.isVoidType()) {
-            ErrMsg.fatal(lineNum(), charNum(),
-                         "Equality operator used with void function calls");
+            ErrMsg.typeError(lineNum(), charNum(),
+                             "Equality operator used with void function calls");
             retType = new ErrorType();
         }
         
         if (type1.isFctnType() && type2.isFctnType()) {
-            ErrMsg.fatal(lineNum(), charNum(),
-                         "Equality operator used with function names");
+            ErrMsg.typeError(lineNum(), charNum(),
+                             "Equality operator used with function names");
             retType = new ErrorType();
         }
         
         if (type1.isTupleDefType() && type2.isTupleDefType()) {
-            ErrMsg.fatal(lineNum(), charNum(),
-                         "Equality operator used with tuple names");
+            ErrMsg.typeError(lineNum(), charNum(),
+                             "Equality operator used with tuple names");
             retType = new ErrorType();
         }
         
         if (type1.isTupleType() && type2.isTupleType()) {
-            ErrMsg.fatal(lineNum(), charNum(),
-                         "Equality operator used with tuple variables");
+            ErrMsg.typeError(lineNum(), charNum(),
+                             "Equality operator used with tuple variables");
             retType = new ErrorType();
         }        
         
         if (!type1.equals(type2) && !type1.isErrorType() && !type2.isErrorType()) {
-            ErrMsg.fatal(lineNum(), charNum(),
-                         "Mismatched type");
+            ErrMsg.typeError(lineNum(), charNum(),
+                             "Mismatched type");
             retType = new ErrorType();
         }
         
@@ -2423,22 +4471,20 @@ abstract class RelationalExpNode extends BinaryExpNode {
     }
     
     /***
-     * typeCheck
+     * checkTypes
      ***/
-    public Type typeCheck() {
-        Type type1 = myExp1.typeCheck();
-        Type type2 = myExp2.typeCheck();
+    protected Type checkTypes(Type type1, Type type2) {
         Type retType = new LogicalType();
         
         if (!type1.isErrorType() && !type1.isIntegerType()) {
-            ErrMsg.fatal(myExp1.lineNum(), myExp1.charNum(),
-                         "Relational operator used with non-integer operand");
+            ErrMsg.typeError(myExp1.lineNum(), myExp1.charNum(),
+                             "Relational operator used with non-integer operand");
             retType = new ErrorType();
         }
         
         if (!type2.isErrorType() && !type2.isIntegerType()) {
-            ErrMsg.fatal(myExp2.lineNum(), myExp2.charNum(),
-                         "Relational operator used with non-integer operand");
+            ErrMsg.typeError(myExp2.lineNum(), myExp2.charNum(),
+                             "Relational operator used with non-integer operand");
             retType = new ErrorType();
         }
         
@@ -2455,12 +4501,25 @@ class PlusNode extends ArithmeticExpNode {
         super(exp1, exp2);
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myExp1.unparse(p, 0);
-        p.print(" + ");
-        myExp2.unparse(p, 0);
-        p.print(")");
+    protected ExpNode foldConst(int v1, int v2) {
+        long v = (long)v1 + v2;
+        return v == (int)v ? intLit((int)v) : null;   // add traps on overflow
+    }
+
+    public boolean canTrap() {
+        return true;
+    }
+
+    protected String opcode() {
+        return "add";
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.PLUS);
     }
 }
 
@@ -2469,12 +4528,25 @@ class MinusNode extends ArithmeticExpNode {
         super(exp1, exp2);
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myExp1.unparse(p, 0);
-        p.print(" - ");
-        myExp2.unparse(p, 0);
-        p.print(")");
+    protected ExpNode foldConst(int v1, int v2) {
+        long v = (long)v1 - v2;
+        return v == (int)v ? intLit((int)v) : null;   // sub traps on overflow
+    }
+
+    public boolean canTrap() {
+        return true;
+    }
+
+    protected String opcode() {
+        return "sub";
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.MINUS);
     }
 }
 
@@ -2483,12 +4555,20 @@ class TimesNode extends ArithmeticExpNode {
         super(exp1, exp2);
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myExp1.unparse(p, 0);
-        p.print(" * ");
-        myExp2.unparse(p, 0);
-        p.print(")");
+    protected ExpNode foldConst(int v1, int v2) {
+        return intLit(v1 * v2);
+    }
+
+    protected String opcode() {
+        return "mul";
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.TIMES);
     }
 }
 
@@ -2497,12 +4577,32 @@ class DivideNode extends ArithmeticExpNode {
         super(exp1, exp2);
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myExp1.unparse(p, 0);
-        p.print(" / ");
-        myExp2.unparse(p, 0);
-        p.print(")");
+    /***
+     * invariant
+     * Only a division by a constant (other than 0 and -1) cannot fail.
+     ***/
+    public boolean invariant(LoopInvariants loop) {
+        return super.invariant(loop) && myExp2.isConst() &&
+               myExp2.constValue() != 0 && myExp2.constValue() != -1;
+    }
+
+    protected ExpNode foldConst(int v1, int v2) {
+        if (v2 == 0 || (v1 == Integer.MIN_VALUE && v2 == -1)) {
+            return null;
+        }
+        return intLit(v1 / v2);
+    }
+
+    protected String opcode() {
+        return "div";
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.DIVIDE);
     }
 }
 
@@ -2511,22 +4611,24 @@ class EqualsNode extends EqualityExpNode {
         super(exp1, exp2);
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myExp1.unparse(p, 0);
-        p.print(" == ");
-        myExp2.unparse(p, 0);
-        p.print(")");
+    public void accept(AstVisitor v) {
+        v.visit(this);
     }
 
-    public void codeGen(){
-        myExp1.codeGen();
-        myExp2.codeGen();
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.EQUALS);
+    }
 
-        Codegen.genPop(Codegen.T1);
-        Codegen.genPop(Codegen.T0);
-        Codegen.generate("seq", Codegen.T0, Codegen.T0, Codegen.T1);
-        Codegen.genPush(Codegen.T0);
+    protected ExpNode foldConst(int v1, int v2) {
+        return logicalLit(v1 == v2);
+    }
+
+    protected String opcode() {
+        return "seq";
+    }
+
+    public void genJumpCode(String trueLab, String falseLab) {
+        genBranch("beq", "bne", trueLab, falseLab);
     }
 }
 
@@ -2535,22 +4637,24 @@ class NotEqualsNode extends EqualityExpNode {
         super(exp1, exp2);
     }
 
-    public void codeGen(){
-        myExp1.codeGen();
-        myExp2.codeGen();
+    protected ExpNode foldConst(int v1, int v2) {
+        return logicalLit(v1 != v2);
+    }
 
-        Codegen.genPop(Codegen.T1);
-        Codegen.genPop(Codegen.T0);
-        Codegen.generate("sne", Codegen.T0, Codegen.T0, Codegen.T1);
-        Codegen.genPush(Codegen.T0);
+    protected String opcode() {
+        return "sne";
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myExp1.unparse(p, 0);
-        p.print(" ~= ");
-        myExp2.unparse(p, 0);
-        p.print(")");
+    public void genJumpCode(String trueLab, String falseLab) {
+        genBranch("bne", "beq", trueLab, falseLab);
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.NOT_EQUALS);
     }
 }
 
@@ -2559,22 +4663,24 @@ class GreaterNode extends RelationalExpNode {
         super(exp1, exp2);
     }
 
-    public void codeGen(){
-        myExp1.codeGen();
-        myExp2.codeGen();
+    protected ExpNode foldConst(int v1, int v2) {
+        return logicalLit(v1 > v2);
+    }
 
-        Codegen.genPop(Codegen.T1);
-        Codegen.genPop(Codegen.T0);
-        Codegen.generate("sgt", Codegen.T0, Codegen.T0, Codegen.T1);
-        Codegen.genPush(Codegen.T0);
+    protected String opcode() {
+        return "sgt";
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myExp1.unparse(p, 0);
-        p.print(" > ");
-        myExp2.unparse(p, 0);
-        p.print(")");
+    public void genJumpCode(String trueLab, String falseLab) {
+        genBranch("bgt", "ble", trueLab, falseLab);
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.GREATER);
     }
 }
 
@@ -2583,22 +4689,24 @@ class GreaterEqNode extends RelationalExpNode {
         super(exp1, exp2);
     }
 
-    public void codeGen(){
-        myExp1.codeGen();
-        myExp2.codeGen();
+    protected ExpNode foldConst(int v1, int v2) {
+        return logicalLit(v1 >= v2);
+    }
 
-        Codegen.genPop(Codegen.T1);
-        Codegen.genPop(Codegen.T0);
-        Codegen.generate("sge", Codegen.T0, Codegen.T0, Codegen.T1);
-        Codegen.genPush(Codegen.T0);
+    protected String opcode() {
+        return "sge";
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myExp1.unparse(p, 0);
-        p.print(" >= ");
-        myExp2.unparse(p, 0);
-        p.print(")");
+    public void genJumpCode(String trueLab, String falseLab) {
+        genBranch("bge", "blt", trueLab, falseLab);
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.GREATER_EQ);
     }
 }
 
@@ -2607,23 +4715,24 @@ class LessNode extends RelationalExpNode {
         super(exp1, exp2);
     }
 
-    public void codeGen(){
-        myExp1.codeGen();
-        myExp2.codeGen();
+    protected ExpNode foldConst(int v1, int v2) {
+        return logicalLit(v1 < v2);
+    }
 
-        Codegen.genPop(Codegen.T1);
-        Codegen.genPop(Codegen.T0);
-        Codegen.generate("slt", Codegen.T0, Codegen.T0, Codegen.T1);
-        Codegen.genPush(Codegen.T0);
+    protected String opcode() {
+        return "slt";
+    }
+
+    public void genJumpCode(String trueLab, String falseLab) {
+        genBranch("blt", "bge", trueLab, falseLab);
     }
 
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myExp1.unparse(p, 0);
-        p.print(" < ");
-        myExp2.unparse(p, 0);
-        p.print(")");
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.LESS);
     }
 }
 
@@ -2632,23 +4741,24 @@ class LessEqNode extends RelationalExpNode {
         super(exp1, exp2);
     }
 
-    public void codeGen(){
-        myExp1.codeGen();
-        myExp2.codeGen();
+    protected ExpNode foldConst(int v1, int v2) {
+        return logicalLit(v1 <= v2);
+    }
 
-        Codegen.genPop(Codegen.T1);
-        Codegen.genPop(Codegen.T0);
-        Codegen.generate("sle", Codegen.T0, Codegen.T0, Codegen.T1);
-        Codegen.genPush(Codegen.T0);
+    protected String opcode() {
+        return "sle";
     }
 
+    public void genJumpCode(String trueLab, String falseLab) {
+        genBranch("ble", "bgt", trueLab, falseLab);
+    }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myExp1.unparse(p, 0);
-        p.print(" <= ");
-        myExp2.unparse(p, 0);
-        p.print(")");
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.LESS_EQ);
     }
 }
 
@@ -2657,22 +4767,52 @@ class AndNode extends LogicalExpNode {
         super(exp1, exp2);
     }
 
-    public void codeGen(){
-        myExp1.codeGen();
-        myExp2.codeGen();
+    /***
+     * fold
+     * True & x and x & True are x.
+     ***/
+    public ExpNode fold(ConstEnv env) {
+        ExpNode value = super.fold(env);
+        if (value == this && myExp1.isConst() && myExp1.constValue() != 0) {
+            return myExp2;
+        }
+        if (value == this && myExp2.isConst() && myExp2.constValue() != 0) {
+            return myExp1;
+        }
+        return value;
+    }
 
-        Codegen.genPop(Codegen.T1);
-        Codegen.genPop(Codegen.T0);
-        Codegen.generate("and", Codegen.T0, Codegen.T0, Codegen.T1);
-        Codegen.genPush(Codegen.T0);
+    protected ExpNode foldConst(int v1, int v2) {
+        return logicalLit(v1 != 0 && v2 != 0);
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myExp1.unparse(p, 0);
-        p.print(" & ");
-        myExp2.unparse(p, 0);
-        p.print(")");
+    protected String opcode() {
+        return "and";
+    }
+
+    protected String decidedBy() {
+        return "beq";
+    }
+
+    /***
+     * genJumpCode
+     * If the first operand is false, the second is not evaluated.
+     ***/
+    public void genJumpCode(String trueLab, String falseLab) {
+        String skip = falseLab != null ? falseLab : Codegen.nextLabel();
+        myExp1.genJumpCode(null, skip);
+        myExp2.genJumpCode(trueLab, falseLab);
+        if (falseLab == null) {
+            Codegen.genLabel(skip);
+        }
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.AND);
     }
 }
 
@@ -2681,21 +4821,51 @@ class OrNode extends LogicalExpNode {
         super(exp1, exp2);
     }
 
-    public void codeGen(){
-        myExp1.codeGen();
-        myExp2.codeGen();
+    /***
+     * fold
+     * False | x and x | False are x.
+     ***/
+    public ExpNode fold(ConstEnv env) {
+        ExpNode value = super.fold(env);
+        if (value == this && myExp1.isConst() && myExp1.constValue() == 0) {
+            return myExp2;
+        }
+        if (value == this && myExp2.isConst() && myExp2.constValue() == 0) {
+            return myExp1;
+        }
+        return value;
+    }
 
-        Codegen.genPop(Codegen.T1);
-        Codegen.genPop(Codegen.T0);
-        Codegen.generate("or", Codegen.T0, Codegen.T0, Codegen.T1);
-        Codegen.genPush(Codegen.T0);
+    protected ExpNode foldConst(int v1, int v2) {
+        return logicalLit(v1 != 0 || v2 != 0);
     }
 
-    public void unparse(PrintWriter p, int indent) {
-        p.print("(");
-        myExp1.unparse(p, 0);
-        p.print(" | ");
-        myExp2.unparse(p, 0);
-        p.print(")");
+    protected String opcode() {
+        return "or";
+    }
+
+    protected String decidedBy() {
+        return "bne";
+    }
+
+    /***
+     * genJumpCode
+     * If the first operand is true, the second is not evaluated.
+     ***/
+    public void genJumpCode(String trueLab, String falseLab) {
+        String skip = trueLab != null ? trueLab : Codegen.nextLabel();
+        myExp1.genJumpCode(skip, null);
+        myExp2.genJumpCode(trueLab, falseLab);
+        if (trueLab == null) {
+            Codegen.genLabel(skip);
+        }
+    }
+
+    public void accept(AstVisitor v) {
+        v.visit(this);
+    }
+
+    public int flatten(FlatAst flat) {
+        return flatten(flat, FlatAst.OR);
     }
 }
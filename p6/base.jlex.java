@@ -26,12 +26,14 @@ class IntLitTokenVal extends TokenVal {
     }
 }
 class IdTokenVal extends TokenVal {
-    // new field: the value of the identifier
+    // new fields: the value of the identifier and its id (see NameTable)
     String idVal;
+    int id;
     // constructor
-    IdTokenVal(int lineNum, int charNum, String idVal) {
+    IdTokenVal(int lineNum, int charNum, String idVal, int id) {
         super(lineNum, charNum);
         this.idVal = idVal;
+        this.id = id;
     }
 }
 class StrLitTokenVal extends TokenVal {
@@ -43,11 +45,6 @@ class StrLitTokenVal extends TokenVal {
         this.strVal = strVal;
     }
 }
-// The following class is used to keep track of the character number at 
-// which the current token starts on its line.
-class CharNum {
-    static int num = 1;
-}
 
 
 class Yylex implements java_cup.runtime.Scanner {
@@ -60,6 +57,17 @@ class Yylex implements java_cup.runtime.Scanner {
 	private final int YY_NO_ANCHOR = 4;
 	private final int YY_BOL = 128;
 	private final int YY_EOF = 129;
+
+// The number of the character at which the current token starts on its
+// line.  It is kept per scanner so that several files can be scanned at
+// the same time.
+private int charNum = 1;
+// The compilation this scanner belongs to (errors are reported to it).
+private CompilationContext ctx;
+Yylex(java.io.Reader reader, CompilationContext ctx) {
+    this(reader);
+    this.ctx = ctx;
+}
 	private java.io.BufferedReader yy_reader;
 	private int yy_buffer_index;
 	private int yy_buffer_read;
@@ -213,42 +221,21 @@ class Yylex implements java_cup.runtime.Scanner {
 			throw new Error("Fatal Error.\n");
 		}
 	}
-	private int[][] unpackFromString(int size1, int size2, String st) {
-		int colonIndex = -1;
-		String lengthString;
-		int sequenceLength = 0;
-		int sequenceInteger = 0;
-
-		int commaIndex;
-		String workString;
-
-		int res[][] = new int[size1][size2];
-		for (int i= 0; i < size1; i++) {
-			for (int j= 0; j < size2; j++) {
-				if (sequenceLength != 0) {
-					res[i][j] = sequenceInteger;
-					sequenceLength--;
-					continue;
+	private static int[][][] yy_unpackTables (String st) {
+		int tables[][][] = new int[3][][];
+		int k = 0;
+		for (int t = 0; t < 3; t++) {
+			int size1 = (st.charAt(k) << 16) | st.charAt(k + 1);
+			int size2 = (st.charAt(k + 2) << 16) | st.charAt(k + 3);
+			k += 4;
+			tables[t] = new int[size1][size2];
+			for (int i = 0; i < size1; i++) {
+				for (int j = 0; j < size2; j++) {
+					tables[t][i][j] = st.charAt(k++) - 1;
 				}
-				commaIndex = st.indexOf(',');
-				workString = (commaIndex==-1) ? st :
-					st.substring(0, commaIndex);
-				st = st.substring(commaIndex+1);
-				colonIndex = workString.indexOf(':');
-				if (colonIndex == -1) {
-					res[i][j]=Integer.parseInt(workString);
-					continue;
-				}
-				lengthString =
-					workString.substring(colonIndex+1);
-				sequenceLength=Integer.parseInt(lengthString);
-				workString=workString.substring(0,colonIndex);
-				sequenceInteger=Integer.parseInt(workString);
-				res[i][j] = sequenceInteger;
-				sequenceLength--;
 			}
 		}
-		return res;
+		return tables;
 	}
 	private int yy_acpt[] = {
 		/* 0 */ YY_NOT_ACCEPT,
@@ -290,7 +277,7 @@ class Yylex implements java_cup.runtime.Scanner {
 		/* 36 */ YY_NO_ANCHOR,
 		/* 37 */ YY_NO_ANCHOR,
 		/* 38 */ YY_NO_ANCHOR,
-		/* 39 */ YY_NO_ANCHOR,
+		/* 39 */ YY_NOT_ACCEPT,
 		/* 40 */ YY_NO_ANCHOR,
 		/* 41 */ YY_NO_ANCHOR,
 		/* 42 */ YY_NO_ANCHOR,
@@ -298,97 +285,53 @@ class Yylex implements java_cup.runtime.Scanner {
 		/* 44 */ YY_NO_ANCHOR,
 		/* 45 */ YY_NO_ANCHOR,
 		/* 46 */ YY_NO_ANCHOR,
-		/* 47 */ YY_NO_ANCHOR,
-		/* 48 */ YY_NO_ANCHOR,
-		/* 49 */ YY_NO_ANCHOR,
-		/* 50 */ YY_NO_ANCHOR,
-		/* 51 */ YY_NOT_ACCEPT,
-		/* 52 */ YY_NO_ANCHOR,
-		/* 53 */ YY_NO_ANCHOR,
-		/* 54 */ YY_NO_ANCHOR,
-		/* 55 */ YY_NO_ANCHOR,
-		/* 56 */ YY_NO_ANCHOR,
-		/* 57 */ YY_NO_ANCHOR,
-		/* 58 */ YY_NO_ANCHOR,
-		/* 59 */ YY_NO_ANCHOR,
-		/* 60 */ YY_NO_ANCHOR,
-		/* 61 */ YY_NO_ANCHOR,
-		/* 62 */ YY_NO_ANCHOR,
-		/* 63 */ YY_NO_ANCHOR,
-		/* 64 */ YY_NO_ANCHOR,
-		/* 65 */ YY_NO_ANCHOR,
-		/* 66 */ YY_NO_ANCHOR,
-		/* 67 */ YY_NO_ANCHOR,
-		/* 68 */ YY_NO_ANCHOR,
-		/* 69 */ YY_NO_ANCHOR,
-		/* 70 */ YY_NO_ANCHOR,
-		/* 71 */ YY_NO_ANCHOR,
-		/* 72 */ YY_NO_ANCHOR,
-		/* 73 */ YY_NO_ANCHOR,
-		/* 74 */ YY_NO_ANCHOR,
-		/* 75 */ YY_NO_ANCHOR,
-		/* 76 */ YY_NO_ANCHOR,
-		/* 77 */ YY_NO_ANCHOR,
-		/* 78 */ YY_NO_ANCHOR,
-		/* 79 */ YY_NO_ANCHOR,
-		/* 80 */ YY_NO_ANCHOR,
-		/* 81 */ YY_NO_ANCHOR,
-		/* 82 */ YY_NO_ANCHOR,
-		/* 83 */ YY_NO_ANCHOR,
-		/* 84 */ YY_NO_ANCHOR,
-		/* 85 */ YY_NO_ANCHOR,
-		/* 86 */ YY_NO_ANCHOR,
-		/* 87 */ YY_NO_ANCHOR,
-		/* 88 */ YY_NO_ANCHOR,
-		/* 89 */ YY_NO_ANCHOR,
-		/* 90 */ YY_NO_ANCHOR,
-		/* 91 */ YY_NO_ANCHOR,
-		/* 92 */ YY_NO_ANCHOR,
-		/* 93 */ YY_NO_ANCHOR,
-		/* 94 */ YY_NO_ANCHOR,
-		/* 95 */ YY_NO_ANCHOR,
-		/* 96 */ YY_NO_ANCHOR,
-		/* 97 */ YY_NO_ANCHOR,
-		/* 98 */ YY_NO_ANCHOR,
-		/* 99 */ YY_NO_ANCHOR,
-		/* 100 */ YY_NO_ANCHOR,
-		/* 101 */ YY_NO_ANCHOR,
-		/* 102 */ YY_NO_ANCHOR
+		/* 47 */ YY_NO_ANCHOR
 	};
-	private int yy_cmap[] = unpackFromString(1,130,
-"52:9,30,29,52:2,28,52:18,30,31,24,52,32,52,46,27,35,36,50,48,40,49,41,51,23" +
-":10,39,52,43,44,42,25,52,21:5,15,21:13,13,21:6,37,26,38,52,22,52,8,21,7,4,1" +
-"1,19,6,20,3,21:2,5,21,9,2,17,21,12,16,10,14,1,18,21:3,33,47,34,45,52,0:2")[0];
-
-	private int yy_rmap[] = unpackFromString(1,103,
-"0,1,2,3,4,1:2,5,6,1:9,7,8,9,10,1:2,11,12,1:2,13,1,14,1:8,13:4,1,13:7,15,16," +
-"17,18,19,20,21,22,23,24,19,25,26,27,28,29,30,31,32,33,34,35,13,36,37,38,39," +
-"40,41,42,43,44,45,46,47,48,49,50,51,52,53,54,13,55,56,57,58,59,60,61,62,63")[0];
-
-	private int yy_nxt[][] = unpackFromString(64,53,
-"1,2,93,52,93,95,93:4,97,98,99,100,93,101,93:2,102,93:4,3,4,5:3,-1,6,7,53,8," +
-"9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25,26,27,5,-1:54,93,71,93:19" +
-",73:2,-1:52,3,-1:30,4:23,29,4,30,4:2,-1,4:23,-1:30,7,-1:23,8:28,-1,8:23,-1:" +
-"42,31,-1,32,-1:51,33,34,-1:52,35,-1:52,36,-1:56,37,-1:53,38,-1:4,93:21,73:2" +
-",-1:30,54:8,4:2,54:5,72,54:7,4,-1,4:2,54,-1,54:23,-1,51:23,43,51:4,-1,51:23" +
-",-1,93:8,74,93:9,28,93:2,73:2,-1:60,8,-1:22,54:23,43,54,57,54:2,-1,54:23,-1" +
-",61:23,-1,61,63,61:2,-1,61:23,-1,93:3,39,93:17,73:2,-1:30,51:8,54:2,51:5,54" +
-",51:7,55,51,54:2,51,-1,51:23,-1,93:10,40,93:10,73:2,-1:30,54:8,72:2,54:5,72" +
-",54:7,4,51,72:2,54,-1,54:23,-1,93:3,41,93:17,73:2,-1:30,93:10,42,93:10,73:2" +
-",-1:38,61:2,-1:5,61,-1:7,61,-1,61:2,-1:26,93:10,44,93:10,73:2,-1:30,93:10,4" +
-"5,93:10,73:2,-1:30,93:10,46,93:10,73:2,-1:30,93:10,47,93:10,73:2,-1:30,93:8" +
-",48,93:12,73:2,-1:30,93:11,49,93:9,73:2,-1:30,93:4,50,93:16,73:2,-1:30,93:2" +
-",56,93:18,73:2,-1:30,72:23,29,72,59,72:2,-1,72:23,-1,93:9,82,93:11,73:2,-1:" +
-"30,93:5,96,93:15,73:2,-1:30,93:16,83,93:4,73:2,-1:30,93:15,58,93:5,73:2,-1:" +
-"30,93:7,60,93,84,93:11,73:2,-1:30,93:13,62,93:7,73:2,-1:30,93:4,85,93:16,73" +
-":2,-1:30,93:2,86,93:18,73:2,-1:30,93:10,88,93:10,73:2,-1:30,93:4,64,93:16,7" +
-"3:2,-1:30,93:13,90,93:7,73:2,-1:30,93:15,65,93:5,73:2,-1:30,93:9,66,93:11,7" +
-"3:2,-1:30,93:4,67,93:16,73:2,-1:30,93:5,91,93:15,73:2,-1:30,93:6,92,93:14,7" +
-"3:2,-1:30,93:11,68,93:9,73:2,-1:30,93:10,69,93:10,73:2,-1:30,93:7,70,93:13," +
-"73:2,-1:30,93:2,87,93:18,73:2,-1:30,93,75,93:19,73:2,-1:30,93:2,89,93:18,73" +
-":2,-1:30,93:13,76,93:7,73:2,-1:30,93:4,77,93:16,73:2,-1:30,93:10,78,93:10,7" +
-"3:2,-1:30,93:11,79,93:9,73:2,-1:30,93:7,80,93:13,73:2,-1:30,93:11,81,93:7,9" +
-"4,93,73:2,-1:29");
+	private static final int yy_tables[][][] = yy_unpackTables(
+		"\000\001\000\202\042\042\042\042\042\042\042\042\042\014\013\042\042\011\042" +
+		"\042\042\042\042\042\042\042\042\042\042\042\042\042\042\042\042\042\014\015" +
+		"\004\042\016\042\034\007\021\022 \036\026\037\027!\003\003\003\003\003\003\003" +
+		"\003\003\003\025\042\031\032\030\005\042\002\002\002\002\002\002\002\002\002" +
+		"\002\002\002\002\002\002\002\002\002\002\002\002\002\002\002\002\002\023\006" +
+		"\024\042\002\042\002\002\002\002\002\002\002\002\002\002\002\002\002\010\002" +
+		"\002\002\002\012\010\002\002\002\002\002\002\017\035\020\033\042\001\001\000" +
+		"\001\0000\001\002\003\004\005\002\002\006\007\002\002\002\002\002\002\002\002" +
+		"\002\010\011\012\013\002\002\014\015\002\002\002\016\002\002\002\002\002\002" +
+		"\002\002\002\017\020\021\022\023\024\022\025\026\000\026\000\042\002\003\004" +
+		"\005\006\006\006\003\000\003\007\010)\011\012\013\014\015\016\017\020\021\022" +
+		"\023\024\025\026\027\030\031\032\033\034\006\000\000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\003\003\000\000\000\000\003\000\003\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\004\000\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\005\005\035\005\036\005\005\005\005\000\005\005\005\005\005\005\005\005\005" +
+		"\005\005\005\005\005\005\005\005\005\005\005\005\005\005\000\000\000\000\000" +
+		"\000\000\000\000\000\000\010\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\000\011\011\011\011\011\011\011\011" +
+		"\011\000\011\011\011\011\011\011\011\011\011\011\011\011\011\011\011\011\011" +
+		"\011\011\011\011\011\011\000\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\037\000 \000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000!\042\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\000\000#\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000$\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000%\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\000&\000\000\000\000**\005\000\005" +
+		"\005\005*0\000***********************\000(('((((((\000(((((((((((((((((((((" +
+		"((\000\000\000\000\000\000\000\000\000\000\000\000\011\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000**'*,****\000" +
+		"***********************\000..\000./....\000.......................\000((+(*" +
+		"**(*\000(((((((((((((((((((((((\000**\005(000*0\000***********************\000" +
+		"\000\000.\000...\000.\000\000\000\000\000\000\000\000\000\000\000\000\000\000" +
+		"\000\000\000\000\000\000\000\000\000\000\00000\0350-0000\000000000000000000" +
+		"00000000");
+	private static final int yy_cmap[] = yy_tables[0][0];
+	private static final int yy_rmap[] = yy_tables[1][0];
+	private static final int yy_nxt[][] = yy_tables[2];
 
 	public java_cup.runtime.Symbol next_token ()
 		throws java.io.IOException {
@@ -441,26 +384,42 @@ return new Symbol(sym.EOF);
 						break;
 					case 2:
 						{
+            // keywords match this rule too; see Keywords
+            int kind = Keywords.lookup(yy_buffer, yy_buffer_start, yylength());
+            if (kind >= 0) {
+                Symbol S = new Symbol(kind, new TokenVal(yyline+1, charNum));
+                charNum += yylength();
+                return S;
+            }
+            // looked up straight from the buffer: no String is made for a
+            // name that has been seen before
+            NameTable names = ctx.names();
+            int id = names.id(yy_buffer, yy_buffer_start, yylength());
             Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
+                             new IdTokenVal(yyline+1, charNum, names.name(id), id));
+            charNum += yylength();
             return S;
           }
 					case -3:
 						break;
 					case 3:
-						{ double val = Double.parseDouble(yytext());
-            int intVal;
-            if (val > Integer.MAX_VALUE) {
-                ErrMsg.warn(yyline+1, CharNum.num,
-                            "integer literal too large - using max value");
-                intVal = Integer.MAX_VALUE;
-            } else {
-                intVal = Integer.parseInt(yytext());
+						{ // the value is computed from the digits in the buffer (no
+            // String is made); a digit that would take it past the largest
+            // integer means the literal is too large
+            int intVal = 0;
+            for (int i = yy_buffer_start; i < yy_buffer_end; i++) {
+                int digit = yy_buffer[i] - '0';
+                if (intVal > (Integer.MAX_VALUE - digit) / 10) {
+                    ctx.warn(yyline+1, charNum,
+                                "integer literal too large - using max value");
+                    intVal = Integer.MAX_VALUE;
+                    break;
+                }
+                intVal = 10 * intVal + digit;
             }
             Symbol S = new Symbol(sym.INTLITERAL,
-                             new IntLitTokenVal(yyline+1, CharNum.num, intVal));
-            CharNum.num += yytext().length();
+                             new IntLitTokenVal(yyline+1, charNum, intVal));
+            charNum += yylength();
             return S;
           }
 					case -4:
@@ -468,24 +427,24 @@ return new Symbol(sym.EOF);
 					case 4:
 						{
             // unterminated string
-            ErrMsg.fatal(yyline+1, CharNum.num,
+            ctx.fatal(yyline+1, charNum,
                          "unterminated string literal ignored");
           }
 					case -5:
 						break;
 					case 5:
-						{ ErrMsg.fatal(yyline+1, CharNum.num,
+						{ ctx.fatal(yyline+1, charNum,
                          "illegal character ignored: " + yytext());
-            CharNum.num++;
+            charNum++;
           }
 					case -6:
 						break;
 					case 6:
-						{ CharNum.num = 1; }
+						{ charNum = 1; }
 					case -7:
 						break;
 					case 7:
-						{ CharNum.num += yytext().length(); }
+						{ charNum += yytext().length(); }
 					case -8:
 						break;
 					case 8:
@@ -495,755 +454,284 @@ return new Symbol(sym.EOF);
 					case -9:
 						break;
 					case 9:
-						{ Symbol S = new Symbol(sym.LCURLY, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.LCURLY, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -10:
 						break;
 					case 10:
-						{ Symbol S = new Symbol(sym.RCURLY, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.RCURLY, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -11:
 						break;
 					case 11:
-						{ Symbol S = new Symbol(sym.LPAREN, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.LPAREN, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -12:
 						break;
 					case 12:
-						{ Symbol S = new Symbol(sym.RPAREN, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.RPAREN, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -13:
 						break;
 					case 13:
-						{ Symbol S = new Symbol(sym.LSQBRACKET, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.LSQBRACKET, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -14:
 						break;
 					case 14:
-						{ Symbol S = new Symbol(sym.RSQBRACKET, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.RSQBRACKET, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -15:
 						break;
 					case 15:
-						{ Symbol S = new Symbol(sym.COLON, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.COLON, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -16:
 						break;
 					case 16:
-						{ Symbol S = new Symbol(sym.COMMA, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.COMMA, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -17:
 						break;
 					case 17:
-						{ Symbol S = new Symbol(sym.DOT, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.DOT, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -18:
 						break;
 					case 18:
-						{ Symbol S = new Symbol(sym.GREATER, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.GREATER, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -19:
 						break;
 					case 19:
-						{ Symbol S = new Symbol(sym.LESS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.LESS, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -20:
 						break;
 					case 20:
-						{ Symbol S = new Symbol(sym.ASSIGN, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.ASSIGN, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -21:
 						break;
 					case 21:
-						{ Symbol S = new Symbol(sym.NOT, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.NOT, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -22:
 						break;
 					case 22:
-						{ Symbol S = new Symbol(sym.AND, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.AND, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -23:
 						break;
 					case 23:
-						{ Symbol S = new Symbol(sym.OR, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.OR, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -24:
 						break;
 					case 24:
-						{ Symbol S = new Symbol(sym.PLUS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.PLUS, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -25:
 						break;
 					case 25:
-						{ Symbol S = new Symbol(sym.MINUS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.MINUS, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -26:
 						break;
 					case 26:
-						{ Symbol S = new Symbol(sym.TIMES, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.TIMES, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -27:
 						break;
 					case 27:
-						{ Symbol S = new Symbol(sym.DIVIDE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
+						{ Symbol S = new Symbol(sym.DIVIDE, new TokenVal(yyline+1, charNum));
+            charNum++;
             return S;
           }
 					case -28:
 						break;
 					case 28:
-						{ Symbol S = new Symbol(sym.IF, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
+						{
+            String strVal = yytext();
+            Symbol S = new Symbol(sym.STRLITERAL,
+                             new StrLitTokenVal(yyline+1, charNum, strVal));
+            charNum += yytext().length();
             return S;
           }
 					case -29:
 						break;
 					case 29:
 						{
-            String strVal = yytext();
-            Symbol S = new Symbol(sym.STRLITERAL,
-                             new StrLitTokenVal(yyline+1, CharNum.num, strVal));
-            CharNum.num += yytext().length();
-            return S;
+            // bad escape character
+            ctx.fatal(yyline+1, charNum,
+             "unterminated string literal with bad escaped character ignored");
           }
 					case -30:
 						break;
 					case 30:
-						{
-            // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
-             "unterminated string literal with bad escaped character ignored");
+						{ Symbol S = new Symbol(sym.INPUTOP, new TokenVal(yyline+1, charNum));
+            charNum += 2;
+            return S;
           }
 					case -31:
 						break;
 					case 31:
-						{ Symbol S = new Symbol(sym.INPUTOP, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
+						{ Symbol S = new Symbol(sym.GREATEREQ, new TokenVal(yyline+1, charNum));
+            charNum += 2;
             return S;
           }
 					case -32:
 						break;
 					case 32:
-						{ Symbol S = new Symbol(sym.GREATEREQ, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
+						{ Symbol S = new Symbol(sym.OUTPUTOP, new TokenVal(yyline+1, charNum));
+            charNum += 2;
             return S;
           }
 					case -33:
 						break;
 					case 33:
-						{ Symbol S = new Symbol(sym.OUTPUTOP, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
+						{ Symbol S = new Symbol(sym.LESSEQ, new TokenVal(yyline+1, charNum));
+            charNum += 2;
             return S;
           }
 					case -34:
 						break;
 					case 34:
-						{ Symbol S = new Symbol(sym.LESSEQ, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
+						{ Symbol S = new Symbol(sym.EQUALS, new TokenVal(yyline+1, charNum));
+            charNum += 2;
             return S;
           }
 					case -35:
 						break;
 					case 35:
-						{ Symbol S = new Symbol(sym.EQUALS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
+						{ Symbol S = new Symbol(sym.NOTEQUALS, new TokenVal(yyline+1, charNum));
+            charNum += 2;
             return S;
           }
 					case -36:
 						break;
 					case 36:
-						{ Symbol S = new Symbol(sym.NOTEQUALS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
+						{ Symbol S = new Symbol(sym.PLUSPLUS, new TokenVal(yyline+1, charNum));
+            charNum += 2;
             return S;
           }
 					case -37:
 						break;
 					case 37:
-						{ Symbol S = new Symbol(sym.PLUSPLUS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
+						{ Symbol S = new Symbol(sym.MINUSMINUS, new TokenVal(yyline+1, charNum));
+            charNum += 2;
             return S;
           }
 					case -38:
 						break;
 					case 38:
-						{ Symbol S = new Symbol(sym.MINUSMINUS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
-            return S;
-          }
-					case -39:
-						break;
-					case 39:
-						{ Symbol S = new Symbol(sym.VOID, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -40:
-						break;
-					case 40:
-						{ Symbol S = new Symbol(sym.ELSE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -41:
-						break;
-					case 41:
-						{ Symbol S = new Symbol(sym.READ, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -42:
-						break;
-					case 42:
-						{ Symbol S = new Symbol(sym.TRUE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -43:
-						break;
-					case 43:
 						{
             // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
+            ctx.fatal(yyline+1, charNum,
                          "string literal with bad escaped character ignored");
-            CharNum.num += yytext().length();
-          }
-					case -44:
-						break;
-					case 44:
-						{ Symbol S = new Symbol(sym.TUPLE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -45:
-						break;
-					case 45:
-						{ Symbol S = new Symbol(sym.FALSE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -46:
-						break;
-					case 46:
-						{ Symbol S = new Symbol(sym.WRITE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -47:
-						break;
-					case 47:
-						{ Symbol S = new Symbol(sym.WHILE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -48:
-						break;
-					case 48:
-						{ Symbol S = new Symbol(sym.RETURN, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
+            charNum += yytext().length();
           }
-					case -49:
-						break;
-					case 49:
-						{ Symbol S = new Symbol(sym.INTEGER, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -50:
-						break;
-					case 50:
-						{ Symbol S = new Symbol(sym.LOGICAL, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -51:
-						break;
-					case 52:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -52:
+					case -39:
 						break;
-					case 53:
-						{ ErrMsg.fatal(yyline+1, CharNum.num,
+					case 40:
+						{ ctx.fatal(yyline+1, charNum,
                          "illegal character ignored: " + yytext());
-            CharNum.num++;
+            charNum++;
           }
-					case -53:
+					case -40:
 						break;
-					case 54:
+					case 41:
 						{
             // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
+            ctx.fatal(yyline+1, charNum,
              "unterminated string literal with bad escaped character ignored");
           }
-					case -54:
+					case -41:
 						break;
-					case 55:
+					case 42:
 						{
             // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
+            ctx.fatal(yyline+1, charNum,
                          "string literal with bad escaped character ignored");
-            CharNum.num += yytext().length();
+            charNum += yytext().length();
           }
-					case -55:
-						break;
-					case 56:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -56:
+					case -42:
 						break;
-					case 57:
+					case 43:
 						{
             // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
+            ctx.fatal(yyline+1, charNum,
              "unterminated string literal with bad escaped character ignored");
           }
-					case -57:
-						break;
-					case 58:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -58:
+					case -43:
 						break;
-					case 59:
+					case 44:
 						{
             // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
+            ctx.fatal(yyline+1, charNum,
              "unterminated string literal with bad escaped character ignored");
           }
-					case -59:
-						break;
-					case 60:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -60:
+					case -44:
 						break;
-					case 61:
+					case 45:
 						{
             // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
+            ctx.fatal(yyline+1, charNum,
              "unterminated string literal with bad escaped character ignored");
           }
-					case -61:
-						break;
-					case 62:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -62:
+					case -45:
 						break;
-					case 63:
+					case 46:
 						{
             // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
+            ctx.fatal(yyline+1, charNum,
              "unterminated string literal with bad escaped character ignored");
           }
-					case -63:
-						break;
-					case 64:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -64:
-						break;
-					case 65:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -65:
-						break;
-					case 66:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -66:
-						break;
-					case 67:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -67:
-						break;
-					case 68:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -68:
-						break;
-					case 69:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -69:
-						break;
-					case 70:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -70:
-						break;
-					case 71:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -71:
+					case -46:
 						break;
-					case 72:
+					case 47:
 						{
             // unterminated string
-            ErrMsg.fatal(yyline+1, CharNum.num,
+            ctx.fatal(yyline+1, charNum,
                          "unterminated string literal ignored");
           }
-					case -72:
-						break;
-					case 73:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -73:
-						break;
-					case 74:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -74:
-						break;
-					case 75:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -75:
-						break;
-					case 76:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -76:
-						break;
-					case 77:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -77:
-						break;
-					case 78:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -78:
-						break;
-					case 79:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -79:
-						break;
-					case 80:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -80:
-						break;
-					case 81:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -81:
-						break;
-					case 82:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -82:
-						break;
-					case 83:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -83:
-						break;
-					case 84:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -84:
-						break;
-					case 85:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -85:
-						break;
-					case 86:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -86:
-						break;
-					case 87:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -87:
-						break;
-					case 88:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -88:
-						break;
-					case 89:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -89:
-						break;
-					case 90:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -90:
-						break;
-					case 91:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -91:
-						break;
-					case 92:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -92:
-						break;
-					case 93:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -93:
-						break;
-					case 94:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -94:
-						break;
-					case 95:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -95:
-						break;
-					case 96:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -96:
-						break;
-					case 97:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -97:
-						break;
-					case 98:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -98:
-						break;
-					case 99:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -99:
-						break;
-					case 100:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -100:
-						break;
-					case 101:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -101:
-						break;
-					case 102:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -102:
+					case -47:
 						break;
 					default:
 						yy_error(YY_E_INTERNAL,false);
@@ -5,6 +5,12 @@
   See below for copyright notice, license, and disclaimer.
   New releases from http://www.cs.princeton.edu/~appel/modern/java/JLex/
 
+  Local change (CS536):
+   New %statictables directive: yy_cmap, yy_rmap and yy_nxt become static
+     final arrays, shared by all lexers of the class and decoded once when
+     the class is initialized from a string holding one char per table
+     value, instead of being parsed from decimal text for every lexer.
+
   Version 1.2.6, 2/7/03, [C. Scott Ananian]
    Renamed 'assert' function 'ASSERT' to accomodate Java 1.4's new keyword.
    Fixed a bug which certain forms of comment in the JLex directives section
@@ -291,6 +297,7 @@ class CSpec
   boolean m_unix;
   boolean m_public;
   boolean m_ignorecase;
+  boolean m_static_tables;
 
   char m_init_code[];
   int m_init_read;
@@ -373,6 +380,7 @@ class CSpec
         m_public = false;
 	m_yyeof = false;
 	m_ignorecase = false;
+	m_static_tables = false;
 
 	/* Initialize variables for JLex runtime options. */
 	m_verbose = true;
@@ -1068,6 +1076,12 @@ class CEmit
 	m_outstream.println("\t}");*/
 
 
+	if (null != static_tables())
+	  {
+	    emit_static_unpack();
+	    return;
+	  }
+
 	// Function: private int [][] unpackFromString(int size1, int size2, String st)
 	// Added 6/24/98 Raimondas Lencevicius
 	// May be made more efficient by replacing String operations
@@ -1212,6 +1226,23 @@ class CEmit
 	  }
 	m_outstream.println("\t};");
 
+	String st = static_tables();
+	if (null != st)
+	  {
+	    m_outstream.println("\tprivate static final int yy_tables[][][] ="
+				+ " yy_unpackTables(");
+	    emit_string(st);
+	    m_outstream.println(");");
+	    m_outstream.println("\tprivate static final int yy_cmap[] ="
+				+ " yy_tables[0][0];");
+	    m_outstream.println("\tprivate static final int yy_rmap[] ="
+				+ " yy_tables[1][0];");
+	    m_outstream.println("\tprivate static final int yy_nxt[][] ="
+				+ " yy_tables[2];");
+	    m_outstream.println();
+	    return;
+	  }
+
 	// CSA: modified yy_cmap to use string packing 9-Aug-1999
 	int[] yy_cmap = new int[m_spec.m_ccls_map.length];
 	for (i = 0; i < m_spec.m_ccls_map.length; ++i)
@@ -1244,6 +1275,142 @@ class CEmit
 	m_outstream.println();
       }
 
+  /***************************************************************
+    Function: static_tables
+    Description: For %statictables, returns yy_cmap, yy_rmap and
+    yy_nxt encoded as a string: for each table, its two sizes as
+    two chars each (high half first), then its values, row by row,
+    one char each, as value + 1 (so -1, no transition, is 0).
+    Returns null if %statictables is off, or if the string would
+    not fit in a class file constant (more than 65535 bytes of
+    modified UTF-8); the tables are then packed as before.
+    **************************************************************/
+  private String m_static_tables;
+  private boolean m_static_tables_done = false;
+
+  private String static_tables() {
+	if (m_static_tables_done) {
+	  return m_static_tables;
+	}
+	m_static_tables_done = true;
+	if (!m_spec.m_static_tables) {
+	  return null;
+	}
+
+	int[] yy_cmap = new int[m_spec.m_ccls_map.length];
+	for (int i = 0; i < m_spec.m_ccls_map.length; ++i)
+	    yy_cmap[i] = m_spec.m_col_map[m_spec.m_ccls_map[i]];
+	int size = m_spec.m_dtrans_vector.size();
+	int[][] yy_nxt = new int[size][];
+	for (int elem = 0; elem < size; elem++) {
+	    yy_nxt[elem] =
+	      ((CDTrans) m_spec.m_dtrans_vector.elementAt(elem)).m_dtrans;
+	}
+	int[][][] tables = {
+	  new int[][] { yy_cmap },
+	  new int[][] { m_spec.m_row_map },
+	  yy_nxt
+	};
+
+	StringBuffer st = new StringBuffer();
+	int utflen = 0;
+	for (int t = 0; t < tables.length; ++t) {
+	  int[][] ia = tables[t];
+	  int size1 = ia.length;
+	  int size2 = ia.length > 0 ? ia[0].length : 0;
+	  st.append((char) (size1 >>> 16)).append((char) size1);
+	  st.append((char) (size2 >>> 16)).append((char) size2);
+	  for (int i = 0; i < ia.length; ++i) {
+	    for (int j = 0; j < ia[i].length; ++j) {
+	      if (ia[i][j] < -1 || ia[i][j] > 0xfffe) {
+		return null;
+	      }
+	      st.append((char) (ia[i][j] + 1));
+	    }
+	  }
+	}
+	for (int k = 0; k < st.length(); ++k) {
+	  char c = st.charAt(k);
+	  utflen += (c >= 1 && c <= 0x7f) ? 1 : (c <= 0x7ff ? 2 : 3);
+	}
+	if (utflen > 65535) {
+	  if (m_spec.m_verbose) {
+	    System.out.println("Tables too large for %statictables;"
+			       + " packing them as strings.");
+	  }
+	  return null;
+	}
+	m_static_tables = st.toString();
+	return m_static_tables;
+  }
+
+  /***************************************************************
+    Function: emit_string
+    Description: Output a string literal holding st, in 75 character
+    chunks.  Only printable ASCII is output as itself; other chars
+    are written as octal escapes (or \\u escapes above 255), which
+    javac reads after it has taken apart the source, so that they
+    cannot end a line or the literal.
+    **************************************************************/
+  private void emit_string(String st) {
+	StringBuffer outstr = new StringBuffer();
+	for (int k = 0; k < st.length(); ++k) {
+	  char c = st.charAt(k);
+	  if (c >= ' ' && c <= '~' && c != '"' && c != '\\') {
+	    outstr.append(c);
+	  } else if (c <= 0xff) {
+	    outstr.append('\\');
+	    outstr.append((char) ('0' + (c >> 6)));
+	    outstr.append((char) ('0' + ((c >> 3) & 7)));
+	    outstr.append((char) ('0' + (c & 7)));
+	  } else {
+	    String hex = Integer.toHexString(c);
+	    outstr.append("\\u");
+	    for (int i = hex.length(); i < 4; ++i) {
+	      outstr.append('0');
+	    }
+	    outstr.append(hex);
+	  }
+	  if (outstr.length() >= 75) {
+	    m_outstream.println("\t\t\"" + outstr + "\" +");
+	    outstr = new StringBuffer();
+	  }
+	}
+	m_outstream.print("\t\t\"" + outstr + "\"");
+  }
+
+  /***************************************************************
+    Function: emit_static_unpack
+    Description: Emits the function that decodes the string made by
+    static_tables.  It runs once, when the class is initialized.
+    **************************************************************/
+  private void emit_static_unpack
+    (
+     )
+      throws java.io.IOException
+      {
+	m_outstream.println("\tprivate static int[][][] yy_unpackTables"
+			    + " (String st) {");
+	m_outstream.println("\t\tint tables[][][] = new int[3][][];");
+	m_outstream.println("\t\tint k = 0;");
+	m_outstream.println("\t\tfor (int t = 0; t < 3; t++) {");
+	m_outstream.println("\t\t\tint size1 = (st.charAt(k) << 16)"
+			    + " | st.charAt(k + 1);");
+	m_outstream.println("\t\t\tint size2 = (st.charAt(k + 2) << 16)"
+			    + " | st.charAt(k + 3);");
+	m_outstream.println("\t\t\tk += 4;");
+	m_outstream.println("\t\t\ttables[t] = new int[size1][size2];");
+	m_outstream.println("\t\t\tfor (int i = 0; i < size1; i++) {");
+	m_outstream.println("\t\t\t\tfor (int j = 0; j < size2; j++) {");
+	m_outstream.println("\t\t\t\t\ttables[t][i][j] ="
+			    + " st.charAt(k++) - 1;");
+	m_outstream.println("\t\t\t\t}");
+	m_outstream.println("\t\t\t}");
+	m_outstream.println("\t\t}");
+	m_outstream.println("\t\treturn tables;");
+	m_outstream.println("\t}");
+      }
+
   /***************************************************************
     Function: emit_driver
     Description: Output an integer table as a string.  Written by
@@ -5260,6 +5427,15 @@ class CLexGen
     '\0'
     };
 
+  private char m_statictables_dir[] = { 
+    '%', 's', 't',
+    'a', 't', 'i',
+    'c', 't', 'a',
+    'b', 'l', 'e',
+    's',
+    '\0'
+    };
+
   private char m_integer_dir[] = { 
     '%', 'i', 'n',
     't', 'e', 'g', 
@@ -5759,6 +5935,17 @@ class CLexGen
 			  saveStates();
 			  break;
 			}
+		      else if (0 == CUtility.charncmp(m_input.m_line,
+						      0,
+						      m_statictables_dir,
+						      0,
+						      m_statictables_dir.length - 1))
+			{
+			  /* Make the tables static. */
+			  m_input.m_line_index = m_statictables_dir.length;
+			  m_spec.m_static_tables = true;
+			  break;
+			}
 
 		      /* Undefined directive. */
 		      CError.parse_error(CError.E_DIRECT,
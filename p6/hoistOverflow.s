@@ -0,0 +1,60 @@
+	.text
+	.globl main
+main:		# METHOD ENTRY
+	sw    $ra, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	sw    $fp, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	addu  $fp, $sp, 8
+	subu  $sp, $sp, 12
+	li    $t0, 0
+	sw    $t0, -8($fp)
+	li    $t0, 2147483647
+	sw    $t0, -8($fp)
+	li    $t0, 5
+	sw    $t0, -12($fp)
+	li    $t0, 0
+	sw    $t0, -16($fp)
+			# WHILE
+	j     .L1
+.L0:
+	lw    $t0, -8($fp)
+	sw    $t0, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	li    $t0, 1
+	move  $t1, $t0
+	lw    $t0, 4($sp)	# POP
+	addu  $sp, $sp, 4
+	add   $t0, $t0, $t1
+	sw    $t0, -12($fp)
+	lw    $t0, -16($fp)
+	sw    $t0, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	li    $t0, 1
+	move  $t1, $t0
+	lw    $t0, 4($sp)	# POP
+	addu  $sp, $sp, 4
+	add   $t0, $t0, $t1
+	sw    $t0, -16($fp)
+.L1:
+	lw    $t0, -16($fp)
+	sw    $t0, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	li    $t0, 0
+	move  $t1, $t0
+	lw    $t0, 4($sp)	# POP
+	addu  $sp, $sp, 4
+	blt   $t0, $t1, .L0
+			# WRITE
+	lw    $t0, -12($fp)
+	move  $a0, $t0
+	li    $v0, 1
+	syscall
+			# FUNCTION EXIT
+_main_Exit:
+	lw    $ra, 0($fp)	# load return address
+	move  $t0, $fp
+	lw    $fp, -4($fp)
+	move  $sp, $t0
+	li    $v0, 10
+	syscall
@@ -0,0 +1,104 @@
+	.text
+f:		# METHOD ENTRY
+	sw    $ra, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	sw    $fp, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	addu  $fp, $sp, 8
+	subu  $sp, $sp, 16
+	li    $t0, 0
+	sw    $t0, -8($fp)
+	li    $t0, 0
+	sw    $t0, -12($fp)
+			# WHILE
+	lw    $t0, -12($fp)
+	sw    $t0, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	lw    $t0, 8($fp)
+	sw    $t0, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	li    $t0, 1
+	move  $t1, $t0
+	lw    $t0, 4($sp)	# POP
+	addu  $sp, $sp, 4
+	sub   $t0, $t0, $t1
+	sw    $t0, -16($fp)	# HOISTED
+	move  $t1, $t0
+	lw    $t0, 4($sp)	# POP
+	addu  $sp, $sp, 4
+	bge   $t0, $t1, .L1
+	lw    $t0, 4($fp)
+	sw    $t0, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	li    $t0, 2
+	move  $t1, $t0
+	lw    $t0, 4($sp)	# POP
+	addu  $sp, $sp, 4
+	mul   $t0, $t0, $t1
+	sw    $t0, -20($fp)	# HOISTED
+.L0:
+			# WRITE
+	lw    $t0, -20($fp)
+	move  $a0, $t0
+	li    $v0, 1
+	syscall
+	lw    $t0, 4($fp)
+	sw    $t0, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	li    $t0, 1
+	move  $t1, $t0
+	lw    $t0, 4($sp)	# POP
+	addu  $sp, $sp, 4
+	add   $t0, $t0, $t1
+	sw    $t0, -8($fp)
+	lw    $t0, -12($fp)
+	sw    $t0, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	li    $t0, 1
+	move  $t1, $t0
+	lw    $t0, 4($sp)	# POP
+	addu  $sp, $sp, 4
+	add   $t0, $t0, $t1
+	sw    $t0, -12($fp)
+	lw    $t0, -12($fp)
+	sw    $t0, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	lw    $t0, -16($fp)
+	move  $t1, $t0
+	lw    $t0, 4($sp)	# POP
+	addu  $sp, $sp, 4
+	blt   $t0, $t1, .L0
+.L1:
+			# WRITE
+	lw    $t0, -8($fp)
+	move  $a0, $t0
+	li    $v0, 1
+	syscall
+			# FUNCTION EXIT
+_f_Exit:
+	lw    $ra, 0($fp)	# load return address
+	move  $t0, $fp
+	lw    $fp, -4($fp)
+	move  $sp, $t0
+	li    $v0, 10
+	syscall
+	.text
+	.globl main
+main:		# METHOD ENTRY
+	sw    $ra, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	sw    $fp, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	addu  $fp, $sp, 8
+	subu  $sp, $sp, 8
+	jal   _f
+	sw    $v0, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+			# FUNCTION EXIT
+_main_Exit:
+	lw    $ra, 0($fp)	# load return address
+	move  $t0, $fp
+	lw    $fp, -4($fp)
+	move  $sp, $t0
+	li    $v0, 10
+	syscall
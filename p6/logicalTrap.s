@@ -0,0 +1,51 @@
+	.text
+	.globl main
+main:		# METHOD ENTRY
+	sw    $ra, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	sw    $fp, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	addu  $fp, $sp, 8
+	subu  $sp, $sp, 8
+	li    $t0, 1
+	sw    $t0, -8($fp)
+	lw    $t0, -8($fp)
+	li    $t1, 0
+	sgt   $t0, $t0, $t1
+	bne   $t0, 0, .L0
+	lw    $t0, -8($fp)
+	li    $t1, 0
+	div   $t0, $t0, $t1
+	li    $t1, 1
+	seq   $t0, $t0, $t1
+.L0:
+	sw    $t0, -12($fp)
+			# WRITE
+	lw    $t0, -12($fp)
+	move  $a0, $t0
+	li    $v0, 1
+	syscall
+	lw    $t0, -8($fp)
+	li    $t1, 0
+	slt   $t0, $t0, $t1
+	beq   $t0, 0, .L1
+	lw    $t0, -8($fp)
+	li    $t1, 0
+	div   $t0, $t0, $t1
+	li    $t1, 1
+	seq   $t0, $t0, $t1
+.L1:
+	sw    $t0, -12($fp)
+			# WRITE
+	lw    $t0, -12($fp)
+	move  $a0, $t0
+	li    $v0, 1
+	syscall
+			# FUNCTION EXIT
+_main_Exit:
+	lw    $ra, 0($fp)	# load return address
+	move  $t0, $fp
+	lw    $fp, -4($fp)
+	move  $sp, $t0
+	li    $v0, 10
+	syscall
@@ -28,28 +28,31 @@ public class parser extends java_cup.runtime.lr_parser {
   /** Production table. */
   protected static final short _production_table[][] = 
     unpackFromStrings(new String[] {
-    "\000\104\000\002\002\004\000\002\002\003\000\002\003" +
+    "\000\116\000\002\002\004\000\002\002\003\000\002\003" +
     "\004\000\002\003\002\000\002\004\003\000\002\004\003" +
-    "\000\002\004\003\000\002\005\004\000\002\005\002\000" +
-    "\002\006\005\000\002\006\006\000\002\007\006\000\002" +
-    "\010\010\000\002\011\004\000\002\011\003\000\002\012" +
-    "\004\000\002\012\005\000\002\013\003\000\002\013\005" +
-    "\000\002\014\004\000\002\015\006\000\002\016\004\000" +
-    "\002\016\002\000\002\017\004\000\002\017\004\000\002" +
-    "\017\005\000\002\017\005\000\002\017\010\000\002\017" +
-    "\015\000\002\017\010\000\002\017\006\000\002\017\006" +
-    "\000\002\017\005\000\002\017\004\000\002\020\005\000" +
-    "\002\021\003\000\002\021\005\000\002\021\005\000\002" +
+    "\000\002\004\003\000\002\004\004\000\002\005\004\000" +
+    "\002\005\005\000\002\005\004\000\002\005\002\000\002" +
+    "\006\005\000\002\006\006\000\002\007\006\000\002\007" +
+    "\010\000\002\010\010\000\002\010\010\000\002\011\004" +
+    "\000\002\011\003\000\002\012\004\000\002\012\005\000" +
+    "\002\013\003\000\002\013\005\000\002\014\004\000\002" +
+    "\015\006\000\002\015\007\000\002\016\004\000\002\016" +
+    "\002\000\002\017\004\000\002\017\004\000\002\017\005" +
+    "\000\002\017\005\000\002\017\005\000\002\017\007\000" +
+    "\002\017\005\000\002\017\005\000\002\017\007\000\002" +
+    "\017\005\000\002\017\006\000\002\017\006\000\002\017" +
+    "\005\000\002\017\004\000\002\017\004\000\002\020\005" +
+    "\000\002\021\003\000\002\021\005\000\002\021\005\000" +
+    "\002\021\005\000\002\021\005\000\002\021\005\000\002" +
     "\021\005\000\002\021\005\000\002\021\005\000\002\021" +
     "\005\000\002\021\005\000\002\021\005\000\002\021\005" +
-    "\000\002\021\005\000\002\021\005\000\002\021\005\000" +
-    "\002\021\004\000\002\021\004\000\002\021\003\000\002" +
-    "\022\003\000\002\022\003\000\002\022\003\000\002\022" +
-    "\003\000\002\022\003\000\002\022\005\000\002\022\003" +
-    "\000\002\023\005\000\002\023\006\000\002\024\003\000" +
-    "\002\024\005\000\002\025\003\000\002\025\003\000\002" +
-    "\025\003\000\002\026\003\000\002\026\005\000\002\027" +
-    "\003" });
+    "\000\002\021\004\000\002\021\004\000\002\021\003\000" +
+    "\002\022\003\000\002\022\003\000\002\022\003\000\002" +
+    "\022\003\000\002\022\003\000\002\022\005\000\002\022" +
+    "\003\000\002\023\005\000\002\023\006\000\002\024\003" +
+    "\000\002\024\005\000\002\025\003\000\002\025\003\000" +
+    "\002\025\003\000\002\026\003\000\002\026\005\000\002" +
+    "\027\003" });
 
   /** Access to production table. */
   public short[][] production_table() {return _production_table;}
@@ -57,214 +60,226 @@ public class parser extends java_cup.runtime.lr_parser {
   /** Parse-action table. */
   protected static final short[][] _action_table = 
     unpackFromStrings(new String[] {
-    "\000\210\000\014\002\ufffe\004\ufffe\005\ufffe\006\ufffe\007" +
-    "\ufffe\001\002\000\014\002\000\004\010\005\017\006\011" +
-    "\007\013\001\002\000\004\002\006\001\002\000\004\002" +
-    "\001\001\002\000\014\002\ufffd\004\ufffd\005\ufffd\006\ufffd" +
-    "\007\ufffd\001\002\000\004\012\uffc3\001\002\000\004\012" +
-    "\uffc1\001\002\000\014\002\ufffb\004\ufffb\005\ufffb\006\ufffb" +
-    "\007\ufffb\001\002\000\004\012\020\001\002\000\014\002" +
-    "\ufffc\004\ufffc\005\ufffc\006\ufffc\007\ufffc\001\002\000\004" +
-    "\012\020\001\002\000\014\002\uffff\004\uffff\005\uffff\006" +
-    "\uffff\007\uffff\001\002\000\004\012\uffc2\001\002\000\062" +
-    "\012\uffbe\015\uffbe\016\uffbe\017\uffbe\020\uffbe\021\uffbe\023" +
-    "\uffbe\024\uffbe\025\uffbe\030\uffbe\031\uffbe\032\uffbe\033\uffbe" +
-    "\034\uffbe\035\uffbe\036\uffbe\037\uffbe\040\uffbe\042\uffbe\043" +
-    "\uffbe\044\uffbe\045\uffbe\046\uffbe\047\uffbe\001\002\000\006" +
-    "\015\022\025\024\001\002\000\012\004\010\005\017\006" +
-    "\011\016\176\001\002\000\004\021\025\001\002\000\034" +
-    "\002\ufff8\004\ufff8\005\ufff8\006\ufff8\007\ufff8\012\ufff8\016" +
-    "\ufff8\022\ufff8\050\ufff8\052\ufff8\053\ufff8\054\ufff8\055\ufff8" +
-    "\001\002\000\030\004\ufff9\005\ufff9\006\ufff9\007\ufff9\012" +
+    "\000\224\000\016\002\ufffe\003\ufffe\004\ufffe\005\ufffe\006" +
+    "\ufffe\007\ufffe\001\002\000\016\002\000\003\016\004\010" +
+    "\005\020\006\011\007\013\001\002\000\004\002\006\001" +
+    "\002\000\004\002\001\001\002\000\016\002\ufffd\003\ufffd" +
+    "\004\ufffd\005\ufffd\006\ufffd\007\ufffd\001\002\000\004\012" +
+    "\uffb9\001\002\000\004\012\uffb7\001\002\000\016\002\ufffb" +
+    "\003\ufffb\004\ufffb\005\ufffb\006\ufffb\007\ufffb\001\002\000" +
+    "\004\012\022\001\002\000\016\002\ufffc\003\ufffc\004\ufffc" +
+    "\005\ufffc\006\ufffc\007\ufffc\001\002\000\004\012\022\001" +
+    "\002\000\004\025\021\001\002\000\016\002\uffff\003\uffff" +
+    "\004\uffff\005\uffff\006\uffff\007\uffff\001\002\000\004\012" +
+    "\uffb8\001\002\000\016\002\ufffa\003\ufffa\004\ufffa\005\ufffa" +
+    "\006\ufffa\007\ufffa\001\002\000\062\012\uffb4\015\uffb4\016" +
+    "\uffb4\017\uffb4\020\uffb4\021\uffb4\023\uffb4\024\uffb4\025\uffb4" +
+    "\030\uffb4\031\uffb4\032\uffb4\033\uffb4\034\uffb4\035\uffb4\036" +
+    "\uffb4\037\uffb4\040\uffb4\042\uffb4\043\uffb4\044\uffb4\045\uffb4" +
+    "\046\uffb4\047\uffb4\001\002\000\006\015\024\025\026\001" +
+    "\002\000\014\003\202\004\010\005\020\006\011\016\205" +
+    "\001\002\000\004\021\030\001\002\000\036\002\ufff5\003" +
+    "\ufff5\004\ufff5\005\ufff5\006\ufff5\007\ufff5\012\ufff5\016\ufff5" +
+    "\022\ufff5\050\ufff5\052\ufff5\053\ufff5\054\ufff5\055\ufff5\001" +
+    "\002\000\016\002\ufff3\003\ufff3\004\ufff3\005\ufff3\006\ufff3" +
+    "\007\ufff3\001\002\000\032\003\031\004\ufff6\005\ufff6\006" +
+    "\ufff6\007\ufff6\012\ufff6\022\ufff6\050\ufff6\052\ufff6\053\ufff6" +
+    "\054\ufff6\055\ufff6\001\002\000\004\025\201\001\002\000" +
+    "\032\003\034\004\010\005\020\006\011\007\033\012\uffe5" +
+    "\022\uffe5\050\uffe5\052\uffe5\053\uffe5\054\uffe5\055\uffe5\001" +
+    "\002\000\004\012\022\001\002\000\004\025\175\001\002" +
+    "\000\004\012\022\001\002\000\022\003\051\012\022\022" +
+    "\044\050\046\052\041\053\040\054\050\055\053\001\002" +
+    "\000\032\003\ufff9\004\ufff9\005\ufff9\006\ufff9\007\ufff9\012" +
     "\ufff9\022\ufff9\050\ufff9\052\ufff9\053\ufff9\054\ufff9\055\ufff9" +
-    "\001\002\000\014\002\ufff6\004\ufff6\005\ufff6\006\ufff6\007" +
-    "\ufff6\001\002\000\030\004\010\005\017\006\011\007\030" +
-    "\012\uffeb\022\uffeb\050\uffeb\052\uffeb\053\uffeb\054\uffeb\055" +
-    "\uffeb\001\002\000\004\012\020\001\002\000\004\012\020" +
-    "\001\002\000\020\012\020\022\040\050\042\052\035\053" +
-    "\034\054\044\055\046\001\002\000\030\004\ufffa\005\ufffa" +
-    "\006\ufffa\007\ufffa\012\ufffa\022\ufffa\050\ufffa\052\ufffa\053" +
-    "\ufffa\054\ufffa\055\ufffa\001\002\000\004\026\164\001\002" +
-    "\000\022\010\052\011\054\012\020\013\062\014\061\017" +
-    "\063\034\047\041\057\001\002\000\054\017\150\020\uffc0" +
-    "\021\uffc0\023\uffc0\024\uffc0\025\uffc0\030\uffc0\031\uffc0\032" +
-    "\uffc0\033\uffc0\034\uffc0\035\uffc0\036\uffc0\037\uffc0\040\uffc0" +
-    "\042\uffc0\043\uffc0\044\uffc0\045\uffc0\046\uffc0\047\uffc0\001" +
-    "\002\000\020\012\uffec\022\uffec\050\uffec\052\uffec\053\uffec" +
-    "\054\uffec\055\uffec\001\002\000\014\002\uffed\004\uffed\005" +
-    "\uffed\006\uffed\007\uffed\001\002\000\012\023\117\030\120" +
-    "\031\145\032\144\001\002\000\022\010\052\011\054\012" +
-    "\020\013\062\014\061\017\063\034\047\041\057\001\002" +
-    "\000\004\025\131\001\002\000\004\027\126\001\002\000" +
-    "\004\025\125\001\002\000\024\010\052\011\054\012\020" +
-    "\013\062\014\061\017\063\025\056\034\047\041\057\001" +
-    "\002\000\022\010\052\011\054\012\020\013\062\014\061" +
-    "\017\063\034\047\041\057\001\002\000\042\020\uffcf\021" +
-    "\uffcf\024\uffcf\025\uffcf\033\uffcf\034\uffcf\035\uffcf\036\uffcf" +
-    "\037\uffcf\040\uffcf\042\uffcf\043\uffcf\044\uffcf\045\uffcf\046" +
-    "\uffcf\047\uffcf\001\002\000\034\025\123\033\074\034\066" +
-    "\035\077\036\067\037\065\040\101\042\100\043\070\044" +
-    "\073\045\072\046\075\047\071\001\002\000\042\020\uffcd" +
-    "\021\uffcd\024\uffcd\025\uffcd\033\uffcd\034\uffcd\035\uffcd\036" +
-    "\uffcd\037\uffcd\040\uffcd\042\uffcd\043\uffcd\044\uffcd\045\uffcd" +
-    "\046\uffcd\047\uffcd\001\002\000\046\020\uffce\021\uffce\023" +
-    "\117\024\uffce\025\uffce\030\120\033\uffce\034\uffce\035\uffce" +
-    "\036\uffce\037\uffce\040\uffce\042\uffce\043\uffce\044\uffce\045" +
-    "\uffce\046\uffce\047\uffce\001\002\000\042\020\uffcc\021\uffcc" +
-    "\024\uffcc\025\uffcc\033\uffcc\034\uffcc\035\uffcc\036\uffcc\037" +
-    "\uffcc\040\uffcc\042\uffcc\043\uffcc\044\uffcc\045\uffcc\046\uffcc" +
-    "\047\uffcc\001\002\000\042\020\uffde\021\uffde\024\uffde\025" +
-    "\uffde\033\uffde\034\uffde\035\uffde\036\uffde\037\uffde\040\uffde" +
-    "\042\uffde\043\uffde\044\uffde\045\uffde\046\uffde\047\uffde\001" +
-    "\002\000\020\012\uffe0\022\uffe0\050\uffe0\052\uffe0\053\uffe0" +
-    "\054\uffe0\055\uffe0\001\002\000\022\010\052\011\054\012" +
-    "\020\013\062\014\061\017\063\034\047\041\057\001\002" +
-    "\000\042\020\uffc8\021\uffc8\024\uffc8\025\uffc8\033\uffc8\034" +
-    "\uffc8\035\uffc8\036\uffc8\037\uffc8\040\uffc8\042\uffc8\043\uffc8" +
-    "\044\uffc8\045\uffc8\046\uffc8\047\uffc8\001\002\000\042\020" +
-    "\uffca\021\uffca\024\uffca\025\uffca\033\uffca\034\uffca\035\uffca" +
-    "\036\uffca\037\uffca\040\uffca\042\uffca\043\uffca\044\uffca\045" +
-    "\uffca\046\uffca\047\uffca\001\002\000\042\020\uffcb\021\uffcb" +
-    "\024\uffcb\025\uffcb\033\uffcb\034\uffcb\035\uffcb\036\uffcb\037" +
-    "\uffcb\040\uffcb\042\uffcb\043\uffcb\044\uffcb\045\uffcb\046\uffcb" +
-    "\047\uffcb\001\002\000\022\010\052\011\054\012\020\013" +
-    "\062\014\061\017\063\034\047\041\057\001\002\000\034" +
-    "\020\076\033\074\034\066\035\077\036\067\037\065\040" +
-    "\101\042\100\043\070\044\073\045\072\046\075\047\071" +
-    "\001\002\000\022\010\052\011\054\012\020\013\062\014" +
-    "\061\017\063\034\047\041\057\001\002\000\022\010\052" +
-    "\011\054\012\020\013\062\014\061\017\063\034\047\041" +
-    "\057\001\002\000\022\010\052\011\054\012\020\013\062" +
-    "\014\061\017\063\034\047\041\057\001\002\000\022\010" +
-    "\052\011\054\012\020\013\062\014\061\017\063\034\047" +
-    "\041\057\001\002\000\022\010\052\011\054\012\020\013" +
-    "\062\014\061\017\063\034\047\041\057\001\002\000\022" +
-    "\010\052\011\054\012\020\013\062\014\061\017\063\034" +
-    "\047\041\057\001\002\000\022\010\052\011\054\012\020" +
-    "\013\062\014\061\017\063\034\047\041\057\001\002\000" +
-    "\022\010\052\011\054\012\020\013\062\014\061\017\063" +
-    "\034\047\041\057\001\002\000\022\010\052\011\054\012" +
-    "\020\013\062\014\061\017\063\034\047\041\057\001\002" +
-    "\000\042\020\uffc9\021\uffc9\024\uffc9\025\uffc9\033\uffc9\034" +
-    "\uffc9\035\uffc9\036\uffc9\037\uffc9\040\uffc9\042\uffc9\043\uffc9" +
-    "\044\uffc9\045\uffc9\046\uffc9\047\uffc9\001\002\000\022\010" +
-    "\052\011\054\012\020\013\062\014\061\017\063\034\047" +
-    "\041\057\001\002\000\022\010\052\011\054\012\020\013" +
-    "\062\014\061\017\063\034\047\041\057\001\002\000\022" +
-    "\010\052\011\054\012\020\013\062\014\061\017\063\034" +
-    "\047\041\057\001\002\000\042\020\uffd2\021\uffd2\024\uffd2" +
-    "\025\uffd2\033\074\034\066\035\077\036\067\037\065\040" +
-    "\uffd2\042\100\043\070\044\073\045\072\046\075\047\071" +
-    "\001\002\000\026\020\uffd9\021\uffd9\024\uffd9\025\uffd9\033" +
-    "\074\034\066\035\077\036\067\037\uffd9\040\uffd9\001\002" +
-    "\000\042\020\uffdb\021\uffdb\024\uffdb\025\uffdb\033\uffdb\034" +
-    "\uffdb\035\uffdb\036\uffdb\037\uffdb\040\uffdb\042\uffdb\043\uffdb" +
-    "\044\uffdb\045\uffdb\046\uffdb\047\uffdb\001\002\000\026\020" +
-    "\uffd5\021\uffd5\024\uffd5\025\uffd5\033\074\034\066\035\077" +
-    "\036\067\037\uffd5\040\uffd5\001\002\000\042\020\uffdd\021" +
-    "\uffdd\024\uffdd\025\uffdd\033\uffdd\034\uffdd\035\077\036\067" +
-    "\037\uffdd\040\uffdd\042\uffdd\043\uffdd\044\uffdd\045\uffdd\046" +
-    "\uffdd\047\uffdd\001\002\000\026\020\uffd7\021\uffd7\024\uffd7" +
-    "\025\uffd7\033\074\034\066\035\077\036\067\037\uffd7\040" +
-    "\uffd7\001\002\000\026\020\uffd6\021\uffd6\024\uffd6\025\uffd6" +
-    "\033\074\034\066\035\077\036\067\037\uffd6\040\uffd6\001" +
-    "\002\000\026\020\uffd4\021\uffd4\024\uffd4\025\uffd4\033\074" +
-    "\034\066\035\077\036\067\037\uffd4\040\uffd4\001\002\000" +
-    "\026\020\uffd8\021\uffd8\024\uffd8\025\uffd8\033\074\034\066" +
-    "\035\077\036\067\037\uffd8\040\uffd8\001\002\000\042\020" +
-    "\uffda\021\uffda\024\uffda\025\uffda\033\uffda\034\uffda\035\uffda" +
-    "\036\uffda\037\uffda\040\uffda\042\uffda\043\uffda\044\uffda\045" +
-    "\uffda\046\uffda\047\uffda\001\002\000\042\020\uffdc\021\uffdc" +
-    "\024\uffdc\025\uffdc\033\uffdc\034\uffdc\035\077\036\067\037" +
-    "\uffdc\040\uffdc\042\uffdc\043\uffdc\044\uffdc\045\uffdc\046\uffdc" +
-    "\047\uffdc\001\002\000\042\020\uffd3\021\uffd3\024\uffd3\025" +
-    "\uffd3\033\074\034\066\035\077\036\067\037\uffd3\040\uffd3" +
-    "\042\100\043\070\044\073\045\072\046\075\047\071\001" +
-    "\002\000\042\020\uffd1\021\uffd1\024\uffd1\025\uffd1\033\uffd1" +
-    "\034\uffd1\035\uffd1\036\uffd1\037\uffd1\040\uffd1\042\uffd1\043" +
-    "\uffd1\044\uffd1\045\uffd1\046\uffd1\047\uffd1\001\002\000\004" +
-    "\012\020\001\002\000\022\010\052\011\054\012\020\013" +
-    "\062\014\061\017\063\034\047\041\057\001\002\000\042" +
-    "\020\uffdf\021\uffdf\024\uffdf\025\uffdf\033\074\034\066\035" +
-    "\077\036\067\037\065\040\101\042\100\043\070\044\073" +
-    "\045\072\046\075\047\071\001\002\000\052\020\uffbf\021" +
-    "\uffbf\023\uffbf\024\uffbf\025\uffbf\030\uffbf\031\uffbf\032\uffbf" +
+    "\001\002\000\004\026\170\001\002\000\024\003\165\010" +
+    "\057\011\061\012\022\013\067\014\066\017\070\034\054" +
+    "\041\064\001\002\000\054\017\155\020\uffb6\021\uffb6\023" +
+    "\uffb6\024\uffb6\025\uffb6\030\uffb6\031\uffb6\032\uffb6\033\uffb6" +
+    "\034\uffb6\035\uffb6\036\uffb6\037\uffb6\040\uffb6\042\uffb6\043" +
+    "\uffb6\044\uffb6\045\uffb6\046\uffb6\047\uffb6\001\002\000\022" +
+    "\003\uffe6\012\uffe6\022\uffe6\050\uffe6\052\uffe6\053\uffe6\054" +
+    "\uffe6\055\uffe6\001\002\000\036\002\uffe8\003\uffe8\004\uffe8" +
+    "\005\uffe8\006\uffe8\007\uffe8\012\uffe8\022\uffe8\050\uffe8\051" +
+    "\uffe8\052\uffe8\053\uffe8\054\uffe8\055\uffe8\001\002\000\012" +
+    "\023\124\030\125\031\152\032\151\001\002\000\024\003" +
+    "\142\010\057\011\061\012\022\013\067\014\066\017\070" +
+    "\034\054\041\064\001\002\000\004\025\140\001\002\000" +
+    "\004\027\135\001\002\000\006\022\133\025\134\001\002" +
+    "\000\004\025\132\001\002\000\024\010\057\011\061\012" +
+    "\022\013\067\014\066\017\070\025\063\034\054\041\064" +
+    "\001\002\000\022\010\057\011\061\012\022\013\067\014" +
+    "\066\017\070\034\054\041\064\001\002\000\042\020\uffc5" +
+    "\021\uffc5\024\uffc5\025\uffc5\033\uffc5\034\uffc5\035\uffc5\036" +
+    "\uffc5\037\uffc5\040\uffc5\042\uffc5\043\uffc5\044\uffc5\045\uffc5" +
+    "\046\uffc5\047\uffc5\001\002\000\034\025\130\033\101\034" +
+    "\072\035\104\036\074\037\073\040\106\042\105\043\075" +
+    "\044\077\045\100\046\102\047\076\001\002\000\042\020" +
+    "\uffc3\021\uffc3\024\uffc3\025\uffc3\033\uffc3\034\uffc3\035\uffc3" +
+    "\036\uffc3\037\uffc3\040\uffc3\042\uffc3\043\uffc3\044\uffc3\045" +
+    "\uffc3\046\uffc3\047\uffc3\001\002\000\046\020\uffc4\021\uffc4" +
+    "\023\124\024\uffc4\025\uffc4\030\125\033\uffc4\034\uffc4\035" +
+    "\uffc4\036\uffc4\037\uffc4\040\uffc4\042\uffc4\043\uffc4\044\uffc4" +
+    "\045\uffc4\046\uffc4\047\uffc4\001\002\000\042\020\uffc2\021" +
+    "\uffc2\024\uffc2\025\uffc2\033\uffc2\034\uffc2\035\uffc2\036\uffc2" +
+    "\037\uffc2\040\uffc2\042\uffc2\043\uffc2\044\uffc2\045\uffc2\046" +
+    "\uffc2\047\uffc2\001\002\000\042\020\uffd4\021\uffd4\024\uffd4" +
+    "\025\uffd4\033\uffd4\034\uffd4\035\uffd4\036\uffd4\037\uffd4\040" +
+    "\uffd4\042\uffd4\043\uffd4\044\uffd4\045\uffd4\046\uffd4\047\uffd4" +
+    "\001\002\000\022\003\uffd7\012\uffd7\022\uffd7\050\uffd7\052" +
+    "\uffd7\053\uffd7\054\uffd7\055\uffd7\001\002\000\022\010\057" +
+    "\011\061\012\022\013\067\014\066\017\070\034\054\041" +
+    "\064\001\002\000\042\020\uffbe\021\uffbe\024\uffbe\025\uffbe" +
+    "\033\uffbe\034\uffbe\035\uffbe\036\uffbe\037\uffbe\040\uffbe\042" +
+    "\uffbe\043\uffbe\044\uffbe\045\uffbe\046\uffbe\047\uffbe\001\002" +
+    "\000\042\020\uffc0\021\uffc0\024\uffc0\025\uffc0\033\uffc0\034" +
+    "\uffc0\035\uffc0\036\uffc0\037\uffc0\040\uffc0\042\uffc0\043\uffc0" +
+    "\044\uffc0\045\uffc0\046\uffc0\047\uffc0\001\002\000\042\020" +
+    "\uffc1\021\uffc1\024\uffc1\025\uffc1\033\uffc1\034\uffc1\035\uffc1" +
+    "\036\uffc1\037\uffc1\040\uffc1\042\uffc1\043\uffc1\044\uffc1\045" +
+    "\uffc1\046\uffc1\047\uffc1\001\002\000\022\010\057\011\061" +
+    "\012\022\013\067\014\066\017\070\034\054\041\064\001" +
+    "\002\000\034\020\103\033\101\034\072\035\104\036\074" +
+    "\037\073\040\106\042\105\043\075\044\077\045\100\046" +
+    "\102\047\076\001\002\000\022\010\057\011\061\012\022" +
+    "\013\067\014\066\017\070\034\054\041\064\001\002\000" +
+    "\022\010\057\011\061\012\022\013\067\014\066\017\070" +
+    "\034\054\041\064\001\002\000\022\010\057\011\061\012" +
+    "\022\013\067\014\066\017\070\034\054\041\064\001\002" +
+    "\000\022\010\057\011\061\012\022\013\067\014\066\017" +
+    "\070\034\054\041\064\001\002\000\022\010\057\011\061" +
+    "\012\022\013\067\014\066\017\070\034\054\041\064\001" +
+    "\002\000\022\010\057\011\061\012\022\013\067\014\066" +
+    "\017\070\034\054\041\064\001\002\000\022\010\057\011" +
+    "\061\012\022\013\067\014\066\017\070\034\054\041\064" +
+    "\001\002\000\022\010\057\011\061\012\022\013\067\014" +
+    "\066\017\070\034\054\041\064\001\002\000\022\010\057" +
+    "\011\061\012\022\013\067\014\066\017\070\034\054\041" +
+    "\064\001\002\000\042\020\uffbf\021\uffbf\024\uffbf\025\uffbf" +
     "\033\uffbf\034\uffbf\035\uffbf\036\uffbf\037\uffbf\040\uffbf\042" +
     "\uffbf\043\uffbf\044\uffbf\045\uffbf\046\uffbf\047\uffbf\001\002" +
-    "\000\020\012\uffe1\022\uffe1\050\uffe1\052\uffe1\053\uffe1\054" +
-    "\uffe1\055\uffe1\001\002\000\042\020\uffd0\021\uffd0\024\uffd0" +
-    "\025\uffd0\033\uffd0\034\uffd0\035\uffd0\036\uffd0\037\uffd0\040" +
-    "\uffd0\042\uffd0\043\uffd0\044\uffd0\045\uffd0\046\uffd0\047\uffd0" +
-    "\001\002\000\020\012\uffe9\022\uffe9\050\uffe9\052\uffe9\053" +
-    "\uffe9\054\uffe9\055\uffe9\001\002\000\022\010\052\011\054" +
-    "\012\020\013\062\014\061\017\063\034\047\041\057\001" +
-    "\002\000\034\025\130\033\074\034\066\035\077\036\067" +
-    "\037\065\040\101\042\100\043\070\044\073\045\072\046" +
-    "\075\047\071\001\002\000\020\012\uffe2\022\uffe2\050\uffe2" +
-    "\052\uffe2\053\uffe2\054\uffe2\055\uffe2\001\002\000\020\012" +
-    "\uffea\022\uffea\050\uffea\052\uffea\053\uffea\054\uffea\055\uffea" +
-    "\001\002\000\034\021\133\033\074\034\066\035\077\036" +
-    "\067\037\065\040\101\042\100\043\070\044\073\045\072" +
-    "\046\075\047\071\001\002\000\030\004\ufff9\005\ufff9\006" +
-    "\ufff9\007\ufff9\012\ufff9\022\ufff9\050\ufff9\052\ufff9\053\ufff9" +
-    "\054\ufff9\055\ufff9\001\002\000\030\004\010\005\017\006" +
-    "\011\007\030\012\uffeb\022\uffeb\050\uffeb\052\uffeb\053\uffeb" +
-    "\054\uffeb\055\uffeb\001\002\000\020\012\020\022\136\050" +
-    "\042\052\035\053\034\054\044\055\046\001\002\000\022" +
-    "\012\uffe6\022\uffe6\050\uffe6\051\137\052\uffe6\053\uffe6\054" +
-    "\uffe6\055\uffe6\001\002\000\004\021\140\001\002\000\030" +
-    "\004\ufff9\005\ufff9\006\ufff9\007\ufff9\012\ufff9\022\ufff9\050" +
-    "\ufff9\052\ufff9\053\ufff9\054\ufff9\055\ufff9\001\002\000\030" +
-    "\004\010\005\017\006\011\007\030\012\uffeb\022\uffeb\050" +
-    "\uffeb\052\uffeb\053\uffeb\054\uffeb\055\uffeb\001\002\000\020" +
-    "\012\020\022\143\050\042\052\035\053\034\054\044\055" +
-    "\046\001\002\000\020\012\uffe5\022\uffe5\050\uffe5\052\uffe5" +
-    "\053\uffe5\054\uffe5\055\uffe5\001\002\000\004\025\147\001" +
-    "\002\000\004\025\146\001\002\000\020\012\uffe8\022\uffe8" +
-    "\050\uffe8\052\uffe8\053\uffe8\054\uffe8\055\uffe8\001\002\000" +
-    "\020\012\uffe7\022\uffe7\050\uffe7\052\uffe7\053\uffe7\054\uffe7" +
-    "\055\uffe7\001\002\000\024\010\052\011\054\012\020\013" +
-    "\062\014\061\017\063\020\153\034\047\041\057\001\002" +
-    "\000\036\020\uffc5\024\uffc5\033\074\034\066\035\077\036" +
-    "\067\037\065\040\101\042\100\043\070\044\073\045\072" +
-    "\046\075\047\071\001\002\000\006\020\155\024\154\001" +
-    "\002\000\042\020\uffc7\021\uffc7\024\uffc7\025\uffc7\033\uffc7" +
-    "\034\uffc7\035\uffc7\036\uffc7\037\uffc7\040\uffc7\042\uffc7\043" +
-    "\uffc7\044\uffc7\045\uffc7\046\uffc7\047\uffc7\001\002\000\022" +
-    "\010\052\011\054\012\020\013\062\014\061\017\063\034" +
-    "\047\041\057\001\002\000\042\020\uffc6\021\uffc6\024\uffc6" +
-    "\025\uffc6\033\uffc6\034\uffc6\035\uffc6\036\uffc6\037\uffc6\040" +
-    "\uffc6\042\uffc6\043\uffc6\044\uffc6\045\uffc6\046\uffc6\047\uffc6" +
-    "\001\002\000\036\020\uffc4\024\uffc4\033\074\034\066\035" +
-    "\077\036\067\037\065\040\101\042\100\043\070\044\073" +
-    "\045\072\046\075\047\071\001\002\000\034\021\160\033" +
-    "\074\034\066\035\077\036\067\037\065\040\101\042\100" +
-    "\043\070\044\073\045\072\046\075\047\071\001\002\000" +
-    "\030\004\ufff9\005\ufff9\006\ufff9\007\ufff9\012\ufff9\022\ufff9" +
-    "\050\ufff9\052\ufff9\053\ufff9\054\ufff9\055\ufff9\001\002\000" +
-    "\030\004\010\005\017\006\011\007\030\012\uffeb\022\uffeb" +
-    "\050\uffeb\052\uffeb\053\uffeb\054\uffeb\055\uffeb\001\002\000" +
-    "\020\012\020\022\163\050\042\052\035\053\034\054\044" +
-    "\055\046\001\002\000\020\012\uffe4\022\uffe4\050\uffe4\052" +
-    "\uffe4\053\uffe4\054\uffe4\055\uffe4\001\002\000\004\012\020" +
-    "\001\002\000\006\023\117\025\167\001\002\000\006\023" +
-    "\uffc0\025\uffc0\001\002\000\020\012\uffe3\022\uffe3\050\uffe3" +
-    "\052\uffe3\053\uffe3\054\uffe3\055\uffe3\001\002\000\004\025" +
-    "\024\001\002\000\004\012\020\001\002\000\004\025\173" +
-    "\001\002\000\034\002\ufff7\004\ufff7\005\ufff7\006\ufff7\007" +
-    "\ufff7\012\ufff7\016\ufff7\022\ufff7\050\ufff7\052\ufff7\053\ufff7" +
-    "\054\ufff7\055\ufff7\001\002\000\004\012\020\001\002\000" +
-    "\004\016\202\001\002\000\004\021\ufff2\001\002\000\006" +
-    "\016\ufff0\024\200\001\002\000\010\004\010\005\017\006" +
-    "\011\001\002\000\004\016\uffef\001\002\000\004\021\ufff1" +
-    "\001\002\000\006\016\uffee\024\uffee\001\002\000\006\012" +
-    "\020\015\205\001\002\000\012\004\010\005\017\006\011" +
-    "\007\030\001\002\000\014\004\ufff3\005\ufff3\006\ufff3\007" +
-    "\ufff3\016\ufff3\001\002\000\014\004\010\005\017\006\011" +
-    "\007\030\016\211\001\002\000\014\004\ufff4\005\ufff4\006" +
-    "\ufff4\007\ufff4\016\ufff4\001\002\000\004\025\212\001\002" +
-    "\000\014\002\ufff5\004\ufff5\005\ufff5\006\ufff5\007\ufff5\001" +
-    "\002" });
+    "\000\022\010\057\011\061\012\022\013\067\014\066\017" +
+    "\070\034\054\041\064\001\002\000\022\010\057\011\061" +
+    "\012\022\013\067\014\066\017\070\034\054\041\064\001" +
+    "\002\000\022\010\057\011\061\012\022\013\067\014\066" +
+    "\017\070\034\054\041\064\001\002\000\042\020\uffc8\021" +
+    "\uffc8\024\uffc8\025\uffc8\033\101\034\072\035\104\036\074" +
+    "\037\073\040\uffc8\042\105\043\075\044\077\045\100\046" +
+    "\102\047\076\001\002\000\026\020\uffcf\021\uffcf\024\uffcf" +
+    "\025\uffcf\033\101\034\072\035\104\036\074\037\uffcf\040" +
+    "\uffcf\001\002\000\042\020\uffd1\021\uffd1\024\uffd1\025\uffd1" +
+    "\033\uffd1\034\uffd1\035\uffd1\036\uffd1\037\uffd1\040\uffd1\042" +
+    "\uffd1\043\uffd1\044\uffd1\045\uffd1\046\uffd1\047\uffd1\001\002" +
+    "\000\026\020\uffcb\021\uffcb\024\uffcb\025\uffcb\033\101\034" +
+    "\072\035\104\036\074\037\uffcb\040\uffcb\001\002\000\042" +
+    "\020\uffd3\021\uffd3\024\uffd3\025\uffd3\033\uffd3\034\uffd3\035" +
+    "\104\036\074\037\uffd3\040\uffd3\042\uffd3\043\uffd3\044\uffd3" +
+    "\045\uffd3\046\uffd3\047\uffd3\001\002\000\026\020\uffcc\021" +
+    "\uffcc\024\uffcc\025\uffcc\033\101\034\072\035\104\036\074" +
+    "\037\uffcc\040\uffcc\001\002\000\026\020\uffcd\021\uffcd\024" +
+    "\uffcd\025\uffcd\033\101\034\072\035\104\036\074\037\uffcd" +
+    "\040\uffcd\001\002\000\026\020\uffca\021\uffca\024\uffca\025" +
+    "\uffca\033\101\034\072\035\104\036\074\037\uffca\040\uffca" +
+    "\001\002\000\026\020\uffce\021\uffce\024\uffce\025\uffce\033" +
+    "\101\034\072\035\104\036\074\037\uffce\040\uffce\001\002" +
+    "\000\042\020\uffd0\021\uffd0\024\uffd0\025\uffd0\033\uffd0\034" +
+    "\uffd0\035\uffd0\036\uffd0\037\uffd0\040\uffd0\042\uffd0\043\uffd0" +
+    "\044\uffd0\045\uffd0\046\uffd0\047\uffd0\001\002\000\042\020" +
+    "\uffc9\021\uffc9\024\uffc9\025\uffc9\033\101\034\072\035\104" +
+    "\036\074\037\uffc9\040\uffc9\042\105\043\075\044\077\045" +
+    "\100\046\102\047\076\001\002\000\042\020\uffd2\021\uffd2" +
+    "\024\uffd2\025\uffd2\033\uffd2\034\uffd2\035\104\036\074\037" +
+    "\uffd2\040\uffd2\042\uffd2\043\uffd2\044\uffd2\045\uffd2\046\uffd2" +
+    "\047\uffd2\001\002\000\042\020\uffc7\021\uffc7\024\uffc7\025" +
+    "\uffc7\033\uffc7\034\uffc7\035\uffc7\036\uffc7\037\uffc7\040\uffc7" +
+    "\042\uffc7\043\uffc7\044\uffc7\045\uffc7\046\uffc7\047\uffc7\001" +
+    "\002\000\004\012\022\001\002\000\022\010\057\011\061" +
+    "\012\022\013\067\014\066\017\070\034\054\041\064\001" +
+    "\002\000\042\020\uffd5\021\uffd5\024\uffd5\025\uffd5\033\101" +
+    "\034\072\035\104\036\074\037\073\040\106\042\105\043" +
+    "\075\044\077\045\100\046\102\047\076\001\002\000\052" +
+    "\020\uffb5\021\uffb5\023\uffb5\024\uffb5\025\uffb5\030\uffb5\031" +
+    "\uffb5\032\uffb5\033\uffb5\034\uffb5\035\uffb5\036\uffb5\037\uffb5" +
+    "\040\uffb5\042\uffb5\043\uffb5\044\uffb5\045\uffb5\046\uffb5\047" +
+    "\uffb5\001\002\000\022\003\uffd8\012\uffd8\022\uffd8\050\uffd8" +
+    "\052\uffd8\053\uffd8\054\uffd8\055\uffd8\001\002\000\042\020" +
+    "\uffc6\021\uffc6\024\uffc6\025\uffc6\033\uffc6\034\uffc6\035\uffc6" +
+    "\036\uffc6\037\uffc6\040\uffc6\042\uffc6\043\uffc6\044\uffc6\045" +
+    "\uffc6\046\uffc6\047\uffc6\001\002\000\022\003\uffe3\012\uffe3" +
+    "\022\uffe3\050\uffe3\052\uffe3\053\uffe3\054\uffe3\055\uffe3\001" +
+    "\002\000\036\002\uffe7\003\uffe7\004\uffe7\005\uffe7\006\uffe7" +
+    "\007\uffe7\012\uffe7\022\uffe7\050\uffe7\051\uffe7\052\uffe7\053" +
+    "\uffe7\054\uffe7\055\uffe7\001\002\000\022\003\uffd6\012\uffd6" +
+    "\022\uffd6\050\uffd6\052\uffd6\053\uffd6\054\uffd6\055\uffd6\001" +
+    "\002\000\022\010\057\011\061\012\022\013\067\014\066" +
+    "\017\070\034\054\041\064\001\002\000\034\025\137\033" +
+    "\101\034\072\035\104\036\074\037\073\040\106\042\105" +
+    "\043\075\044\077\045\100\046\102\047\076\001\002\000" +
+    "\022\003\uffd9\012\uffd9\022\uffd9\050\uffd9\052\uffd9\053\uffd9" +
+    "\054\uffd9\055\uffd9\001\002\000\022\003\uffe4\012\uffe4\022" +
+    "\uffe4\050\uffe4\052\uffe4\053\uffe4\054\uffe4\055\uffe4\001\002" +
+    "\000\034\021\030\033\101\034\072\035\104\036\074\037" +
+    "\073\040\106\042\105\043\075\044\077\045\100\046\102" +
+    "\047\076\001\002\000\004\021\030\001\002\000\024\003" +
+    "\uffdd\012\uffdd\022\uffdd\050\uffdd\051\144\052\uffdd\053\uffdd" +
+    "\054\uffdd\055\uffdd\001\002\000\004\021\030\001\002\000" +
+    "\022\003\uffdc\012\uffdc\022\uffdc\050\uffdc\052\uffdc\053\uffdc" +
+    "\054\uffdc\055\uffdc\001\002\000\024\003\uffe0\012\uffe0\022" +
+    "\uffe0\050\uffe0\051\147\052\uffe0\053\uffe0\054\uffe0\055\uffe0" +
+    "\001\002\000\004\021\030\001\002\000\022\003\uffdf\012" +
+    "\uffdf\022\uffdf\050\uffdf\052\uffdf\053\uffdf\054\uffdf\055\uffdf" +
+    "\001\002\000\004\025\154\001\002\000\004\025\153\001" +
+    "\002\000\022\003\uffe2\012\uffe2\022\uffe2\050\uffe2\052\uffe2" +
+    "\053\uffe2\054\uffe2\055\uffe2\001\002\000\022\003\uffe1\012" +
+    "\uffe1\022\uffe1\050\uffe1\052\uffe1\053\uffe1\054\uffe1\055\uffe1" +
+    "\001\002\000\024\010\057\011\061\012\022\013\067\014" +
+    "\066\017\070\020\160\034\054\041\064\001\002\000\036" +
+    "\020\uffbb\024\uffbb\033\101\034\072\035\104\036\074\037" +
+    "\073\040\106\042\105\043\075\044\077\045\100\046\102" +
+    "\047\076\001\002\000\006\020\162\024\161\001\002\000" +
+    "\042\020\uffbd\021\uffbd\024\uffbd\025\uffbd\033\uffbd\034\uffbd" +
+    "\035\uffbd\036\uffbd\037\uffbd\040\uffbd\042\uffbd\043\uffbd\044" +
+    "\uffbd\045\uffbd\046\uffbd\047\uffbd\001\002\000\022\010\057" +
+    "\011\061\012\022\013\067\014\066\017\070\034\054\041" +
+    "\064\001\002\000\042\020\uffbc\021\uffbc\024\uffbc\025\uffbc" +
+    "\033\uffbc\034\uffbc\035\uffbc\036\uffbc\037\uffbc\040\uffbc\042" +
+    "\uffbc\043\uffbc\044\uffbc\045\uffbc\046\uffbc\047\uffbc\001\002" +
+    "\000\036\020\uffba\024\uffba\033\101\034\072\035\104\036" +
+    "\074\037\073\040\106\042\105\043\075\044\077\045\100" +
+    "\046\102\047\076\001\002\000\034\021\030\033\101\034" +
+    "\072\035\104\036\074\037\073\040\106\042\105\043\075" +
+    "\044\077\045\100\046\102\047\076\001\002\000\004\021" +
+    "\030\001\002\000\022\003\uffdb\012\uffdb\022\uffdb\050\uffdb" +
+    "\052\uffdb\053\uffdb\054\uffdb\055\uffdb\001\002\000\022\003" +
+    "\uffde\012\uffde\022\uffde\050\uffde\052\uffde\053\uffde\054\uffde" +
+    "\055\uffde\001\002\000\004\012\022\001\002\000\006\023" +
+    "\124\025\173\001\002\000\006\023\uffb6\025\uffb6\001\002" +
+    "\000\022\003\uffda\012\uffda\022\uffda\050\uffda\052\uffda\053" +
+    "\uffda\054\uffda\055\uffda\001\002\000\004\025\026\001\002" +
+    "\000\032\003\ufff8\004\ufff8\005\ufff8\006\ufff8\007\ufff8\012" +
+    "\ufff8\022\ufff8\050\ufff8\052\ufff8\053\ufff8\054\ufff8\055\ufff8" +
+    "\001\002\000\004\012\022\001\002\000\004\025\200\001" +
+    "\002\000\036\002\ufff4\003\ufff4\004\ufff4\005\ufff4\006\ufff4" +
+    "\007\ufff4\012\ufff4\016\ufff4\022\ufff4\050\ufff4\052\ufff4\053" +
+    "\ufff4\054\ufff4\055\ufff4\001\002\000\032\003\ufff7\004\ufff7" +
+    "\005\ufff7\006\ufff7\007\ufff7\012\ufff7\022\ufff7\050\ufff7\052" +
+    "\ufff7\053\ufff7\054\ufff7\055\ufff7\001\002\000\004\016\213" +
+    "\001\002\000\004\012\022\001\002\000\006\016\210\024" +
+    "\207\001\002\000\004\021\uffed\001\002\000\006\016\uffeb" +
+    "\024\uffeb\001\002\000\010\004\010\005\020\006\011\001" +
+    "\002\000\004\021\uffec\001\002\000\006\016\uffea\024\uffea" +
+    "\001\002\000\006\016\uffe9\024\uffe9\001\002\000\004\021" +
+    "\030\001\002\000\016\002\ufff2\003\ufff2\004\ufff2\005\ufff2" +
+    "\006\ufff2\007\ufff2\001\002\000\006\012\022\015\216\001" +
+    "\002\000\014\003\217\004\010\005\020\006\011\007\033" +
+    "\001\002\000\004\016\225\001\002\000\014\004\uffee\005" +
+    "\uffee\006\uffee\007\uffee\016\uffee\001\002\000\014\004\010" +
+    "\005\020\006\011\007\033\016\223\001\002\000\014\004" +
+    "\uffef\005\uffef\006\uffef\007\uffef\016\uffef\001\002\000\004" +
+    "\025\224\001\002\000\016\002\ufff1\003\ufff1\004\ufff1\005" +
+    "\ufff1\006\ufff1\007\ufff1\001\002\000\004\025\226\001\002" +
+    "\000\016\002\ufff0\003\ufff0\004\ufff0\005\ufff0\006\ufff0\007" +
+    "\ufff0\001\002" });
 
   /** Access to parse-action table. */
   public short[][] action_table() {return _action_table;}
@@ -272,79 +287,80 @@ public class parser extends java_cup.runtime.lr_parser {
   /** <code>reduce_goto</code> table. */
   protected static final short[][] _reduce_table = 
     unpackFromStrings(new String[] {
-    "\000\210\000\006\002\004\003\003\001\001\000\014\004" +
-    "\015\006\006\007\013\010\011\025\014\001\001\000\002" +
+    "\000\224\000\006\002\004\003\003\001\001\000\014\004" +
+    "\016\006\006\007\013\010\011\025\014\001\001\000\002" +
     "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
-    "\001\000\002\001\001\000\002\001\001\000\004\027\203" +
-    "\001\001\000\002\001\001\000\004\027\020\001\001\000" +
-    "\002\001\001\000\002\001\001\000\002\001\001\000\004" +
-    "\012\022\001\001\000\010\013\174\014\176\025\173\001" +
-    "\001\000\004\015\025\001\001\000\002\001\001\000\004" +
-    "\005\026\001\001\000\002\001\001\000\010\006\032\016" +
-    "\031\025\030\001\001\000\004\027\170\001\001\000\004" +
-    "\027\167\001\001\000\014\017\036\020\042\023\044\026" +
-    "\040\027\035\001\001\000\002\001\001\000\002\001\001" +
-    "\000\016\020\054\021\156\022\047\023\057\026\052\027" +
-    "\035\001\001\000\002\001\001\000\002\001\001\000\002" +
-    "\001\001\000\002\001\001\000\016\020\054\021\131\022" +
-    "\047\023\057\026\052\027\035\001\001\000\002\001\001" +
-    "\000\002\001\001\000\002\001\001\000\016\020\054\021" +
-    "\050\022\047\023\057\026\052\027\035\001\001\000\016" +
-    "\020\054\021\123\022\047\023\057\026\052\027\035\001" +
-    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
-    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
-    "\002\001\001\000\016\020\054\021\115\022\047\023\057" +
-    "\026\052\027\035\001\001\000\002\001\001\000\002\001" +
-    "\001\000\002\001\001\000\016\020\054\021\063\022\047" +
-    "\023\057\026\052\027\035\001\001\000\002\001\001\000" +
-    "\016\020\054\021\114\022\047\023\057\026\052\027\035" +
-    "\001\001\000\016\020\054\021\113\022\047\023\057\026" +
-    "\052\027\035\001\001\000\016\020\054\021\112\022\047" +
-    "\023\057\026\052\027\035\001\001\000\016\020\054\021" +
-    "\111\022\047\023\057\026\052\027\035\001\001\000\016" +
-    "\020\054\021\110\022\047\023\057\026\052\027\035\001" +
-    "\001\000\016\020\054\021\107\022\047\023\057\026\052" +
-    "\027\035\001\001\000\016\020\054\021\106\022\047\023" +
-    "\057\026\052\027\035\001\001\000\016\020\054\021\105" +
-    "\022\047\023\057\026\052\027\035\001\001\000\016\020" +
-    "\054\021\104\022\047\023\057\026\052\027\035\001\001" +
-    "\000\002\001\001\000\016\020\054\021\103\022\047\023" +
-    "\057\026\052\027\035\001\001\000\016\020\054\021\102" +
-    "\022\047\023\057\026\052\027\035\001\001\000\016\020" +
-    "\054\021\101\022\047\023\057\026\052\027\035\001\001" +
-    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\001\000\002\001\001\000\002\001\001\000\004\027\214" +
+    "\001\001\000\002\001\001\000\004\027\022\001\001\000" +
     "\002\001\001\000\002\001\001\000\002\001\001\000\002" +
-    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
-    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
-    "\000\004\027\121\001\001\000\016\020\054\021\120\022" +
-    "\047\023\057\026\052\027\035\001\001\000\002\001\001" +
-    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
-    "\002\001\001\000\016\020\054\021\126\022\047\023\057" +
-    "\026\052\027\035\001\001\000\002\001\001\000\002\001" +
-    "\001\000\002\001\001\000\002\001\001\000\004\005\133" +
-    "\001\001\000\010\006\032\016\134\025\030\001\001\000" +
-    "\014\017\036\020\042\023\044\026\040\027\035\001\001" +
-    "\000\002\001\001\000\002\001\001\000\004\005\140\001" +
-    "\001\000\010\006\032\016\141\025\030\001\001\000\014" +
-    "\017\036\020\042\023\044\026\040\027\035\001\001\000" +
+    "\001\001\000\002\001\001\000\004\012\024\001\001\000" +
+    "\010\013\203\014\205\025\202\001\001\000\004\015\026" +
+    "\001\001\000\002\001\001\000\002\001\001\000\004\005" +
+    "\031\001\001\000\002\001\001\000\010\006\036\016\035" +
+    "\025\034\001\001\000\004\027\175\001\001\000\002\001" +
+    "\001\000\004\027\173\001\001\000\014\017\042\020\046" +
+    "\023\051\026\044\027\041\001\001\000\002\001\001\000" +
+    "\002\001\001\000\016\020\061\021\163\022\054\023\064" +
+    "\026\057\027\041\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\002\001\001\000\016\020\061" +
+    "\021\140\022\054\023\064\026\057\027\041\001\001\000" +
+    "\002\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\001\001\000\016\020\061\021\055\022\054\023\064\026" +
+    "\057\027\041\001\001\000\016\020\061\021\130\022\054" +
+    "\023\064\026\057\027\041\001\001\000\002\001\001\000" +
     "\002\001\001\000\002\001\001\000\002\001\001\000\002" +
-    "\001\001\000\002\001\001\000\020\020\054\021\150\022" +
-    "\047\023\057\024\151\026\052\027\035\001\001\000\002" +
     "\001\001\000\002\001\001\000\002\001\001\000\016\020" +
-    "\054\021\155\022\047\023\057\026\052\027\035\001\001" +
+    "\061\021\122\022\054\023\064\026\057\027\041\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\016\020\061\021\070\022\054\023\064\026\057\027\041" +
+    "\001\001\000\002\001\001\000\016\020\061\021\121\022" +
+    "\054\023\064\026\057\027\041\001\001\000\016\020\061" +
+    "\021\120\022\054\023\064\026\057\027\041\001\001\000" +
+    "\016\020\061\021\117\022\054\023\064\026\057\027\041" +
+    "\001\001\000\016\020\061\021\116\022\054\023\064\026" +
+    "\057\027\041\001\001\000\016\020\061\021\115\022\054" +
+    "\023\064\026\057\027\041\001\001\000\016\020\061\021" +
+    "\114\022\054\023\064\026\057\027\041\001\001\000\016" +
+    "\020\061\021\113\022\054\023\064\026\057\027\041\001" +
+    "\001\000\016\020\061\021\112\022\054\023\064\026\057" +
+    "\027\041\001\001\000\016\020\061\021\111\022\054\023" +
+    "\064\026\057\027\041\001\001\000\002\001\001\000\016" +
+    "\020\061\021\110\022\054\023\064\026\057\027\041\001" +
+    "\001\000\016\020\061\021\107\022\054\023\064\026\057" +
+    "\027\041\001\001\000\016\020\061\021\106\022\054\023" +
+    "\064\026\057\027\041\001\001\000\002\001\001\000\002" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
     "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
-    "\004\005\160\001\001\000\010\006\032\016\161\025\030" +
-    "\001\001\000\014\017\036\020\042\023\044\026\040\027" +
-    "\035\001\001\000\002\001\001\000\006\026\164\027\165" +
+    "\002\001\001\000\002\001\001\000\004\027\126\001\001" +
+    "\000\016\020\061\021\125\022\054\023\064\026\057\027" +
+    "\041\001\001\000\002\001\001\000\002\001\001\000\002" +
     "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
-    "\001\000\002\001\001\000\004\027\171\001\001\000\002" +
-    "\001\001\000\002\001\001\000\004\027\202\001\001\000" +
-    "\002\001\001\000\002\001\001\000\002\001\001\000\010" +
-    "\013\200\014\176\025\173\001\001\000\002\001\001\000" +
-    "\002\001\001\000\002\001\001\000\004\027\171\001\001" +
-    "\000\010\006\205\011\206\025\030\001\001\000\002\001" +
-    "\001\000\006\006\207\025\030\001\001\000\002\001\001" +
-    "\000\002\001\001\000\002\001\001" });
+    "\001\000\002\001\001\000\016\020\061\021\135\022\054" +
+    "\023\064\026\057\027\041\001\001\000\002\001\001\000" +
+    "\002\001\001\000\002\001\001\000\004\015\145\001\001" +
+    "\000\004\015\142\001\001\000\002\001\001\000\004\015" +
+    "\144\001\001\000\002\001\001\000\002\001\001\000\004" +
+    "\015\147\001\001\000\002\001\001\000\002\001\001\000" +
+    "\002\001\001\000\002\001\001\000\002\001\001\000\020" +
+    "\020\061\021\155\022\054\023\064\024\156\026\057\027" +
+    "\041\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\001\001\000\016\020\061\021\162\022\054\023\064\026" +
+    "\057\027\041\001\001\000\002\001\001\000\002\001\001" +
+    "\000\004\015\166\001\001\000\004\015\165\001\001\000" +
+    "\002\001\001\000\002\001\001\000\006\026\170\027\171" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\002\001\001\000\004\027\176" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\004\027\211\001\001\000\002" +
+    "\001\001\000\002\001\001\000\002\001\001\000\006\014" +
+    "\210\025\202\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\004\015\213\001\001\000\002\001" +
+    "\001\000\004\027\176\001\001\000\010\006\217\011\220" +
+    "\025\034\001\001\000\002\001\001\000\002\001\001\000" +
+    "\006\006\221\025\034\001\001\000\002\001\001\000\002" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001" });
 
   /** Access to <code>reduce_goto</code> table. */
   public short[][] reduce_table() {return _reduce_table;}
@@ -384,16 +400,54 @@ public class parser extends java_cup.runtime.lr_parser {
 
 
 
+/* The compilation this parser belongs to (errors are reported to it). */
+private CompilationContext ctx;
+
+/* The number of syntax errors reported. */
+private int errors = 0;
+
+public int syntaxErrors() {
+    return errors;
+}
+
+// DefaultSymbolFactory() is marked deprecated in this runtime, but it is
+// the only factory that works with the plain Symbols the scanner returns
+@SuppressWarnings("deprecation")
+public parser(java_cup.runtime.Scanner s, CompilationContext ctx) {
+    super(s, new DefaultSymbolFactory());
+    this.ctx = ctx;
+}
+
 public void syntax_error(Symbol currToken) {
+    errors++;
     if (currToken.value == null) {
-        ErrMsg.fatal(0,0, "Syntax error at end of file");
+        ctx.fatal(0,0, "Syntax error at end of file");
     }
     else {
-        ErrMsg.fatal(((TokenVal)currToken.value).lineNum,
+        ctx.fatal(((TokenVal)currToken.value).lineNum,
                      ((TokenVal)currToken.value).charNum,
                      "Syntax error");
     }
-    System.exit(-1);
+}
+
+/* The parser has recovered from a syntax error once it can parse this
+ * many tokens from where it resumes: the token that ends the part skipped
+ * (a DOT, say) and the one after it.  With the default of 3, an error in
+ * the first tokens after a skipped part (say, in a declaration right
+ * after a bad one) is taken as part of the same error and not reported.
+ */
+public int error_sync_size() {
+    return 2;
+}
+
+/* Called when the parser cannot recover (at the end of the file).  The
+ * default version reports "Couldn't repair and continue parse" on stderr;
+ * the error has already been reported by syntax_error above, so just stop
+ * the parse and let the caller decide what to do.
+ */
+public void unrecovered_syntax_error(Symbol currToken) throws Exception {
+    done_parsing();
+    throw new Exception("unrecoverable syntax error");
 }
 
 
@@ -441,7 +495,7 @@ class CUP$parser$actions {
               ProgramNode RESULT =null;
 		int dleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int dright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList d = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		ArrayList d = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new ProgramNode(new DeclListNode(d));
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("program",0, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -451,14 +505,16 @@ class CUP$parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 2: // declList ::= declList decl 
             {
-              LinkedList RESULT =null;
+              ArrayList RESULT =null;
 		int dlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int dlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList dl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		ArrayList dl = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		int dleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int dright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		DeclNode d = (DeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 dl.addLast(d);
+		 if (d != null) {     // null after a syntax error
+                       dl.add(d);
+                   }
                    RESULT = dl;
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("declList",1, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -468,8 +524,8 @@ class CUP$parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 3: // declList ::= 
             {
-              LinkedList RESULT =null;
-		 RESULT = new LinkedList<DeclNode>();
+              ArrayList RESULT =null;
+		 RESULT = new ArrayList<DeclNode>();
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("declList",1, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
@@ -495,7 +551,7 @@ class CUP$parser$actions {
 		int fleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int fright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		FctnDeclNode f = (FctnDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 RESULT = f;
+		 RESULT = f;      // null after a syntax error
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("decl",2, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
@@ -508,23 +564,33 @@ class CUP$parser$actions {
 		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int tright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		TupleDeclNode t = (TupleDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 RESULT = t;
+		 RESULT = t;      // null after a syntax error
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("decl",2, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 7: // varDeclList ::= varDeclList varDecl 
+          case 7: // decl ::= error DOT 
+            {
+              DeclNode RESULT =null;
+		 RESULT = null;
+                
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("decl",2, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 8: // varDeclList ::= varDeclList varDecl 
             {
-              LinkedList RESULT =null;
+              ArrayList RESULT =null;
 		int vdlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int vdlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList vdl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		ArrayList vdl = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		int vdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int vdright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		VarDeclNode vd = (VarDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 vdl.addLast(vd);
+		 vdl.add(vd);
                    RESULT = vdl;
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("varDeclList",3, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -532,17 +598,40 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 8: // varDeclList ::= 
+          case 9: // varDeclList ::= varDeclList error DOT 
+            {
+              ArrayList RESULT =null;
+		int vdlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
+		int vdlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
+		ArrayList vdl = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		 RESULT = vdl;
+                
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("varDeclList",3, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 10: // varDeclList ::= error DOT 
             {
-              LinkedList RESULT =null;
-		 RESULT = new LinkedList<VarDeclNode>();
+              ArrayList RESULT =null;
+		 RESULT = new ArrayList<VarDeclNode>();
+                
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("varDeclList",3, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 11: // varDeclList ::= 
+            {
+              ArrayList RESULT =null;
+		 RESULT = new ArrayList<VarDeclNode>();
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("varDeclList",3, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 9: // varDecl ::= type id DOT 
+          case 12: // varDecl ::= type id DOT 
             {
               VarDeclNode RESULT =null;
 		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -558,7 +647,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 10: // varDecl ::= TUPLE id id DOT 
+          case 13: // varDecl ::= TUPLE id id DOT 
             {
               VarDeclNode RESULT =null;
 		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -574,7 +663,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 11: // fctnDecl ::= type id formals fctnBody 
+          case 14: // fctnDecl ::= type id formals body 
             {
               FctnDeclNode RESULT =null;
 		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).left;
@@ -585,7 +674,7 @@ class CUP$parser$actions {
 		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
 		int fleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int fright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList f = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		ArrayList f = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		int fbleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int fbright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		FctnBodyNode fb = (FctnBodyNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
@@ -596,7 +685,17 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 12: // tupleDecl ::= TUPLE id LCURLY tupleBody RCURLY DOT 
+          case 15: // fctnDecl ::= type id LCURLY error RCURLY body 
+            {
+              FctnDeclNode RESULT =null;
+		 RESULT = null;
+                
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("fctnDecl",5, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 16: // tupleDecl ::= TUPLE id LCURLY tupleBody RCURLY DOT 
             {
               TupleDeclNode RESULT =null;
 		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-4)).left;
@@ -604,7 +703,7 @@ class CUP$parser$actions {
 		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-4)).value;
 		int tbleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
 		int tbright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList tb = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		ArrayList tb = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
 		 RESULT = new TupleDeclNode(i, new DeclListNode(tb));
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("tupleDecl",6, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -612,16 +711,26 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 13: // tupleBody ::= tupleBody varDecl 
+          case 17: // tupleDecl ::= TUPLE id LCURLY error RCURLY DOT 
             {
-              LinkedList RESULT =null;
+              TupleDeclNode RESULT =null;
+		 RESULT = null;
+                
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("tupleDecl",6, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 18: // tupleBody ::= tupleBody varDecl 
+            {
+              ArrayList RESULT =null;
 		int tbleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int tbright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList tb = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		ArrayList tb = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		int vdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int vdright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		VarDeclNode vd = (VarDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 tb.addLast(vd);
+		 tb.add(vd);
                    RESULT = tb;
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("tupleBody",7, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -629,15 +738,14 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 14: // tupleBody ::= varDecl 
+          case 19: // tupleBody ::= varDecl 
             {
-              LinkedList RESULT =null;
+              ArrayList RESULT =null;
 		int vdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int vdright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		VarDeclNode vd = (VarDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 LinkedList<VarDeclNode> list = 
-                                           new LinkedList<VarDeclNode>();
-                   list.addLast(vd);
+		 ArrayList<VarDeclNode> list = new ArrayList<VarDeclNode>();
+                   list.add(vd);
                    RESULT = list;
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("tupleBody",7, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -645,22 +753,22 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 15: // formals ::= LCURLY RCURLY 
+          case 20: // formals ::= LCURLY RCURLY 
             {
-              LinkedList RESULT =null;
-		 RESULT = new LinkedList<FormalDeclNode>();
+              ArrayList RESULT =null;
+		 RESULT = new ArrayList<FormalDeclNode>(0);
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("formals",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 16: // formals ::= LCURLY formalsList RCURLY 
+          case 21: // formals ::= LCURLY formalsList RCURLY 
             {
-              LinkedList RESULT =null;
+              ArrayList RESULT =null;
 		int flleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int flright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList fl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		ArrayList fl = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		 RESULT = fl;
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("formals",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -668,15 +776,15 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 17: // formalsList ::= formalDecl 
+          case 22: // formalsList ::= formalDecl 
             {
-              LinkedList RESULT =null;
+              ArrayList RESULT =null;
 		int fdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int fdright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		FormalDeclNode fd = (FormalDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 LinkedList<FormalDeclNode> list = 
-                                              new LinkedList<FormalDeclNode>();
-                   list.addLast(fd);
+		 ArrayList<FormalDeclNode> list =
+                                              new ArrayList<FormalDeclNode>();
+                   list.add(fd);
                    RESULT = list;
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("formalsList",9, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -684,16 +792,16 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 18: // formalsList ::= formalDecl COMMA formalsList 
+          case 23: // formalsList ::= formalsList COMMA formalDecl 
             {
-              LinkedList RESULT =null;
-		int fdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int fdright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		FormalDeclNode fd = (FormalDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int flleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int flright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList fl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 fl.addFirst(fd);
+              ArrayList RESULT =null;
+		int flleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
+		int flright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
+		ArrayList fl = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		int fdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int fdright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		FormalDeclNode fd = (FormalDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 fl.add(fd);
                    RESULT = fl;
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("formalsList",9, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -701,7 +809,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 19: // formalDecl ::= type id 
+          case 24: // formalDecl ::= type id 
             {
               FormalDeclNode RESULT =null;
 		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
@@ -717,33 +825,52 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 20: // fctnBody ::= LSQBRACKET varDeclList stmtList RSQBRACKET 
+          case 25: // body ::= LSQBRACKET varDeclList stmtList RSQBRACKET 
             {
               FctnBodyNode RESULT =null;
 		int vdlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
 		int vdlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList vdl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		ArrayList vdl = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
 		int slleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int slright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList sl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		ArrayList sl = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		 RESULT = new FctnBodyNode(
+                            new DeclListNode(vdl), new StmtListNode(sl));
+                
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("body",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 26: // body ::= LSQBRACKET varDeclList stmtList error RSQBRACKET 
+            {
+              FctnBodyNode RESULT =null;
+		int vdlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).left;
+		int vdlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).right;
+		ArrayList vdl = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-3)).value;
+		int slleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
+		int slright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
+		ArrayList sl = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
 		 RESULT = new FctnBodyNode(
                             new DeclListNode(vdl), new StmtListNode(sl));
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("fctnBody",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("body",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-4)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 21: // stmtList ::= stmtList stmt 
+          case 27: // stmtList ::= stmtList stmt 
             {
-              LinkedList RESULT =null;
+              ArrayList RESULT =null;
 		int slleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int slright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList sl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		ArrayList sl = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		int sleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		StmtNode s = (StmtNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 sl.addLast(s);
+		 if (s != null) {     // null after a syntax error
+                       sl.add(s);
+                   }
                    RESULT = sl;
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("stmtList",12, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -751,17 +878,17 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 22: // stmtList ::= 
+          case 28: // stmtList ::= 
             {
-              LinkedList RESULT =null;
-		 RESULT = new LinkedList<StmtNode>();
+              ArrayList RESULT =null;
+		 RESULT = new ArrayList<StmtNode>();
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("stmtList",12, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 23: // stmt ::= assignExp DOT 
+          case 29: // stmt ::= assignExp DOT 
             {
               StmtNode RESULT =null;
 		int aeleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
@@ -774,7 +901,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 24: // stmt ::= fctnCall DOT 
+          case 30: // stmt ::= fctnCall DOT 
             {
               StmtNode RESULT =null;
 		int fleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
@@ -787,7 +914,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 25: // stmt ::= loc PLUSPLUS DOT 
+          case 31: // stmt ::= loc PLUSPLUS DOT 
             {
               StmtNode RESULT =null;
 		int lcleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -800,7 +927,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 26: // stmt ::= loc MINUSMINUS DOT 
+          case 32: // stmt ::= loc MINUSMINUS DOT 
             {
               StmtNode RESULT =null;
 		int lcleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -813,74 +940,90 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 27: // stmt ::= IF exp LSQBRACKET varDeclList stmtList RSQBRACKET 
+          case 33: // stmt ::= IF exp body 
             {
               StmtNode RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-4)).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-4)).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-4)).value;
-		int vdlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int vdlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList vdl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int slleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int slright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList sl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		 RESULT = new IfStmtNode(e, 
-                                new DeclListNode(vdl), new StmtListNode(sl));
+		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
+		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
+		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int bleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int bright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		FctnBodyNode b = (FctnBodyNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 RESULT = new IfStmtNode(e, b.declList(), b.stmtList());
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 28: // stmt ::= IF exp LSQBRACKET varDeclList stmtList RSQBRACKET ELSE LSQBRACKET varDeclList stmtList RSQBRACKET 
+          case 34: // stmt ::= IF exp body ELSE body 
             {
               StmtNode RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-9)).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-9)).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-9)).value;
-		int vdltleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-7)).left;
-		int vdltright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-7)).right;
-		LinkedList vdlt = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-7)).value;
-		int sltleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-6)).left;
-		int sltright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-6)).right;
-		LinkedList slt = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-6)).value;
-		int vdleleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int vdleright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList vdle = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int sleleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int sleright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList sle = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).left;
+		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).right;
+		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-3)).value;
+		int btleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
+		int btright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
+		FctnBodyNode bt = (FctnBodyNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		int beleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int beright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		FctnBodyNode be = (FctnBodyNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new IfElseStmtNode(e, 
-                                new DeclListNode(vdlt), new StmtListNode(slt),
-                                new DeclListNode(vdle), new StmtListNode(sle));
+                                bt.declList(), bt.stmtList(),
+                                be.declList(), be.stmtList());
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-10)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-4)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 29: // stmt ::= WHILE exp LSQBRACKET varDeclList stmtList RSQBRACKET 
+          case 35: // stmt ::= WHILE exp body 
             {
               StmtNode RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-4)).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-4)).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-4)).value;
-		int vdlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int vdlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList vdl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int slleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int slright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList sl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		 RESULT = new WhileStmtNode(e, 
-                                new DeclListNode(vdl), new StmtListNode(sl));
+		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
+		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
+		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int bleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int bright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		FctnBodyNode b = (FctnBodyNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 RESULT = new WhileStmtNode(e, b.declList(), b.stmtList());
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 30: // stmt ::= READ INPUTOP loc DOT 
+          case 36: // stmt ::= IF error body 
+            {
+              StmtNode RESULT =null;
+		 RESULT = null;
+                
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 37: // stmt ::= IF error body ELSE body 
+            {
+              StmtNode RESULT =null;
+		 RESULT = null;
+                
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-4)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 38: // stmt ::= WHILE error body 
+            {
+              StmtNode RESULT =null;
+		 RESULT = null;
+                
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 39: // stmt ::= READ INPUTOP loc DOT 
             {
               StmtNode RESULT =null;
 		int lcleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
@@ -893,7 +1036,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 31: // stmt ::= WRITE OUTPUTOP exp DOT 
+          case 40: // stmt ::= WRITE OUTPUTOP exp DOT 
             {
               StmtNode RESULT =null;
 		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
@@ -906,7 +1049,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 32: // stmt ::= RETURN exp DOT 
+          case 41: // stmt ::= RETURN exp DOT 
             {
               StmtNode RESULT =null;
 		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
@@ -919,7 +1062,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 33: // stmt ::= RETURN DOT 
+          case 42: // stmt ::= RETURN DOT 
             {
               StmtNode RESULT =null;
 		 RESULT = new ReturnStmtNode(null);
@@ -929,7 +1072,17 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 34: // assignExp ::= loc ASSIGN exp 
+          case 43: // stmt ::= error DOT 
+            {
+              StmtNode RESULT =null;
+		 RESULT = null;
+                
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 44: // assignExp ::= loc ASSIGN exp 
             {
               AssignExpNode RESULT =null;
 		int lcleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -945,7 +1098,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 35: // exp ::= assignExp 
+          case 45: // exp ::= assignExp 
             {
               ExpNode RESULT =null;
 		int aeleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
@@ -958,7 +1111,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 36: // exp ::= exp PLUS exp 
+          case 46: // exp ::= exp PLUS exp 
             {
               ExpNode RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -974,7 +1127,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 37: // exp ::= exp MINUS exp 
+          case 47: // exp ::= exp MINUS exp 
             {
               ExpNode RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -990,7 +1143,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 38: // exp ::= exp TIMES exp 
+          case 48: // exp ::= exp TIMES exp 
             {
               ExpNode RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -1006,7 +1159,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 39: // exp ::= exp DIVIDE exp 
+          case 49: // exp ::= exp DIVIDE exp 
             {
               ExpNode RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -1022,7 +1175,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 40: // exp ::= exp EQUALS exp 
+          case 50: // exp ::= exp EQUALS exp 
             {
               ExpNode RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -1038,7 +1191,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 41: // exp ::= exp NOTEQUALS exp 
+          case 51: // exp ::= exp NOTEQUALS exp 
             {
               ExpNode RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -1054,7 +1207,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 42: // exp ::= exp GREATER exp 
+          case 52: // exp ::= exp GREATER exp 
             {
               ExpNode RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -1070,7 +1223,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 43: // exp ::= exp GREATEREQ exp 
+          case 53: // exp ::= exp GREATEREQ exp 
             {
               ExpNode RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -1086,7 +1239,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 44: // exp ::= exp LESS exp 
+          case 54: // exp ::= exp LESS exp 
             {
               ExpNode RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -1102,7 +1255,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 45: // exp ::= exp LESSEQ exp 
+          case 55: // exp ::= exp LESSEQ exp 
             {
               ExpNode RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -1118,7 +1271,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 46: // exp ::= exp AND exp 
+          case 56: // exp ::= exp AND exp 
             {
               ExpNode RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -1134,7 +1287,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 47: // exp ::= exp OR exp 
+          case 57: // exp ::= exp OR exp 
             {
               ExpNode RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -1150,7 +1303,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 48: // exp ::= NOT exp 
+          case 58: // exp ::= NOT exp 
             {
               ExpNode RESULT =null;
 		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
@@ -1163,7 +1316,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 49: // exp ::= MINUS exp 
+          case 59: // exp ::= MINUS exp 
             {
               ExpNode RESULT =null;
 		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
@@ -1176,7 +1329,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 50: // exp ::= term 
+          case 60: // exp ::= term 
             {
               ExpNode RESULT =null;
 		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
@@ -1189,7 +1342,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 51: // term ::= loc 
+          case 61: // term ::= loc 
             {
               ExpNode RESULT =null;
 		int lcleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
@@ -1202,7 +1355,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 52: // term ::= TRUE 
+          case 62: // term ::= TRUE 
             {
               ExpNode RESULT =null;
 		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
@@ -1215,7 +1368,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 53: // term ::= FALSE 
+          case 63: // term ::= FALSE 
             {
               ExpNode RESULT =null;
 		int fleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
@@ -1228,7 +1381,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 54: // term ::= INTLITERAL 
+          case 64: // term ::= INTLITERAL 
             {
               ExpNode RESULT =null;
 		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
@@ -1241,7 +1394,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 55: // term ::= STRLITERAL 
+          case 65: // term ::= STRLITERAL 
             {
               ExpNode RESULT =null;
 		int sleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
@@ -1254,7 +1407,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 56: // term ::= LPAREN exp RPAREN 
+          case 66: // term ::= LPAREN exp RPAREN 
             {
               ExpNode RESULT =null;
 		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
@@ -1267,7 +1420,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 57: // term ::= fctnCall 
+          case 67: // term ::= fctnCall 
             {
               ExpNode RESULT =null;
 		int fleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
@@ -1280,21 +1433,21 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 58: // fctnCall ::= id LPAREN RPAREN 
+          case 68: // fctnCall ::= id LPAREN RPAREN 
             {
               CallExpNode RESULT =null;
 		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
 		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
 		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
 		 RESULT = new CallExpNode(i, 
-                                new ExpListNode(new LinkedList<ExpNode>()));
+                                new ExpListNode(new ArrayList<ExpNode>(0)));
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("fctnCall",17, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 59: // fctnCall ::= id LPAREN actualList RPAREN 
+          case 69: // fctnCall ::= id LPAREN actualList RPAREN 
             {
               CallExpNode RESULT =null;
 		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).left;
@@ -1302,7 +1455,7 @@ class CUP$parser$actions {
 		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-3)).value;
 		int alleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int alright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList al = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		ArrayList al = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		 RESULT = new CallExpNode(i, new ExpListNode(al));
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("fctnCall",17, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -1310,14 +1463,14 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 60: // actualList ::= exp 
+          case 70: // actualList ::= exp 
             {
-              LinkedList RESULT =null;
+              ArrayList RESULT =null;
 		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 LinkedList<ExpNode> list = new LinkedList<ExpNode>();
-                   list.addLast(e);
+		 ArrayList<ExpNode> list = new ArrayList<ExpNode>();
+                   list.add(e);
                    RESULT = list;
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("actualList",18, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -1325,16 +1478,16 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 61: // actualList ::= actualList COMMA exp 
+          case 71: // actualList ::= actualList COMMA exp 
             {
-              LinkedList RESULT =null;
+              ArrayList RESULT =null;
 		int alleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
 		int alright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList al = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		ArrayList al = (ArrayList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
 		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 al.addLast(e);
+		 al.add(e);
                    RESULT = al;
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("actualList",18, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
@@ -1342,7 +1495,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 62: // type ::= INTEGER 
+          case 72: // type ::= INTEGER 
             {
               TypeNode RESULT =null;
 		 RESULT = new IntegerNode();
@@ -1352,7 +1505,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 63: // type ::= LOGICAL 
+          case 73: // type ::= LOGICAL 
             {
               TypeNode RESULT =null;
 		 RESULT = new LogicalNode();
@@ -1362,7 +1515,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 64: // type ::= VOID 
+          case 74: // type ::= VOID 
             {
               TypeNode RESULT =null;
 		 RESULT = new VoidNode();
@@ -1372,7 +1525,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 65: // loc ::= id 
+          case 75: // loc ::= id 
             {
               ExpNode RESULT =null;
 		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
@@ -1385,7 +1538,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 66: // loc ::= loc COLON id 
+          case 76: // loc ::= loc COLON id 
             {
               ExpNode RESULT =null;
 		int lcleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -1401,13 +1554,13 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 67: // id ::= ID 
+          case 77: // id ::= ID 
             {
               IdNode RESULT =null;
 		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		IdTokenVal i = (IdTokenVal)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 RESULT = new IdNode(i.lineNum, i.charNum, i.idVal);
+		 RESULT = new IdNode(i.lineNum, i.charNum, i.idVal, i.id);
                 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("id",21, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
@@ -8,6 +8,7 @@ public class sym {
   /* terminals */
   public static final int PLUSPLUS = 23;
   public static final int DIVIDE = 28;
+  public static final int EMPTYSTMTS = 45;
   public static final int INPUTOP = 20;
   public static final int EQUALS = 32;
   public static final int TUPLE = 5;
@@ -96,7 +97,8 @@ public class sym {
   "READ",
   "WRITE",
   "RETURN",
-  "UMINUS"
+  "UMINUS",
+  "EMPTYSTMTS"
   };
 }
 
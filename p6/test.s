@@ -13,6 +13,12 @@ main:		# METHOD ENTRY
 	subu  $sp, $sp, 4
 	addu  $fp, $sp, 8
 	subu  $sp, $sp, 4
+	li    $t0, 2
+	sw    $t0, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	lw    $t0, 4($sp)	# POP
+	addu  $sp, $sp, 4
+	sw    $t0, -8($fp)
 			# WRITE
 	.data
 .L0:	.asciiz "Hello world!\n"
@@ -25,8 +31,7 @@ main:		# METHOD ENTRY
 	li    $v0, 4
 	syscall
 			# WRITE
-	.data
-	lw    $t0, 0($fp)
+	lw    $t0, -8($fp)
 	sw    $t0, 0($sp)	# PUSH
 	subu  $sp, $sp, 4
 	lw    $a0, 4($sp)	# POP
@@ -45,7 +50,6 @@ main:		# METHOD ENTRY
 	li    $v0, 4
 	syscall
 			# IF-THEN
-	.data
 	li    $t0, 2
 	sw    $t0, 0($sp)	# PUSH
 	subu  $sp, $sp, 4
@@ -56,12 +60,7 @@ main:		# METHOD ENTRY
 	addu  $sp, $sp, 4
 	lw    $t0, 4($sp)	# POP
 	addu  $sp, $sp, 4
-	seq   $t0, $t0, $t1
-	sw    $t0, 0($sp)	# PUSH
-	subu  $sp, $sp, 4
-	lw    $t0, 4($sp)	# POP
-	addu  $sp, $sp, 4
-	beq   $t0, 0, .L2
+	bne   $t0, $t1, .L2
 			# WRITE
 	.data
 .L3:	.asciiz "Failed!\n"
@@ -81,6 +80,7 @@ main:		# METHOD ENTRY
 	la    $t0, .L5
 	sw    $t0, 0($sp)	# PUSH
 	subu  $sp, $sp, 4
+	.data
 .L6:	.asciiz "ac"
 	.text
 	la    $t0, .L6
@@ -90,12 +90,7 @@ main:		# METHOD ENTRY
 	addu  $sp, $sp, 4
 	lw    $t0, 4($sp)	# POP
 	addu  $sp, $sp, 4
-	sne   $t0, $t0, $t1
-	sw    $t0, 0($sp)	# PUSH
-	subu  $sp, $sp, 4
-	lw    $t0, 4($sp)	# POP
-	addu  $sp, $sp, 4
-	beq   $t0, 0, .L4
+	beq   $t0, $t1, .L4
 			# WRITE
 	.data
 .L7:	.asciiz "Success!\n"
@@ -109,7 +104,6 @@ main:		# METHOD ENTRY
 	syscall
 .L4:
 			# IF-THEN
-	.data
 	li    $t0, 1
 	sw    $t0, 0($sp)	# PUSH
 	subu  $sp, $sp, 4
@@ -120,12 +114,7 @@ main:		# METHOD ENTRY
 	addu  $sp, $sp, 4
 	lw    $t0, 4($sp)	# POP
 	addu  $sp, $sp, 4
-	sgt   $t0, $t0, $t1
-	sw    $t0, 0($sp)	# PUSH
-	subu  $sp, $sp, 4
-	lw    $t0, 4($sp)	# POP
-	addu  $sp, $sp, 4
-	beq   $t0, 0, .L8
+	ble   $t0, $t1, .L8
 			# WRITE
 	.data
 .L9:	.asciiz "Failed!\n"
@@ -138,9 +127,14 @@ main:		# METHOD ENTRY
 	li    $v0, 4
 	syscall
 .L8:
+	li    $t0, 3
+	sw    $t0, 0($sp)	# PUSH
+	subu  $sp, $sp, 4
+	lw    $t0, 4($sp)	# POP
+	addu  $sp, $sp, 4
+	sw    $t0, -8($fp)
 			# READ
-	.data
-	lw    $t0, 0($fp)
+	lw    $t0, -8($fp)
 	sw    $t0, 0($sp)	# PUSH
 	subu  $sp, $sp, 4
 	lw    $a0, 4($sp)	# POP